@@ -0,0 +1,95 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.network.IP;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing and formatting of IP´s.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IpBenchmark {
+
+    private static final int SAMPLES = 1 << 10;
+
+    private final String[] notations = new String[SAMPLES];
+    private final IP[] ips = new IP[SAMPLES];
+    private final StringBuilder sb = new StringBuilder();
+    private int cursor;
+
+    /**
+     * Creates random IP´s.
+     */
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            ips[i] = IP.valueOf(random.nextInt());
+            notations[i] = ips[i].toString();
+        }
+    }
+
+    /**
+     * Parses a point notation with the constructor.
+     * @return the IP
+     * @throws ParseException never
+     */
+    @Benchmark
+    public IP construct() throws ParseException {
+        return new IP(notations[next()]);
+    }
+
+    /**
+     * Parses a point notation into a packed IP.
+     * @return the packed IP
+     * @throws ParseException never
+     */
+    @Benchmark
+    public int parse() throws ParseException {
+        return IP.parse(notations[next()]);
+    }
+
+    /**
+     * Formats an IP as new String.
+     * @return the point notation
+     */
+    @Benchmark
+    public String format() {
+        return ips[next()].toString();
+    }
+
+    /**
+     * Appends an IP to a reused StringBuilder.
+     * @return the StringBuilder
+     */
+    @Benchmark
+    public StringBuilder appendTo() {
+        sb.setLength(0);
+        return ips[next()].appendTo(sb);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (SAMPLES - 1);
+        return cursor;
+    }
+}
@@ -0,0 +1,171 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.exceptions.ParseException;
+import edu.kit.informatik.network.IP;
+import edu.kit.informatik.network.Network;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for all public operations of a network on generated trees.
+ * Queries rotate through a sample of roots, so the per root caches of the network are mostly missed.
+ * Mutations are paired with their inverse, so the network is the same before and after every invocation.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class NetworkBenchmark {
+
+    private static final int SAMPLES = 1 << 12;
+    private static final long SEED = 42;
+
+    /**
+     * Number of nodes of the tree.
+     */
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * Shape of the tree.
+     */
+    @Param({"RANDOM", "STAR", "PATH", "CATERPILLAR"})
+    public Topologies.Shape shape;
+
+    private String notation;
+    private Network network;
+    private final IP[] samples = new IP[SAMPLES];
+    private IP leaf;
+    private IP leafParent;
+    private Network leafEdge;
+    private IP newLeaf;
+    private Network newLeafEdge;
+    private int cursor;
+
+    /**
+     * Generates the tree.
+     * @throws ParseException never
+     */
+    @Setup(Level.Trial)
+    public void setup() throws ParseException {
+        int[] parents = Topologies.parents(shape, size, SEED);
+        notation = Topologies.bracketNotation(shape, size, SEED);
+        network = new Network(notation);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = Topologies.ip(random.nextInt(size));
+        }
+        leaf = Topologies.ip(size - 1);
+        leafParent = Topologies.ip(parents[size - 1]);
+        leafEdge = new Network(leafParent, Collections.singletonList(leaf));
+        newLeaf = Topologies.ip(size);
+        newLeafEdge = new Network(leafParent, Collections.singletonList(newLeaf));
+    }
+
+    /**
+     * Parses the whole tree from bracket notation.
+     * @return the network
+     * @throws ParseException never
+     */
+    @Benchmark
+    public Network parse() throws ParseException {
+        return new Network(notation);
+    }
+
+    /**
+     * Tries to connect two nodes of the same tree, which is always rejected.
+     * @return false
+     */
+    @Benchmark
+    public boolean connect() {
+        return network.connect(samples[next()], samples[next()]);
+    }
+
+    /**
+     * Disconnects a leaf and adds it again.
+     * @return if both operations were successful
+     */
+    @Benchmark
+    public boolean disconnectAndAdd() {
+        return network.disconnect(leafParent, leaf) & network.add(leafEdge);
+    }
+
+    /**
+     * Adds a new leaf and disconnects it again.
+     * @return if both operations were successful
+     */
+    @Benchmark
+    public boolean addAndDisconnect() {
+        return network.add(newLeafEdge) & network.disconnect(leafParent, newLeaf);
+    }
+
+    /**
+     * Searches the route between two nodes.
+     * @return the route
+     */
+    @Benchmark
+    public List<IP> getRoute() {
+        return network.getRoute(samples[next()], samples[next()]);
+    }
+
+    /**
+     * Computes the levels from a root.
+     * @return the levels
+     */
+    @Benchmark
+    public List<List<IP>> getLevels() {
+        return network.getLevels(samples[next()]);
+    }
+
+    /**
+     * Computes the height from a root.
+     * @return the height
+     */
+    @Benchmark
+    public int getHeight() {
+        return network.getHeight(samples[next()]);
+    }
+
+    /**
+     * Lists all nodes.
+     * @return sorted list of all nodes
+     */
+    @Benchmark
+    public List<IP> list() {
+        return network.list();
+    }
+
+    /**
+     * Writes the bracket notation from a root.
+     * @return the bracket notation
+     */
+    @Benchmark
+    public String bracketNotation() {
+        return network.toString(samples[next()]);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (SAMPLES - 1);
+        return cursor;
+    }
+}
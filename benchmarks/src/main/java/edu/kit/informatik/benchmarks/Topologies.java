@@ -0,0 +1,131 @@
+package edu.kit.informatik.benchmarks;
+
+import edu.kit.informatik.network.IP;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The class Topologies generates trees of different shapes in bracket notation for the benchmarks.
+ * The IP´s of the nodes are scrambled, so the order of the IP´s has nothing to do with the shape of the tree.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class Topologies {
+
+    /**
+     * The shapes of the generated trees.
+     */
+    public enum Shape {
+        /**
+         * Every node is attached to a random node that was created before.
+         */
+        RANDOM,
+        /**
+         * All nodes are attached to the root.
+         */
+        STAR,
+        /**
+         * Every node is attached to the node created before, the tree is a single route.
+         */
+        PATH,
+        /**
+         * A route over half of the nodes, every node of the route has one additional leaf.
+         */
+        CATERPILLAR
+    }
+
+    private static final int SCRAMBLE = 0x9E3779B1;
+
+    private Topologies() {
+    }
+
+    /**
+     * Returns the IP of a generated node.
+     * @param node number of the node
+     * @return the IP
+     */
+    public static IP ip(int node) {
+        return IP.valueOf((node + 1) * SCRAMBLE);
+    }
+
+    /**
+     * Returns the parent of every node of a tree, the root is node 0 and has no parent.
+     * @param shape shape of the tree
+     * @param size number of nodes, at least 2
+     * @param seed seed for random shapes
+     * @return the parent of every node
+     */
+    public static int[] parents(Shape shape, int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] parents = new int[size];
+        parents[0] = -1;
+        int spine = (size + 1) / 2;
+        for (int node = 1; node < size; node++) {
+            switch (shape) {
+                case RANDOM:
+                    parents[node] = random.nextInt(node);
+                    break;
+                case STAR:
+                    parents[node] = 0;
+                    break;
+                case PATH:
+                    parents[node] = node - 1;
+                    break;
+                default:
+                    parents[node] = node < spine ? node - 1 : node - spine;
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * Generates a tree in bracket notation.
+     * @param shape shape of the tree
+     * @param size number of nodes, at least 2
+     * @param seed seed for random shapes
+     * @return the tree in bracket notation
+     */
+    public static String bracketNotation(Shape shape, int size, long seed) {
+        int[] parents = parents(shape, size, seed);
+        int[] offsets = new int[size + 1];
+        for (int node = 1; node < size; node++) {
+            offsets[parents[node] + 1]++;
+        }
+        for (int node = 0; node < size; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+        int[] children = new int[size];
+        int[] fill = Arrays.copyOf(offsets, size);
+        for (int node = 1; node < size; node++) {
+            children[fill[parents[node]]++] = node;
+        }
+
+        StringBuilder sb = new StringBuilder(size * 16);
+        int[] stack = new int[size];
+        int[] next = new int[size];
+        int depth = 0;
+        ip(0).appendTo(sb.append('('));
+        stack[depth] = 0;
+        next[depth++] = offsets[0];
+        while (depth > 0) {
+            int node = stack[depth - 1];
+            if (next[depth - 1] == offsets[node + 1]) {
+                sb.append(')');
+                depth--;
+                continue;
+            }
+            int child = children[next[depth - 1]++];
+            sb.append(' ');
+            if (offsets[child] == offsets[child + 1]) {
+                ip(child).appendTo(sb);
+            } else {
+                ip(child).appendTo(sb.append('('));
+                stack[depth] = child;
+                next[depth++] = offsets[child];
+            }
+        }
+        return sb.toString();
+    }
+}
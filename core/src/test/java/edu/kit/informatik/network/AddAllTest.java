@@ -0,0 +1,167 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static edu.kit.informatik.network.NetworkTest.ip;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link Network#addAll(java.util.Collection)} adds subnets as one transaction
+ * and agrees with adding them one by one.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class AddAllTest {
+
+    private static final int ROUNDS = 200;
+    private static final int NODES = 60;
+    private static final int SUBNETS = 4;
+
+    @Test
+    void overlappingSubnets() throws ParseException {
+        Network s1 = new Network("(2.2.2.2 3.3.3.3 4.4.4.4)");
+        Network s2 = new Network("(3.3.3.3 2.2.2.2 5.5.5.5)");
+        Network sequential = new Network("(1.1.1.1 2.2.2.2)");
+        assertTrue(sequential.add(s1));
+        assertTrue(sequential.add(s2));
+        Network batch = new Network("(1.1.1.1 2.2.2.2)");
+        assertTrue(batch.addAll(List.of(s1, s2)));
+        assertEquals(sequential, batch);
+        assertEquals(sequential.toString(ip("1.1.1.1")), batch.toString(ip("1.1.1.1")));
+    }
+
+    @Test
+    void sameSubnetTwice() throws ParseException {
+        Network s1 = new Network("(2.2.2.2 3.3.3.3 4.4.4.4)");
+        Network single = new Network("(1.1.1.1 2.2.2.2)");
+        assertTrue(single.add(s1));
+        Network batch = new Network("(1.1.1.1 2.2.2.2)");
+        assertTrue(batch.addAll(List.of(s1, s1)));
+        assertEquals(single, batch);
+        assertFalse(batch.addAll(List.of(s1, s1)));
+    }
+
+    @Test
+    void cycleOverSubnetsIsRolledBack() throws ParseException {
+        Network network = new Network("(1.1.1.1 2.2.2.2 3.3.3.3)");
+        String before = network.toString(ip("1.1.1.1"));
+        Network s1 = new Network("(2.2.2.2 4.4.4.4)");
+        Network s2 = new Network("(4.4.4.4 3.3.3.3)");
+        assertFalse(network.addAll(List.of(s1, s2)));
+        assertFalse(network.addAll(Arrays.asList(s1, null)));
+        assertEquals(before, network.toString(ip("1.1.1.1")));
+        assertFalse(network.contains(ip("4.4.4.4")));
+    }
+
+    @Test
+    void subnetsOfOneTreeAgreeWithSequentialAdds() throws ParseException {
+        Random random = new Random(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            int[] parents = randomTree(random);
+            String base = subtree(parents, random.nextInt(NODES), 1 + random.nextInt(NODES), random);
+            List<Network> subnets = new ArrayList<>();
+            for (int i = 0; i < SUBNETS; i++) {
+                subnets.add(new Network(subtree(parents, random.nextInt(NODES), 2 + random.nextInt(NODES), random)));
+            }
+            Network sequential = new Network(base);
+            boolean changed = false;
+            for (Network subnet : subnets) {
+                changed |= sequential.add(subnet);
+            }
+            Network batch = new Network(base);
+            assertEquals(changed, batch.addAll(subnets));
+            assertEquals(sequential, batch);
+            assertEquals(sequential.list(), batch.list());
+        }
+    }
+
+    /**
+     * Creates a random tree over the nodes 0 to {@link #NODES} - 1.
+     * @param random source of randomness
+     * @return the parent of every node, -1 for the root 0
+     */
+    private static int[] randomTree(Random random) {
+        int[] parents = new int[NODES];
+        parents[0] = -1;
+        for (int node = 1; node < NODES; node++) {
+            parents[node] = random.nextInt(node);
+        }
+        return parents;
+    }
+
+    /**
+     * Returns the bracket notation of a connected part of a tree, grown breadth first from a node.
+     * @param parents the tree
+     * @param top first node of the part
+     * @param size largest number of nodes of the part
+     * @param random source of randomness
+     * @return the bracket notation with at least two nodes
+     */
+    private static String subtree(int[] parents, int top, int size, Random random) {
+        boolean[] chosen = new boolean[NODES];
+        chosen[top] = true;
+        int count = 1;
+        Deque<Integer> queue = new ArrayDeque<>(List.of(top));
+        while (!queue.isEmpty() && count < size) {
+            int node = queue.poll();
+            for (int next = 0; next < NODES && count < size; next++) {
+                boolean adjacent = parents[next] == node || parents[node] == next;
+                if (adjacent && !chosen[next] && random.nextBoolean()) {
+                    chosen[next] = true;
+                    count++;
+                    queue.add(next);
+                }
+            }
+        }
+        if (count == 1) {
+            chosen[top == 0 ? firstChild(parents) : parents[top]] = true;
+        }
+        StringBuilder notation = new StringBuilder();
+        append(parents, chosen, top, -1, notation);
+        return notation.toString();
+    }
+
+    private static int firstChild(int[] parents) {
+        for (int node = 1; node < NODES; node++) {
+            if (parents[node] == 0) {
+                return node;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static void append(int[] parents, boolean[] chosen, int node, int from, StringBuilder notation) {
+        List<Integer> children = new ArrayList<>();
+        for (int next = 0; next < NODES; next++) {
+            boolean adjacent = parents[next] == node || parents[node] == next;
+            if (adjacent && next != from && chosen[next]) {
+                children.add(next);
+            }
+        }
+        if (children.isEmpty()) {
+            notation.append(address(node));
+            return;
+        }
+        notation.append('(').append(address(node));
+        for (int child : children) {
+            notation.append(' ');
+            append(parents, chosen, child, node, notation);
+        }
+        notation.append(')');
+    }
+
+    private static String address(int node) {
+        return "10.0.0." + node;
+    }
+}
@@ -0,0 +1,131 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the sorted chunks of {@link AddressIndex} against a sorted set and the range queries of
+ * {@link Network} against a scan of all nodes.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class AddressIndexTest {
+
+    private static final int ROUNDS = 300;
+    private static final int OPERATIONS = 60;
+    private static final int CHANGES = 150;
+    private static final int CLUSTER = 0x0A140000;
+    private static final int HIGH_CLUSTER = CLUSTER | Integer.MIN_VALUE;
+    private static final int OTHER_CLUSTER = 0xC0A80000;
+    private static final int CLUSTER_SIZE = 1 << 7;
+
+    @Test
+    void updatesAgreeWithASortedSet() {
+        Random random = new Random(3);
+        TreeSet<Long> expected = new TreeSet<>();
+        AddressIndex index = AddressIndex.EMPTY;
+        for (int change = 0; change < CHANGES; change++) {
+            AddressIndex before = index;
+            TreeSet<Long> previous = new TreeSet<>(expected);
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                // batches from a single IP to several chunks, clustered so they hit few chunks
+                int count = 1 + random.nextInt(random.nextBoolean() ? 4 : 2 * AddressIndex.CHUNK_SIZE);
+                int base = random.nextInt();
+                List<Integer> added = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    int packed = random.nextBoolean() ? base + random.nextInt(1 << 16) : random.nextInt();
+                    if (expected.add(Integer.toUnsignedLong(packed))) {
+                        added.add(packed);
+                    }
+                }
+                index = index.with(added.stream().mapToInt(Integer::intValue).toArray());
+            } else {
+                int removals = 1 + random.nextInt(random.nextBoolean() ? 3 : AddressIndex.CHUNK_SIZE);
+                for (int i = 0; i < removals && !expected.isEmpty(); i++) {
+                    int packed = index.packed(random.nextInt(index.size()));
+                    expected.remove(Integer.toUnsignedLong(packed));
+                    index = index.without(packed);
+                }
+            }
+            check(expected, index);
+            List<Long> onlyNew = new ArrayList<>();
+            List<Long> onlyOld = new ArrayList<>();
+            index.difference(before, packed -> onlyNew.add(Integer.toUnsignedLong(packed)),
+                    packed -> onlyOld.add(Integer.toUnsignedLong(packed)));
+            TreeSet<Long> added = new TreeSet<>(expected);
+            added.removeAll(previous);
+            TreeSet<Long> removed = new TreeSet<>(previous);
+            removed.removeAll(expected);
+            assertEquals(new ArrayList<>(added), onlyNew);
+            assertEquals(new ArrayList<>(removed), onlyOld);
+        }
+    }
+
+    @Test
+    void networkRanges() throws ParseException {
+        Random random = new Random(7);
+        RandomNetworks networks = new RandomNetworks(random, CLUSTER_SIZE, CLUSTER, HIGH_CLUSTER, OTHER_CLUSTER);
+        for (int round = 0; round < ROUNDS; round++) {
+            Network network = networks.edge();
+            network.list();
+            for (int operation = 0; operation < OPERATIONS; operation++) {
+                networks.change(network);
+                Network snapshot = network.snapshot();
+                List<IP> expected = new ArrayList<>(network.heights().keySet());
+                Collections.sort(expected);
+                assertEquals(expected, network.list());
+                assertEquals(expected, snapshot.list());
+                IP prefix = networks.ip();
+                int length = random.nextInt(AddressIndex.MAX_PREFIX_LENGTH + 1);
+                long mask = length == 0 ? 0 : -1L << (AddressIndex.MAX_PREFIX_LENGTH - length);
+                List<IP> inside = new ArrayList<>();
+                for (IP ip : expected) {
+                    if (((ip.toInt() ^ prefix.toInt()) & mask) == 0) {
+                        inside.add(ip);
+                    }
+                }
+                assertEquals(inside, network.list(prefix, length));
+                assertEquals(inside.size(), network.count(prefix, length));
+                assertEquals(inside.size(), snapshot.count(prefix, length));
+            }
+        }
+    }
+
+    @Test
+    void invalidPrefixes() throws ParseException {
+        Network network = new Network("(10.20.1.1 10.20.255.3 10.21.0.0 255.255.255.255 0.0.0.0)");
+        assertEquals(NetworkTest.ips("10.20.1.1", "10.20.255.3"), network.list(new IP("10.20.0.0"), 16));
+        assertEquals(5, network.count(new IP("0.0.0.0"), 0));
+        assertEquals(NetworkTest.ips("255.255.255.255"), network.list(new IP("255.255.255.255"), 32));
+        assertThrows(IllegalArgumentException.class, () -> network.count(null, 3));
+        assertThrows(IllegalArgumentException.class, () -> network.list(new IP("1.1.1.1"), 33));
+        assertThrows(UnsupportedOperationException.class, () -> network.list().add(new IP("3.3.3.3")));
+    }
+
+    private static void check(TreeSet<Long> expected, AddressIndex index) {
+        assertEquals(expected.size(), index.size());
+        int position = 0;
+        for (long value : expected) {
+            assertEquals((int) value, index.packed(position++));
+        }
+        List<IP> all = index.all();
+        assertEquals(expected.size(), all.size());
+        if (!expected.isEmpty()) {
+            long first = expected.first();
+            int prefixLength = Byte.SIZE;
+            int inside = expected.subSet(first & ~0xFFFFFFL, true, first | 0xFFFFFFL, true).size();
+            assertEquals(inside, index.count((int) first, prefixLength));
+            assertEquals(inside, index.range((int) first, prefixLength).size());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests that the batch queries of {@link Network} answer every query like the single query would.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class BatchQueryTest {
+
+    private static final int ROUNDS = 20;
+    private static final int MAX_NODES = 1000;
+    private static final int PAIRS = 2000;
+    private static final int ROOTS = 200;
+    private static final int QUERIES = 100_000;
+    private static final int BLOCK = 0x0A000000;
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    @Test
+    void batchesAgreeWithSingleQueries() {
+        Random random = new Random(9);
+        RandomNetworks networks = new RandomNetworks(random, BLOCK_SIZE, BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            List<IP> nodes = new ArrayList<>();
+            Network network = networks.tree(2 + random.nextInt(MAX_NODES), nodes);
+            // a second tree, an unknown IP and null
+            network.add(new Network(IP.valueOf(4), Collections.singletonList(IP.valueOf(5))));
+            nodes.add(IP.valueOf(5));
+            nodes.add(IP.valueOf(6));
+            nodes.add(null);
+
+            List<IP[]> pairs = new ArrayList<>();
+            for (int i = 0; i < PAIRS; i++) {
+                pairs.add(new IP[] {nodes.get(random.nextInt(nodes.size())), nodes.get(random.nextInt(nodes.size()))});
+            }
+            Network target = round % 2 == 0 ? network : network.snapshot();
+            List<List<IP>> routes = target.routes(pairs);
+            assertEquals(pairs.size(), routes.size());
+            for (int i = 0; i < pairs.size(); i++) {
+                assertEquals(network.getRoute(pairs.get(i)[0], pairs.get(i)[1]), routes.get(i));
+            }
+
+            Collection<IP> roots = new LinkedList<>(nodes.subList(0, Math.min(ROOTS, nodes.size())));
+            roots.add(IP.valueOf(6));
+            roots.add(null);
+            List<Integer> heights = target.heights(roots);
+            List<List<List<IP>>> levels = target.levels(roots);
+            assertEquals(roots.size(), heights.size());
+            assertEquals(roots.size(), levels.size());
+            int i = 0;
+            for (IP root : roots) {
+                assertEquals(network.getHeight(root), (int) heights.get(i));
+                assertEquals(network.getLevels(root), levels.get(i));
+                i++;
+            }
+        }
+    }
+
+    @Test
+    void everyThreadCreatesOneScratch() {
+        List<Integer> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(i);
+        }
+        AtomicInteger created = new AtomicInteger();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<Object> scratches = BatchQuery.run(queries, () -> {
+            created.incrementAndGet();
+            return new Object();
+        }, (scratch, query) -> {
+            threads.add(Thread.currentThread());
+            return scratch;
+        });
+        assertEquals(QUERIES, scratches.size());
+        assertEquals(threads.size(), created.get());
+        // a scratch is an object without own equals, so the set holds every created scratch once
+        assertEquals(threads.size(), new HashSet<>(scratches).size());
+    }
+
+    @Test
+    void invalidPairs() {
+        Network network = new Network(IP.valueOf(1), List.of(IP.valueOf(2)));
+        assertThrows(IllegalArgumentException.class, () -> network.routes(Collections.singletonList(new IP[1])));
+        assertThrows(IllegalArgumentException.class, () -> network.routes(null));
+        assertThrows(IllegalArgumentException.class, () -> network.heights(null));
+    }
+}
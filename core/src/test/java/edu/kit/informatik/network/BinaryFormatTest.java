@@ -0,0 +1,176 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that networks written in the binary format (see {@link BinaryFormat}) are read and mapped
+ * with the same bracket notation for every root and that damaged files are rejected.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class BinaryFormatTest {
+
+    private static final int ROUNDS = 20;
+    private static final int MAX_NODES = 400;
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int LOW_BLOCK = 0x0A000000;
+    private static final int HIGH_BLOCK = 0x8A000000;
+    private static final IP OUTSIDE = IP.valueOf(0x0B000000);
+    private static final String SMALL = "(1.1.1.1 2.2.2.2 (3.3.3.3 4.4.4.4 5.5.5.5))";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTrip() throws ParseException, IOException {
+        Random random = new Random(1);
+        RandomNetworks networks = new RandomNetworks(random, BLOCK_SIZE, LOW_BLOCK, HIGH_BLOCK);
+        Path file = directory.resolve("network.pnet");
+        for (int round = 0; round < ROUNDS; round++) {
+            int size = 2 + random.nextInt(MAX_NODES);
+            Network network = networks.tree(size);
+            // some trees are split off or added, so the file holds more than one tree
+            for (int k = 0; k < size / 10; k++) {
+                networks.change(network);
+            }
+            network.save(file);
+            Network loaded = Network.load(file);
+            Network mapped = Network.map(file);
+            for (Network other : List.of(loaded, mapped, Network.map(file, true))) {
+                assertEquals(network, other);
+                assertEquals(network.hashCode(), other.hashCode());
+                assertEquals(network.list(), other.list());
+                for (IP ip : network.list()) {
+                    assertEquals(network.toString(ip), other.toString(ip));
+                }
+            }
+            IP known = network.list().get(0);
+            assertTrue(loaded.add(new Network(known, Collections.singletonList(OUTSIDE))));
+            assertThrows(UnsupportedOperationException.class, () -> mapped.connect(known, OUTSIDE));
+        }
+    }
+
+    @Test
+    void truncatedFile() throws ParseException, IOException {
+        Path file = directory.resolve("network.pnet");
+        new Network(SMALL).save(file);
+        byte[] complete = Files.readAllBytes(file);
+        for (int length : new int[] {0, BinaryFormat.HEADER_BYTES - 1, BinaryFormat.HEADER_BYTES,
+            complete.length - 1}) {
+            Files.write(file, Arrays.copyOf(complete, length));
+            assertThrows(ParseException.class, () -> Network.load(file), "load of " + length + " bytes");
+            assertThrows(ParseException.class, () -> Network.map(file), "map of " + length + " bytes");
+            assertThrows(ParseException.class, () -> Network.map(file, true), "check of " + length + " bytes");
+        }
+    }
+
+    @Test
+    void corruptHeader() throws ParseException, IOException {
+        Path file = directory.resolve("network.pnet");
+        new Network(SMALL).save(file);
+        byte[] complete = Files.readAllBytes(file);
+        // magic number, version, number of nodes and number of neighbour entries
+        int[] fields = {0, Integer.BYTES, 2 * Integer.BYTES, 3 * Integer.BYTES};
+        for (int field : fields) {
+            Files.write(file, increment(complete, field));
+            assertThrows(ParseException.class, () -> Network.load(file), "load with field at " + field);
+            assertThrows(ParseException.class, () -> Network.map(file), "map with field at " + field);
+        }
+        // the fingerprint can only be checked against the edges, so only a checked mapped file is rejected
+        Files.write(file, increment(complete, fields.length * Integer.BYTES));
+        assertThrows(ParseException.class, () -> Network.load(file));
+        assertThrows(ParseException.class, () -> Network.map(file, true));
+    }
+
+    @Test
+    void flippedBitsAreRejectedOrHarmless() throws ParseException, IOException {
+        Path file = directory.resolve("network.pnet");
+        Network network = new Network(SMALL);
+        network.save(file);
+        byte[] complete = Files.readAllBytes(file);
+        for (int i = 0; i < complete.length; i++) {
+            for (int bit = 0; bit < Byte.SIZE; bit++) {
+                byte[] corrupt = complete.clone();
+                corrupt[i] ^= 1 << bit;
+                Files.write(file, corrupt);
+                try {
+                    assertEquals(network, Network.load(file), "bit " + bit + " of byte " + i);
+                } catch (ParseException expected) {
+                    // a rejected file is fine
+                }
+                try {
+                    assertEquals(network, Network.map(file, true), "checked bit " + bit + " of byte " + i);
+                } catch (ParseException expected) {
+                    // a rejected file is fine
+                }
+            }
+        }
+    }
+
+    @Test
+    void nodesWithoutEdgesAreRejected() throws ParseException, IOException {
+        Path file = directory.resolve("network.pnet");
+        new Network("(1.1.1.1 2.2.2.2)").save(file);
+        // the fingerprint only depends on the edges, so the isolated node keeps it valid
+        long fingerprint = ByteBuffer.wrap(Files.readAllBytes(file)).getLong(4 * Integer.BYTES);
+        int[] isolated = {IP.parse("1.1.1.1"), IP.parse("2.2.2.2"), IP.parse("3.3.3.3")};
+        Files.write(file, file(isolated, new int[] {0, 1, 2, 2}, new int[] {1, 0}, fingerprint));
+        assertThrows(ParseException.class, () -> Network.load(file), "isolated node");
+        assertThrows(ParseException.class, () -> Network.map(file, true), "checked isolated node");
+        Files.write(file, file(new int[] {isolated[0]}, new int[] {0, 0}, new int[0], 0));
+        assertThrows(ParseException.class, () -> Network.load(file), "single node");
+        assertThrows(ParseException.class, () -> Network.map(file, true), "checked single node");
+        Files.write(file, file(new int[0], new int[] {0}, new int[0], 0));
+        assertThrows(ParseException.class, () -> Network.load(file), "empty network");
+        assertThrows(ParseException.class, () -> Network.map(file, true), "checked empty network");
+    }
+
+    @Test
+    void cyclesAndMissingNeighboursAreRejectedByTheCheck() throws ParseException, IOException {
+        Path file = directory.resolve("network.pnet");
+        int[] triangle = {IP.parse("1.1.1.1"), IP.parse("2.2.2.2"), IP.parse("3.3.3.3")};
+        long fingerprint = Topology.edgeHashOf(triangle[0], triangle[1])
+            + Topology.edgeHashOf(triangle[0], triangle[2]) + Topology.edgeHashOf(triangle[1], triangle[2]);
+        Files.write(file, file(triangle, new int[] {0, 2, 4, 6}, new int[] {1, 2, 0, 2, 0, 1}, fingerprint));
+        assertThrows(ParseException.class, () -> Network.load(file), "cycle");
+        assertThrows(ParseException.class, () -> Network.map(file, true), "checked cycle");
+        Files.write(file, file(triangle, new int[] {0, 1, 3, 4}, new int[] {1, 0, 3, 1}, fingerprint));
+        assertThrows(ParseException.class, () -> Network.load(file), "missing neighbour");
+        assertThrows(ParseException.class, () -> Network.map(file, true), "checked missing neighbour");
+    }
+
+    private static byte[] file(int[] addresses, int[] offsets, int[] neighbours, long fingerprint) {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryFormat.HEADER_BYTES
+            + (addresses.length + offsets.length + neighbours.length) * Integer.BYTES);
+        buffer.putInt(BinaryFormat.MAGIC).putInt(BinaryFormat.VERSION).putInt(addresses.length)
+            .putInt(neighbours.length).putLong(fingerprint);
+        for (int[] section : new int[][] {addresses, offsets, neighbours}) {
+            for (int value : section) {
+                buffer.putInt(value);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static byte[] increment(byte[] file, int field) {
+        byte[] corrupt = file.clone();
+        ByteBuffer.wrap(corrupt).putInt(field, ByteBuffer.wrap(file).getInt(field) + 1);
+        return corrupt;
+    }
+}
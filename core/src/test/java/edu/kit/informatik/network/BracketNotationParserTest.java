@@ -0,0 +1,68 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests that the streaming {@link BracketNotationParser} rejects wrong bracket notations
+ * with the offset of the char where the error occurs.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class BracketNotationParserTest {
+
+    private static final int CHILDREN = 2000;
+    private static final int BLOCK = 0x0A000000;
+
+    @Test
+    void rejectedInputsReportTheirOffset() {
+        assertOffset("", 0);
+        assertOffset("1.1.1.1 2.2.2.2)", 0);
+        // unbalanced brackets
+        assertOffset("(1.1.1.1 2.2.2.2", 16);
+        assertOffset("(1.1.1.1 (2.2.2.2 3.3.3.3)", 26);
+        assertOffset("(1.1.1.1 2.2.2.2))", 17);
+        // a subtree without a child
+        assertOffset("(1.1.1.1)", 8);
+        assertOffset("(1.1.1.1 (2.2.2.2) 3.3.3.3)", 17);
+        // bad IP tokens are reported at their first char, too long ones at the first char that does not fit
+        assertOffset("(1.1.1.1 2.2.2.300)", 9);
+        assertOffset("(1.1.1.1 2..2.2)", 9);
+        assertOffset("(1.1.1.1  2.2.2.2)", 9);
+        assertOffset("(1.1.1.1 1234567890123456)", 24);
+        // trailing input
+        assertOffset("(1.1.1.1 2.2.2.2) ", 17);
+        assertOffset("(1.1.1.1 2.2.2.2)(3.3.3.3 4.4.4.4)", 17);
+        // a duplicate node and a cycle back to the root
+        assertOffset("(1.1.1.1 2.2.2.2 2.2.2.2)", 17);
+        assertOffset("(1.1.1.1 (2.2.2.2 1.1.1.1))", 18);
+    }
+
+    @Test
+    void offsetsCountAcrossTheBuffer() throws ParseException, IOException {
+        StringBuilder notation = new StringBuilder("(0.0.0.1");
+        for (int i = 0; i < CHILDREN; i++) {
+            notation.append(' ').append(IP.valueOf(BLOCK + i));
+        }
+        notation.append(')');
+        assertEquals(CHILDREN + 1, new Network(new StringReader(notation.toString())).list().size());
+        int end = notation.length();
+        notation.append(" 1.1.1.1");
+        assertOffset(notation.toString(), end);
+    }
+
+    private static void assertOffset(String notation, long offset) {
+        ParseException e = assertThrows(ParseException.class, () -> new Network(notation), notation);
+        assertEquals(offset, e.getOffset(), notation);
+        ParseException streamed = assertThrows(ParseException.class,
+                () -> new Network(new StringReader(notation)), notation);
+        assertEquals(offset, streamed.getOffset(), notation);
+    }
+}
@@ -0,0 +1,55 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that both writeTo methods of {@link Network} (see {@link BracketNotationWriter}) stream the same
+ * bracket notation as {@link Network#toString(IP)} for every root.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class BracketNotationWriterTest {
+
+    private static final int ROUNDS = 10;
+    private static final int MAX_NODES = 1000;
+    private static final int CHANGES = 50;
+    private static final int BLOCK = 0x0A000000;
+    private static final int HIGH_BLOCK = 0xCA000000;
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    @Test
+    void writtenNotationsAgreeWithToString() throws IOException {
+        Random random = new Random(21);
+        RandomNetworks networks = new RandomNetworks(random, BLOCK_SIZE, BLOCK, HIGH_BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            Network network = networks.tree(2 + random.nextInt(MAX_NODES));
+            for (int change = 0; change < CHANGES; change++) {
+                networks.change(network);
+            }
+            // nothing is written for an unknown IP
+            assertWritten(network, IP.valueOf(1));
+            for (IP root : network.list()) {
+                assertWritten(network, root);
+            }
+        }
+    }
+
+    private static void assertWritten(Network network, IP root) throws IOException {
+        String expected = network.toString(root);
+        StringBuilder written = new StringBuilder();
+        network.writeTo(root, written);
+        assertEquals(expected, written.toString());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        network.writeTo(root, Channels.newChannel(bytes));
+        assertEquals(expected, bytes.toString(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,144 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the readers of a {@link ConcurrentNetwork} see complete versions in the order the writers
+ * published them while other threads change the network.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class ConcurrentNetworkTest {
+
+    private static final int NODES = 2000;
+    private static final int READERS = 4;
+    private static final int CYCLERS = 2;
+    private static final int FIRST_BLOCK = 0x0A000000;
+
+    @Test
+    void snapshotsAreFrozen() {
+        ConcurrentNetwork network = new ConcurrentNetwork(ip(0), List.of(ip(1)));
+        Network before = network.snapshot();
+        assertTrue(network.add(new Network(ip(1), List.of(ip(2)))));
+        assertFalse(before.contains(ip(2)));
+        assertTrue(network.contains(ip(2)));
+        assertTrue(network.snapshot().contains(ip(2)));
+        assertThrows(UnsupportedOperationException.class, () -> before.connect(ip(0), ip(2)));
+        assertFalse(network.connect(ip(0), ip(2)));
+    }
+
+    @Test
+    void concurrentReadersAndWriters() throws InterruptedException {
+        ConcurrentNetwork network = new ConcurrentNetwork(ip(0), Collections.singletonList(ip(1)));
+        // the grower adds node i after it set started to i and sets added to i after the add returned
+        AtomicInteger started = new AtomicInteger(1);
+        AtomicInteger added = new AtomicInteger(1);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger acceptedCycles = new AtomicInteger();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            threads.add(new Thread(() -> read(network, started, added, done, failures)));
+        }
+        for (int c = 0; c < CYCLERS; c++) {
+            long seed = c;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                while (!done.get()) {
+                    int size = network.snapshot().list().size();
+                    // all nodes are in one tree, so every new edge closes a cycle
+                    if (network.connect(ip(random.nextInt(size)), ip(random.nextInt(size)))) {
+                        acceptedCycles.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        Thread grower = new Thread(() -> {
+            Random random = new Random(READERS);
+            for (int i = 2; i < NODES; i++) {
+                started.set(i);
+                if (!network.add(new Network(ip(random.nextInt(i)), Collections.singletonList(ip(i))))) {
+                    failures.add(new AssertionError("add of " + ip(i) + " failed"));
+                }
+                added.set(i);
+            }
+        });
+        threads.forEach(Thread::start);
+        grower.start();
+        grower.join();
+        done.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(), failures);
+        assertEquals(0, acceptedCycles.get());
+        assertEquals(NODES, network.list().size());
+        assertEquals(NODES, network.getLevels(ip(0)).stream().mapToInt(List::size).sum());
+    }
+
+    /**
+     * Checks the versions a reader sees until the writers are done. Every version has to be a tree over
+     * the first nodes, contain every node whose add returned before it was read and no node whose add
+     * started after it was read, and be at least as new as the version read before.
+     */
+    private static void read(ConcurrentNetwork network, AtomicInteger started, AtomicInteger added,
+                             AtomicBoolean done, List<Throwable> failures) {
+        Random random = new Random();
+        int lastSize = 0;
+        try {
+            while (!done.get()) {
+                int lowest = added.get();
+                Network version = network.snapshot();
+                int highest = started.get();
+                List<IP> list = version.list();
+                int size = list.size();
+                if (size < lowest + 1 || size > highest + 1) {
+                    throw new AssertionError(size + " nodes outside of " + (lowest + 1) + " to " + (highest + 1));
+                }
+                if (size < lastSize) {
+                    throw new AssertionError("an older version with " + size + " < " + lastSize + " nodes");
+                }
+                lastSize = size;
+                for (int i = 0; i < size; i++) {
+                    if (!list.get(i).equals(ip(i))) {
+                        throw new AssertionError("unexpected node " + list.get(i));
+                    }
+                }
+                List<List<IP>> levels = version.getLevels(ip(0));
+                int reached = levels.stream().mapToInt(List::size).sum();
+                if (reached != size || version.getHeight(ip(0)) != levels.size() - 1) {
+                    throw new AssertionError("not a tree, " + reached + " of " + size + " nodes reached");
+                }
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                List<IP> route = version.getRoute(ip(x), ip(y));
+                if (x != y && route.size() - 1 != version.distance(ip(x), ip(y))) {
+                    throw new AssertionError("route and distance differ");
+                }
+                if (!network.contains(ip(lowest))) {
+                    throw new AssertionError("lost " + ip(lowest));
+                }
+            }
+        } catch (Throwable e) {
+            failures.add(e);
+        }
+    }
+
+    private static IP ip(int node) {
+        return IP.valueOf(FIRST_BLOCK + node);
+    }
+}
@@ -0,0 +1,147 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every public query of {@link Network} on a path of a million IP´s in a thread with a small stack,
+ * so any recursion over the depth of the tree fails with a {@link StackOverflowError}.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class DeepPathTest {
+
+    private static final int LENGTH = 1_000_000;
+    private static final long STACK_SIZE = 256 * 1024;
+    private static final int SLASH_16 = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyQueryOnAMillionDeepPath() throws Throwable {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                queries();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "deep-path", STACK_SIZE);
+        thread.start();
+        thread.join();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void queries() throws Exception {
+        String notation = path();
+        Network network = new Network(notation);
+        IP first = IP.valueOf(1);
+        IP last = IP.valueOf(LENGTH);
+        IP middle = IP.valueOf(LENGTH / 2);
+        IP next = IP.valueOf(LENGTH / 2 + 1);
+
+        assertEquals(network, new Network(new StringReader(notation)));
+        assertEquals(notation, network.toString(first));
+        StringBuilder written = new StringBuilder();
+        network.writeTo(first, written);
+        assertEquals(notation, written.toString());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        network.writeTo(last, Channels.newChannel(bytes));
+        assertEquals(network.toString(last), bytes.toString(StandardCharsets.US_ASCII));
+        // rooted in the middle, the path has two leaves and so one pair of brackets less
+        assertEquals(notation.length() - 2, network.toString(middle).length());
+
+        List<IP> list = network.list();
+        assertEquals(LENGTH, list.size());
+        assertEquals(first, list.get(0));
+        assertEquals(last, list.get(LENGTH - 1));
+        assertEquals(LENGTH / 2, network.list().indexOf(next));
+        assertEquals((1 << SLASH_16) - 1, network.count(IP.valueOf(0), SLASH_16));
+        assertEquals(1 << SLASH_16, network.list(IP.valueOf(1 << SLASH_16), SLASH_16).size());
+        assertTrue(network.contains(middle));
+
+        assertEquals(LENGTH - 1, network.getHeight(first));
+        assertEquals(LENGTH / 2, network.getHeight(middle));
+        Map<IP, Integer> heights = network.heights();
+        assertEquals(LENGTH, heights.size());
+        assertEquals(LENGTH - 1, (int) heights.get(last));
+        assertEquals(List.of(LENGTH - 1, LENGTH / 2), network.heights(List.of(last, next)));
+        assertEquals(LENGTH - 1, network.diameter());
+        assertEquals(List.of(middle, next), network.centers());
+
+        List<List<IP>> levels = network.getLevels(first);
+        assertEquals(LENGTH, levels.size());
+        assertEquals(List.of(last), levels.get(LENGTH - 1));
+        List<List<List<IP>>> batch = network.levels(List.of(middle));
+        assertEquals(LENGTH / 2 + 1, batch.get(0).size());
+        assertEquals(List.of(IP.valueOf(LENGTH / 2 - 1), next), batch.get(0).get(1));
+
+        List<IP> route = network.getRoute(first, last);
+        assertEquals(list, route);
+        assertEquals(LENGTH - 1, network.distance(first, last));
+        List<IP[]> pairs = new ArrayList<>();
+        pairs.add(new IP[] {last, middle});
+        assertEquals(LENGTH / 2 + 1, network.routes(pairs).get(0).size());
+
+        EdgeImpact impact = network.impactOf(middle, next);
+        assertEquals(LENGTH / 2, impact.getCutOff());
+        assertEquals(LENGTH / 2, network.criticalEdges(1).get(0).getCutOff());
+        assertNull(network.impactOf(first, last));
+
+        Path file = directory.resolve("path.pnet");
+        network.save(file);
+        assertEquals(network, Network.load(file));
+        Network mapped = Network.map(file);
+        assertEquals(network.toString(middle), mapped.toString(middle));
+        assertEquals(LENGTH - 1, mapped.getHeight(first));
+        Network snapshot = network.snapshot();
+        assertEquals(network.fingerprint(), snapshot.fingerprint());
+        assertEquals(network.hashCode(), snapshot.hashCode());
+        assertTrue(network.memoryFootprint() > 0);
+
+        assertFalse(network.connect(first, last));
+        assertTrue(network.disconnect(middle, next));
+        assertEquals(List.of(), network.getRoute(first, last));
+        assertEquals(LENGTH / 2 - 1, network.getHeight(first));
+        assertTrue(network.connect(first, last));
+        assertEquals(LENGTH - 1, network.diameter());
+        assertTrue(network.add(new Network("(" + next + " " + IP.valueOf(LENGTH + 1) + ")")));
+        assertEquals(LENGTH + 1, network.getLevels(middle).size());
+        assertFalse(NetworkDiff.between(snapshot, network).isEmpty());
+    }
+
+    /**
+     * Returns the bracket notation of the path from IP 1 to IP {@link #LENGTH}.
+     * @return the bracket notation rooted at IP 1
+     */
+    private static String path() {
+        StringBuilder notation = new StringBuilder();
+        for (int i = 1; i < LENGTH; i++) {
+            notation.append('(').append(IP.valueOf(i)).append(' ');
+        }
+        notation.append(IP.valueOf(LENGTH));
+        for (int i = 1; i < LENGTH; i++) {
+            notation.append(')');
+        }
+        return notation.toString();
+    }
+}
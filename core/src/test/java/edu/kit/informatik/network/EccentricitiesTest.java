@@ -0,0 +1,69 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the hights, diameter and centers of {@link Network}, computed by rerooting (see {@link Eccentricities}),
+ * against the levels of every IP as root while the network is changed.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class EccentricitiesTest {
+
+    private static final int ROUNDS = 40;
+    private static final int MAX_NODES = 120;
+    private static final int CHANGES = 20;
+    private static final int BLOCK = 0x0A000000;
+    private static final int BLOCK_SIZE = 1 << 8;
+
+    @Test
+    void heightsAgreeWithTheLevels() {
+        Random random = new Random(17);
+        RandomNetworks networks = new RandomNetworks(random, BLOCK_SIZE, BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            Network network = networks.tree(2 + random.nextInt(MAX_NODES));
+            for (int change = 0; change < CHANGES; change++) {
+                check(network);
+                networks.change(network);
+            }
+        }
+    }
+
+    private static void check(Network network) {
+        // the levels are searched from every root, before the hights of all roots are computed
+        Map<IP, Integer> expected = new HashMap<>();
+        int diameter = 0;
+        for (IP ip : network.list()) {
+            int height = network.getLevels(ip).size() - 1;
+            expected.put(ip, height);
+            diameter = Math.max(diameter, height);
+        }
+        List<IP> centers = new ArrayList<>();
+        for (IP ip : network.list()) {
+            int lowest = expected.get(ip);
+            for (List<IP> level : network.getLevels(ip)) {
+                for (IP other : level) {
+                    lowest = Math.min(lowest, expected.get(other));
+                }
+            }
+            if (expected.get(ip) == lowest) {
+                centers.add(ip);
+            }
+        }
+        assertEquals(expected, network.heights());
+        assertEquals(diameter, network.diameter());
+        assertEquals(centers, network.centers());
+        for (IP ip : network.list()) {
+            assertEquals((int) expected.get(ip), network.getHeight(ip));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests parsing, formatting and the order of {@link IP}.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class IPTest {
+
+    @Test
+    void roundTrip() throws ParseException {
+        for (String notation : new String[] {"0.0.0.0", "255.255.255.255", "10.0.20.3", "192.168.1.100"}) {
+            IP ip = new IP(notation);
+            assertEquals(notation, ip.toString());
+            assertEquals(ip, IP.valueOf(ip.toInt()));
+            assertEquals(ip.toInt(), IP.parse(notation));
+        }
+    }
+
+    @Test
+    void orderIsUnsigned() throws ParseException {
+        assertTrue(new IP("127.255.255.255").compareTo(new IP("128.0.0.0")) < 0);
+        assertTrue(new IP("255.0.0.0").compareTo(new IP("1.0.0.0")) > 0);
+    }
+
+    @Test
+    void invalidNotations() {
+        for (String notation : new String[] {"", "1.2.3", "1.2.3.4.5", "256.0.0.0", "01.2.3.4", "1..2.3",
+            "1.2.3.4 ", "-1.2.3.4", "1.2.3.a"}) {
+            assertThrows(ParseException.class, () -> new IP(notation), notation);
+        }
+    }
+
+    @Test
+    void parseRanges() throws ParseException {
+        String text = "(1.2.3.4 5.6.7.8)";
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        assertEquals(new IP("5.6.7.8").toInt(), IP.parse(text, 9, 16));
+        assertEquals(new IP("1.2.3.4").toInt(), IP.parse(bytes, 1, 8));
+    }
+
+    @Test
+    void invalidRanges() {
+        String text = "1.2.3.4";
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        int[][] ranges = {{-1, 7}, {0, 8}, {5, 4}, {8, 8}};
+        for (int[] range : ranges) {
+            assertThrows(IllegalArgumentException.class, () -> IP.parse(text, range[0], range[1]));
+            assertThrows(IllegalArgumentException.class, () -> IP.parse(bytes, range[0], range[1]));
+        }
+        assertThrows(IllegalArgumentException.class, () -> IP.parse((CharSequence) null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> IP.parse((byte[]) null, 0, 0));
+        assertThrows(ParseException.class, () -> IP.parse(text, 2, 2));
+    }
+}
@@ -0,0 +1,196 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a network recovered from its journal (see {@link Journal}) equals the journaled network,
+ * also after a crash left a torn or garbage tail in the journal file.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class JournalTest {
+
+    private static final int ROUNDS = 30;
+    private static final int MAX_CHANGES = 200;
+    private static final int MORE_CHANGES = 50;
+    private static final int MAX_INTERVAL = 20;
+    private static final int NODES = 300;
+    private static final int BLOCK = 0x0A000000;
+    private static final int OTHER_BLOCK = 0x0B000000;
+    private static final int MAX_TORN_BYTES = 5;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveryAgreesWithTheJournaledNetwork() throws ParseException, IOException {
+        Random random = new Random(5);
+        RandomNetworks networks = new RandomNetworks(random, NODES, BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            Path journal = Files.createDirectory(directory.resolve("journal-" + round));
+            SyncPolicy policy = SyncPolicy.values()[round % SyncPolicy.values().length];
+            int interval = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(MAX_INTERVAL);
+            Network network = networks.edge();
+            network.startJournal(journal, policy, interval);
+            int changes = random.nextInt(MAX_CHANGES);
+            for (int i = 0; i < changes; i++) {
+                change(network, networks, random);
+                if (random.nextInt(MAX_CHANGES / 4) == 0) {
+                    network.checkpoint();
+                }
+            }
+            if (policy == SyncPolicy.ALWAYS) {
+                // every change was forced, so a crash without closing the journal loses nothing
+                Network crashed = Network.recover(journal, policy, interval);
+                assertSame(network, crashed);
+                crashed.closeJournal();
+            }
+            network.closeJournal();
+            Network recovered = Network.recover(journal, policy, interval);
+            assertSame(network, recovered);
+
+            // the recovered network continues the journal
+            for (int i = 0; i < MORE_CHANGES; i++) {
+                change(recovered, networks, random);
+            }
+            recovered.closeJournal();
+            Network continued = Network.recover(journal, policy, interval);
+            assertSame(recovered, continued);
+            continued.closeJournal();
+            assertEquals(2, files(journal).size());
+        }
+    }
+
+    @Test
+    void tornTailIsDropped() throws ParseException, IOException {
+        Random random = new Random(8);
+        RandomNetworks networks = new RandomNetworks(random, NODES, BLOCK);
+        for (int torn = 1; torn <= MAX_TORN_BYTES; torn++) {
+            Path journal = Files.createDirectory(directory.resolve("torn-" + torn));
+            Network before = journaled(journal, networks, random);
+            Network network = Network.recover(journal, SyncPolicy.NEVER, 0);
+            boolean changed = false;
+            while (!changed) {
+                changed = change(network, networks, random);
+            }
+            network.closeJournal();
+            try (FileChannel log = FileChannel.open(log(journal), StandardOpenOption.WRITE)) {
+                log.truncate(log.size() - torn);
+            }
+            Network recovered = Network.recover(journal, SyncPolicy.NEVER, 0);
+            assertSame(before, recovered);
+            recovered.closeJournal();
+        }
+    }
+
+    @Test
+    void garbageTailIsDropped() throws ParseException, IOException {
+        Random random = new Random(13);
+        RandomNetworks networks = new RandomNetworks(random, NODES, BLOCK);
+        Path journal = Files.createDirectory(directory.resolve("garbage"));
+        Network before = journaled(journal, networks, random);
+        long complete = Files.size(log(journal));
+        // lengths that do not fit into the file must not be allocated before the checksum is checked
+        int[] lengths = {Integer.MAX_VALUE, Integer.MAX_VALUE - 8, 1 << 30, -1, Integer.MIN_VALUE, 0, 9, 1};
+        for (int length : lengths) {
+            ByteBuffer garbage = ByteBuffer.allocate(2 * Integer.BYTES + 3);
+            garbage.putInt(length).putInt(random.nextInt()).put(new byte[] {1, 2, 3});
+            Files.write(log(journal), garbage.array(), StandardOpenOption.APPEND);
+            Network recovered = Network.recover(journal, SyncPolicy.NEVER, 0);
+            assertSame(before, recovered);
+            assertEquals(complete, Files.size(log(journal)), "length " + length);
+
+            // changes after the garbage are kept by the next recovery
+            boolean changed = false;
+            while (!changed) {
+                changed = change(recovered, networks, random);
+            }
+            recovered.closeJournal();
+            Network next = Network.recover(journal, SyncPolicy.NEVER, 0);
+            assertSame(recovered, next);
+            next.closeJournal();
+            before = next;
+            complete = Files.size(log(journal));
+        }
+    }
+
+    @Test
+    void invalidJournals() throws IOException {
+        Path empty = Files.createDirectory(directory.resolve("empty"));
+        assertThrows(ParseException.class, () -> Network.recover(empty, SyncPolicy.NEVER, 0));
+        assertThrows(ParseException.class, () -> Network.recover(directory.resolve("missing"), SyncPolicy.NEVER, 0));
+        Network network = new Network(IP.valueOf(1), List.of(IP.valueOf(2)));
+        assertThrows(IllegalStateException.class, network::checkpoint);
+        assertThrows(IllegalArgumentException.class, () -> network.startJournal(null, SyncPolicy.NEVER, 0));
+        assertThrows(IllegalArgumentException.class, () -> network.startJournal(empty, SyncPolicy.NEVER, -1));
+        assertThrows(IllegalArgumentException.class, () -> Network.recover(empty, null, 0));
+        assertThrows(UnsupportedOperationException.class,
+                () -> network.snapshot().startJournal(empty, SyncPolicy.NEVER, 0));
+    }
+
+    private static Network journaled(Path journal, RandomNetworks networks, Random random) throws IOException {
+        Network network = networks.edge();
+        network.startJournal(journal, SyncPolicy.NEVER, 0);
+        for (int i = 0; i < MAX_CHANGES; i++) {
+            change(network, networks, random);
+        }
+        network.closeJournal();
+        return network.snapshot();
+    }
+
+    private static boolean change(Network network, RandomNetworks networks, Random random) {
+        if (random.nextInt(4) > 0) {
+            return networks.change(network);
+        }
+        // several subnets are journaled as one record
+        List<Network> subnets = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Network subnet = networks.edge();
+            subnet.add(new Network(subnet.list().get(0), List.of(IP.valueOf(OTHER_BLOCK | random.nextInt(9)))));
+            subnets.add(subnet);
+        }
+        return network.addAll(subnets);
+    }
+
+    private static void assertSame(Network expected, Network actual) {
+        assertEquals(expected.fingerprint(), actual.fingerprint());
+        assertEquals(expected.list(), actual.list());
+        assertEquals(expected, actual);
+    }
+
+    private static Path log(Path journal) throws IOException {
+        for (Path file : files(journal)) {
+            if (file.toString().endsWith(".log")) {
+                return file;
+            }
+        }
+        throw new IOException("no journal file in " + journal);
+    }
+
+    private static List<Path> files(Path journal) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(journal)) {
+            entries.forEach(files::add);
+        }
+        assertTrue(files.size() <= 2);
+        return files;
+    }
+}
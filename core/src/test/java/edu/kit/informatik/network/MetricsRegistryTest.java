@@ -0,0 +1,100 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that an installed {@link MetricsRegistry} receives the measurements of the operations on networks
+ * and that its histograms are exact up to a few percent.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class MetricsRegistryTest {
+
+    private static final int VALUES = 100_000;
+    private static final double MAX_EXPONENT = 30;
+    private static final double PERCENT = 100;
+    private static final double TOLERANCE = 1.04;
+    private static final double[] PERCENTILES = {0, 1, 50, 90, 99, 99.9, 100};
+
+    @AfterEach
+    void uninstall() {
+        NetworkMetrics.install(null);
+    }
+
+    @Test
+    void operationsAreMeasured() throws ParseException {
+        MetricsRegistry registry = new MetricsRegistry();
+        NetworkMetrics.install(registry);
+        assertSame(registry, NetworkMetrics.installed());
+        Network network = new Network("(1.1.1.1 (2.2.2.2 3.3.3.3 4.4.4.4) 5.5.5.5)");
+        assertFalse(network.connect(new IP("3.3.3.3"), new IP("5.5.5.5")));
+        assertFalse(network.connect(new IP("3.3.3.3"), new IP("9.9.9.9")));
+        assertFalse(network.add(new Network("(3.3.3.3 (6.6.6.6 7.7.7.7) 5.5.5.5)")));
+        assertFalse(network.addAll(Arrays.asList(new Network("(7.7.7.7 8.8.8.8)"),
+                new Network("(8.8.8.8 4.4.4.4 3.3.3.3)"))));
+        assertThrows(ParseException.class, () -> new Network("(1.1.1.1 1.1.1.300)"));
+        assertThrows(ParseException.class, () -> new IP("1.2.3"));
+        assertTrue(network.disconnect(new IP("2.2.2.2"), new IP("4.4.4.4")));
+        network.getLevels(new IP("1.1.1.1"));
+        network.getRoute(new IP("1.1.1.1"), new IP("3.3.3.3"));
+        network.heights();
+        network.impactOf(new IP("1.1.1.1"), new IP("2.2.2.2"));
+        assertTrue(network.equals(network.snapshot()));
+        network.hashCode();
+
+        assertEquals(2, registry.getRejected(Operation.CONNECT));
+        assertEquals(1, registry.getRejected(Operation.ADD));
+        assertEquals(1, registry.getRolledBack(Operation.ADD));
+        assertTrue(registry.getDropped(Operation.ADD) > 0);
+        assertEquals(1, registry.getRejected(Operation.ADD_ALL));
+        assertEquals(1, registry.getRolledBack(Operation.ADD_ALL));
+        assertEquals(1, registry.getRejected(Operation.PARSE));
+        assertTrue(registry.getRejected(Operation.IP_PARSE) >= 2);
+        assertEquals(1, registry.getVisited(Operation.DISCONNECT).getCount());
+        assertEquals(4, registry.getVisited(Operation.GET_LEVELS).getMax());
+        for (Operation operation : List.of(Operation.ROUTE_INDEX, Operation.ECCENTRICITIES, Operation.SUBTREE_INDEX,
+                Operation.GET_ROUTE, Operation.HEIGHTS, Operation.IMPACT_OF, Operation.EQUALS,
+                Operation.HASH_CODE)) {
+            assertEquals(1, registry.getLatencies(operation).getCount(), operation.toString());
+        }
+
+        NetworkMetrics.install(null);
+        assertSame(NetworkMetrics.NOOP, NetworkMetrics.installed());
+        long listed = registry.getLatencies(Operation.LIST).getCount();
+        network.list();
+        assertEquals(listed, registry.getLatencies(Operation.LIST).getCount());
+    }
+
+    @Test
+    void percentilesAreExactUpToAFewPercent() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Random random = new Random(1);
+        long[] values = new long[VALUES];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * MAX_EXPONENT);
+            registry.latency(Operation.LIST, values[i]);
+        }
+        Arrays.sort(values);
+        Histogram latencies = registry.getLatencies(Operation.LIST);
+        assertEquals(VALUES, latencies.getCount());
+        assertEquals(values[values.length - 1], latencies.getMax());
+        for (double percentile : PERCENTILES) {
+            long exact = values[Math.max(0, (int) Math.ceil(percentile / PERCENT * values.length) - 1)];
+            long measured = latencies.getPercentile(percentile);
+            assertTrue(measured >= exact && measured <= exact * TOLERANCE + 1, percentile + "%: " + measured);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link NetworkDiff} against the set differences of the nodes and edges, between a snapshot and the
+ * changed network, which share their unchanged pages, and between a network and a copy that shares no pages.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class NetworkDiffTest {
+
+    private static final int ROUNDS = 20;
+    private static final int MAX_NODES = 3000;
+    private static final int MAX_CHANGES = 8;
+    private static final int BLOCK = 0x0A000000;
+    private static final int HIGH_BLOCK = 0xCA000000;
+    private static final int BLOCK_SIZE = 1 << 12;
+
+    @Test
+    void diffsAgreeWithSetDifferences() throws ParseException {
+        Random random = new Random(19);
+        RandomNetworks networks = new RandomNetworks(random, BLOCK_SIZE, BLOCK, HIGH_BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            Network network = networks.tree(2 + random.nextInt(MAX_NODES));
+            Network snapshot = network.snapshot();
+            int changes = random.nextInt(MAX_CHANGES);
+            for (int change = 0; change < changes; change++) {
+                networks.change(network);
+            }
+            check(snapshot, network);
+            check(network, snapshot);
+
+            Network copy = copy(network);
+            assertEquals(network, copy);
+            check(copy, network);
+            check(snapshot, copy);
+            networks.change(copy);
+            check(network, copy);
+        }
+    }
+
+    @Test
+    void invalidNetworks() {
+        Network network = new Network(IP.valueOf(1), List.of(IP.valueOf(2)));
+        assertThrows(IllegalArgumentException.class, () -> NetworkDiff.between(null, network));
+        assertThrows(IllegalArgumentException.class, () -> NetworkDiff.between(network, null));
+    }
+
+    private static void check(Network from, Network to) {
+        NetworkDiff diff = NetworkDiff.between(from, to);
+        Set<Edge> fromEdges = edges(from);
+        Set<Edge> toEdges = edges(to);
+        assertEquals(difference(to.list(), from.list()), diff.getAddedNodes());
+        assertEquals(difference(from.list(), to.list()), diff.getRemovedNodes());
+        assertEquals(difference(toEdges, fromEdges), diff.getAddedEdges());
+        assertEquals(difference(fromEdges, toEdges), diff.getRemovedEdges());
+        boolean same = fromEdges.equals(toEdges);
+        assertEquals(same, diff.isEmpty());
+        assertEquals(same, from.equals(to));
+    }
+
+    private static <T extends Comparable<T>> List<T> difference(Collection<T> all, Collection<T> removed) {
+        TreeSet<T> difference = new TreeSet<>(all);
+        difference.removeAll(removed);
+        return new ArrayList<>(difference);
+    }
+
+    private static Set<Edge> edges(Network network) {
+        // read from the neighbour lists, without the paging of the diff
+        TopologyView view = network.view();
+        Set<Edge> edges = new HashSet<>();
+        for (int id = 0; id < view.bound(); id++) {
+            for (int k = 0; view.isNode(id) && k < view.degree(id); k++) {
+                edges.add(new Edge(IP.valueOf(view.packed(id)), IP.valueOf(view.packed(view.neighbour(id, k)))));
+            }
+        }
+        return edges;
+    }
+
+    private static Network copy(Network network) throws ParseException {
+        // every tree is parsed again, so the copy gives its own ids to the IP´s
+        Network copy = null;
+        Set<IP> copied = new HashSet<>();
+        for (IP root : network.list()) {
+            if (copied.add(root)) {
+                Network tree = new Network(network.toString(root));
+                copied.addAll(tree.list());
+                if (copy == null) {
+                    copy = tree;
+                } else {
+                    copy.add(tree);
+                }
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,98 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a {@link NetworkRegistry} answers like a scan of its networks while they are registered,
+ * replaced, unregistered and changed.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class NetworkRegistryTest {
+
+    private static final int STEPS = 20_000;
+    private static final int NAMES = 30;
+    private static final int NODES = 400;
+    private static final int LOW_BLOCK = 0x0A000000;
+    private static final int HIGH_BLOCK = 0x8A000000;
+
+    @Test
+    void queriesAgreeWithAScan() {
+        Random random = new Random(11);
+        RandomNetworks networks = new RandomNetworks(random, NODES, LOW_BLOCK, HIGH_BLOCK);
+        NetworkRegistry registry = new NetworkRegistry();
+        Map<String, Network> registered = new HashMap<>();
+        for (int step = 0; step < STEPS; step++) {
+            String name = "n" + random.nextInt(NAMES);
+            Network network = registered.get(name);
+            int operation = random.nextInt(10);
+            if (operation == 0) {
+                Network fresh = networks.edge();
+                assertSame(registered.put(name, fresh), registry.register(name, fresh));
+            } else if (operation == 1) {
+                assertSame(registered.remove(name), registry.unregister(name));
+            } else if (operation < 8) {
+                if (network != null) {
+                    networks.change(network);
+                }
+            } else {
+                IP ip = networks.ip();
+                SortedSet<String> containing = new TreeSet<>();
+                Set<IP> all = new HashSet<>();
+                for (Map.Entry<String, Network> entry : registered.entrySet()) {
+                    if (entry.getValue().contains(ip)) {
+                        containing.add(entry.getKey());
+                    }
+                    all.addAll(entry.getValue().list());
+                }
+                assertEquals(containing, registry.networksContaining(ip));
+                assertEquals(all.size(), registry.distinctAddresses());
+                assertEquals(new TreeSet<>(registered.keySet()), registry.names());
+                assertSame(network, registry.get(name));
+            }
+        }
+    }
+
+    @Test
+    void changedNetworksAreReindexed() {
+        NetworkRegistry registry = new NetworkRegistry();
+        Network network = new Network(IP.valueOf(1), List.of(IP.valueOf(2), IP.valueOf(3)));
+        registry.register("a", network);
+        registry.register("b", new Network(IP.valueOf(3), List.of(IP.valueOf(4))));
+        assertEquals(Set.of("a", "b"), registry.networksContaining(IP.valueOf(3)));
+        assertEquals(4, registry.distinctAddresses());
+
+        // the same nodes after a disconnect and an add
+        network.disconnect(IP.valueOf(1), IP.valueOf(3));
+        network.add(new Network(IP.valueOf(2), List.of(IP.valueOf(3))));
+        assertEquals(Set.of("a", "b"), registry.networksContaining(IP.valueOf(3)));
+        network.disconnect(IP.valueOf(2), IP.valueOf(3));
+        assertEquals(Set.of("b"), registry.networksContaining(IP.valueOf(3)));
+        assertEquals(4, registry.distinctAddresses());
+        network.add(new Network(IP.valueOf(2), List.of(IP.valueOf(5))));
+        assertEquals(Set.of("a"), registry.networksContaining(IP.valueOf(5)));
+        assertEquals(5, registry.distinctAddresses());
+
+        assertSame(network, registry.unregister("a"));
+        assertTrue(registry.networksContaining(IP.valueOf(1)).isEmpty());
+        assertEquals(2, registry.distinctAddresses());
+        assertTrue(registry.networksContaining(null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> registry.register(null, network));
+        assertThrows(IllegalArgumentException.class, () -> registry.register("c", null));
+    }
+}
@@ -0,0 +1,113 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the public operations of {@link Network} on the example network of the task.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class NetworkTest {
+
+    private static final String EXAMPLE = "(85.193.148.81 34.49.145.239 231.189.0.127 141.255.1.133)";
+    private static final String EXTENSION = "(85.193.148.81 (141.255.1.133 122.117.67.158 0.146.197.108) "
+            + "34.49.145.239 (231.189.0.127 77.135.84.171))";
+
+    private Network network;
+
+    @BeforeEach
+    void setUp() throws ParseException {
+        network = new Network(EXAMPLE);
+        assertTrue(network.add(new Network(EXTENSION)));
+    }
+
+    @Test
+    void listIsSorted() throws ParseException {
+        assertEquals(ips("0.146.197.108", "34.49.145.239", "77.135.84.171", "85.193.148.81", "122.117.67.158",
+                "141.255.1.133", "231.189.0.127"), network.list());
+    }
+
+    @Test
+    void toStringSortsChildren() throws ParseException {
+        assertEquals("(85.193.148.81 34.49.145.239 (141.255.1.133 0.146.197.108 122.117.67.158) "
+                + "(231.189.0.127 77.135.84.171))", network.toString(ip("85.193.148.81")));
+        assertEquals("(141.255.1.133 0.146.197.108 (85.193.148.81 34.49.145.239 "
+                + "(231.189.0.127 77.135.84.171)) 122.117.67.158)", network.toString(ip("141.255.1.133")));
+    }
+
+    @Test
+    void heightAndLevels() throws ParseException {
+        assertEquals(2, network.getHeight(ip("85.193.148.81")));
+        assertEquals(4, network.getHeight(ip("77.135.84.171")));
+        assertEquals(List.of(ips("85.193.148.81"), ips("34.49.145.239", "141.255.1.133", "231.189.0.127"),
+                ips("0.146.197.108", "77.135.84.171", "122.117.67.158")), network.getLevels(ip("85.193.148.81")));
+    }
+
+    @Test
+    void route() throws ParseException {
+        assertEquals(ips("122.117.67.158", "141.255.1.133", "85.193.148.81", "231.189.0.127", "77.135.84.171"),
+                network.getRoute(ip("122.117.67.158"), ip("77.135.84.171")));
+        assertEquals(4, network.distance(ip("122.117.67.158"), ip("77.135.84.171")));
+        assertEquals(List.of(), network.getRoute(ip("122.117.67.158"), ip("1.1.1.1")));
+    }
+
+    @Test
+    void connectAndDisconnect() throws ParseException {
+        assertFalse(network.connect(ip("34.49.145.239"), ip("77.135.84.171")));
+        assertTrue(network.disconnect(ip("85.193.148.81"), ip("34.49.145.239")));
+        assertFalse(network.contains(ip("34.49.145.239")));
+        assertFalse(network.disconnect(ip("85.193.148.81"), ip("34.49.145.239")));
+        assertTrue(network.add(new Network("(34.49.145.239 77.135.84.171)")));
+        assertTrue(network.contains(ip("34.49.145.239")));
+        assertEquals(ips("85.193.148.81", "231.189.0.127", "77.135.84.171", "34.49.145.239"),
+                network.getRoute(ip("85.193.148.81"), ip("34.49.145.239")));
+    }
+
+    @Test
+    void cyclesAreRejected() throws ParseException {
+        String before = network.toString(ip("85.193.148.81"));
+        assertFalse(network.add(new Network("(34.49.145.239 0.146.197.108)")));
+        assertEquals(before, network.toString(ip("85.193.148.81")));
+    }
+
+    @Test
+    void invalidNotationIsRejected() {
+        assertThrows(ParseException.class, () -> new Network("(1.1.1.1 1.1.1.1)"));
+        assertThrows(ParseException.class, () -> new Network("(1.1.1.1 2.2.2.2"));
+        assertThrows(ParseException.class, () -> new Network("(1.1.1.256 2.2.2.2)"));
+    }
+
+    /**
+     * Parses an IP.
+     * @param pointNotation the IP in point notation
+     * @return the IP
+     * @throws ParseException if the IP is not valid
+     */
+    static IP ip(String pointNotation) throws ParseException {
+        return new IP(pointNotation);
+    }
+
+    /**
+     * Parses IP´s.
+     * @param pointNotations the IP´s in point notation
+     * @return the IP´s in the given order
+     * @throws ParseException if an IP is not valid
+     */
+    static List<IP> ips(String... pointNotations) throws ParseException {
+        IP[] ips = new IP[pointNotations.length];
+        for (int i = 0; i < ips.length; i++) {
+            ips[i] = ip(pointNotations[i]);
+        }
+        return List.of(ips);
+    }
+}
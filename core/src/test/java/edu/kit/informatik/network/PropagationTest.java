@@ -0,0 +1,133 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the event driven simulation of {@link Propagation} against the sum of the transmission times
+ * along the route from the source.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class PropagationTest {
+
+    private static final int ROUNDS = 30;
+    private static final int MAX_NODES = 500;
+    private static final int MAX_BANDWIDTH = 5000;
+    private static final int MAX_MESSAGE = 100_000;
+    private static final int BATCH = 20;
+    private static final double TOLERANCE = 1e-6;
+    private static final int BLOCK = 0x0A000000;
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int OTHER_BLOCK = 0x0B000000;
+    private static final LinkProperties DEFAULTS = new LinkProperties(1.5, 1000);
+
+    @Test
+    void arrivalTimesFollowTheRoutes() {
+        Random random = new Random(5);
+        RandomNetworks networks = new RandomNetworks(random, BLOCK_SIZE, BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            List<IP> nodes = new ArrayList<>();
+            Network network = networks.tree(2 + random.nextInt(MAX_NODES), nodes);
+            IP other1 = IP.valueOf(OTHER_BLOCK);
+            IP other2 = IP.valueOf(OTHER_BLOCK + 1);
+            network.add(new Network(other1, Collections.singletonList(other2)));
+            Propagation propagation = new Propagation(DEFAULTS);
+            Map<Edge, LinkProperties> links = randomLinks(random, network, nodes, propagation);
+            long size = random.nextInt(MAX_MESSAGE);
+            IP source = nodes.get(random.nextInt(nodes.size()));
+            Network snapshot = network.snapshot();
+            PropagationResult result = propagation.simulate(network, source, size);
+            // the result belongs to the network at the time of the simulation
+            List<IP> route = network.getRoute(nodes.get(0), nodes.get(1));
+            network.disconnect(route.get(0), route.get(1));
+
+            double latest = -1;
+            for (IP target : nodes) {
+                double expected = 0;
+                List<IP> path = snapshot.getRoute(source, target);
+                for (int i = 1; i < path.size(); i++) {
+                    expected += links.getOrDefault(new Edge(path.get(i - 1), path.get(i)), DEFAULTS)
+                            .transmissionTime(size);
+                }
+                assertEquals(expected, result.getArrivalTime(target), TOLERANCE * Math.max(1, expected));
+                latest = Math.max(latest, result.getArrivalTime(target));
+            }
+            assertEquals(nodes.size(), result.getReachedCount());
+            assertEquals(latest, result.getCompletionTime());
+            assertEquals(-1, result.getArrivalTime(other1));
+            List<IP> critical = result.getCriticalPath();
+            IP last = critical.get(critical.size() - 1);
+            assertEquals(snapshot.getRoute(source, last), critical);
+            assertEquals(result.getCompletionTime(), result.getArrivalTime(last));
+            List<IP> order = result.getArrivalOrder();
+            for (int i = 1; i < order.size(); i++) {
+                assertTrue(result.getArrivalTime(order.get(i - 1)) <= result.getArrivalTime(order.get(i)));
+            }
+
+            List<IP> sources = new ArrayList<>(nodes.subList(0, Math.min(BATCH, nodes.size())));
+            sources.add(other2);
+            sources.add(IP.valueOf(7));
+            Map<IP, Double> completion = propagation.completionTimes(snapshot, sources, size);
+            assertEquals(sources.size() - 1, completion.size());
+            for (IP batchSource : sources.subList(0, sources.size() - 1)) {
+                assertEquals(propagation.simulate(snapshot, batchSource, size).getCompletionTime(),
+                        completion.get(batchSource));
+            }
+            assertEquals(0, propagation.simulate(snapshot, IP.valueOf(7), size).getReachedCount());
+        }
+    }
+
+    @Test
+    void linksBelongToThePairOfIps() {
+        Propagation propagation = new Propagation(DEFAULTS);
+        LinkProperties fast = new LinkProperties(0.1, MAX_BANDWIDTH);
+        propagation.setLink(IP.valueOf(1), IP.valueOf(2), fast);
+        assertEquals(fast, propagation.getLink(IP.valueOf(2), IP.valueOf(1)));
+        assertEquals(DEFAULTS, propagation.getLink(IP.valueOf(1), IP.valueOf(3)));
+        propagation.setLink(IP.valueOf(2), IP.valueOf(1), null);
+        assertEquals(DEFAULTS, propagation.getLink(IP.valueOf(1), IP.valueOf(2)));
+    }
+
+    @Test
+    void invalidInputsAreRejected() {
+        Propagation propagation = new Propagation(DEFAULTS);
+        Network network = new Network(IP.valueOf(1), List.of(IP.valueOf(2)));
+        assertThrows(IllegalArgumentException.class, () -> propagation.simulate(null, IP.valueOf(1), 1));
+        assertThrows(IllegalArgumentException.class, () -> propagation.completionTimes(null, List.of(), 1));
+        assertThrows(IllegalArgumentException.class, () -> propagation.completionTimes(network, null, 1));
+        assertThrows(IllegalArgumentException.class, () -> propagation.simulate(network, IP.valueOf(1), -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> propagation.completionTimes(network, List.of(IP.valueOf(1)), -1));
+        assertThrows(IllegalArgumentException.class, () -> DEFAULTS.transmissionTime(-1));
+    }
+
+    private static Map<Edge, LinkProperties> randomLinks(Random random, Network network, List<IP> nodes,
+            Propagation propagation) {
+        Map<Edge, LinkProperties> links = new HashMap<>();
+        for (int k = 0; k < nodes.size(); k++) {
+            IP ip1 = nodes.get(random.nextInt(nodes.size()));
+            List<IP> route = network.getRoute(ip1, nodes.get(random.nextInt(nodes.size())));
+            IP ip2 = route.size() > 1 ? route.get(1) : nodes.get(random.nextInt(nodes.size()));
+            if (ip1.equals(ip2)) {
+                continue;
+            }
+            LinkProperties properties = random.nextInt(5) == 0 ? null
+                    : new LinkProperties(random.nextDouble() * 10, 1 + random.nextInt(MAX_BANDWIDTH));
+            propagation.setLink(ip1, ip2, properties);
+            links.put(new Edge(ip1, ip2), properties == null ? DEFAULTS : properties);
+        }
+        return links;
+    }
+}
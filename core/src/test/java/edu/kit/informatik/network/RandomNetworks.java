@@ -0,0 +1,102 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The class RandomNetworks builds random networks and changes them for the tests.
+ * The IP´s are taken from a small address space, a few blocks with the same number of nodes each,
+ * so random changes often hit IP´s that are already in the network.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class RandomNetworks {
+
+    private final Random random;
+    private final int nodes;
+    private final int[] blocks;
+
+    /**
+     * Creates random networks in an address space.
+     * @param random source of the random numbers
+     * @param nodes number of IP´s in every block
+     * @param blocks first packed IP of every block
+     */
+    RandomNetworks(Random random, int nodes, int... blocks) {
+        this.random = random;
+        this.nodes = nodes;
+        this.blocks = blocks;
+    }
+
+    /**
+     * Returns a random IP of the address space.
+     * @return the IP
+     */
+    IP ip() {
+        return IP.valueOf(blocks[random.nextInt(blocks.length)] | random.nextInt(nodes));
+    }
+
+    /**
+     * Returns a network with a single edge between two different random IP´s.
+     * @return the network
+     */
+    Network edge() {
+        IP root = ip();
+        IP child = ip();
+        while (child.equals(root)) {
+            child = ip();
+        }
+        return new Network(root, List.of(child));
+    }
+
+    /**
+     * Grows a random tree by adding a new leaf to a random node of it.
+     * @param size number of nodes, at least 2
+     * @return the tree
+     */
+    Network tree(int size) {
+        return tree(size, new ArrayList<>());
+    }
+
+    /**
+     * Grows a random tree by adding a new leaf to a random node of it.
+     * @param size number of nodes, at least 2
+     * @param added receives the nodes in the order they were added, the first two are connected
+     * @return the tree
+     */
+    Network tree(int size, List<IP> added) {
+        Network network = edge();
+        List<IP> tree = new ArrayList<>(network.list());
+        while (tree.size() < size) {
+            IP leaf = ip();
+            if (!network.contains(leaf) && network.add(new Network(tree.get(random.nextInt(tree.size())),
+                    List.of(leaf)))) {
+                tree.add(leaf);
+            }
+        }
+        added.addAll(tree);
+        return network;
+    }
+
+    /**
+     * Makes a random change: connects two random nodes, disconnects the first hop of a random route
+     * or adds a random edge.
+     * @param network the network to change
+     * @return if the network was changed
+     */
+    boolean change(Network network) {
+        List<IP> list = network.list();
+        switch (random.nextInt(3)) {
+            case 0:
+                return network.connect(list.get(random.nextInt(list.size())), list.get(random.nextInt(list.size())));
+            case 1:
+                List<IP> route = network.getRoute(list.get(random.nextInt(list.size())),
+                        list.get(random.nextInt(list.size())));
+                return route.size() >= 2 && network.disconnect(route.get(0), route.get(1));
+            default:
+                return network.add(edge());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the cached renderings of {@link Network#toString(IP)} (see {@link Rendering}) are kept up to date
+ * by connecting, disconnecting and adding, against a fresh rendering of a snapshot.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class RenderingTest {
+
+    private static final int ROUNDS = 100;
+    private static final int SUBNETS = 30;
+    private static final int OPERATIONS = 300;
+    private static final int NODES = 120;
+    private static final int MAX_ROOTS = 6;
+    private static final int BLOCK = 0x0A000000;
+
+    @Test
+    void cachedRenderingsAgreeWithFreshOnes() throws ParseException {
+        Random random = new Random(9);
+        RandomNetworks networks = new RandomNetworks(random, NODES, BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            Network network = networks.edge();
+            for (int i = 0; i < SUBNETS; i++) {
+                network.add(networks.edge());
+            }
+            List<IP> roots = new ArrayList<>();
+            for (int operation = 0; operation < OPERATIONS; operation++) {
+                List<IP> nodes = network.list();
+                if (random.nextInt(3) == 0) {
+                    IP root = nodes.get(random.nextInt(nodes.size()));
+                    // caches the rendering of the root
+                    network.toString(root);
+                    roots.add(root);
+                }
+                networks.change(network);
+                // a snapshot has no cached renderings, so it renders the tree again
+                Network snapshot = network.snapshot();
+                for (IP root : roots) {
+                    String rendered = network.toString(root);
+                    assertEquals(snapshot.toString(root), rendered);
+                    if (!rendered.isEmpty()) {
+                        assertEquals(rendered, new Network(rendered).toString(root));
+                    }
+                }
+                if (roots.size() > MAX_ROOTS) {
+                    roots.remove(0);
+                }
+            }
+        }
+    }
+}
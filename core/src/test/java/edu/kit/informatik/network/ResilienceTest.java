@@ -0,0 +1,150 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the seeded Monte Carlo analysis of {@link Resilience} against the exact survival probabilities,
+ * the product of the survival of the edges on the route from the root.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class ResilienceTest {
+
+    private static final int ROUNDS = 20;
+    private static final int MAX_NODES = 200;
+    private static final int TRIALS = 20_000;
+    private static final int MORE_TRIALS = 5000;
+    private static final double DEVIATIONS = 5;
+    private static final double EPSILON = 1e-9;
+    private static final double[] FAILURES = {0, 1, 0.5, 0.3, 0.001, 0.07, 0.25, 1e-13};
+    private static final int BLOCK = 0x0A000000;
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int OTHER_BLOCK = 0x0B000000;
+    private static final int PERCENT = 100;
+    private static final int MEDIAN = 50;
+    private static final int SMALL_TREE = 7;
+
+    @Test
+    void survivalAgreesWithTheExactProbabilities() {
+        Random random = new Random(3);
+        RandomNetworks networks = new RandomNetworks(random, BLOCK_SIZE, BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            int size = 2 + random.nextInt(MAX_NODES);
+            List<IP> nodes = new ArrayList<>();
+            Network network = networks.tree(size, nodes);
+            IP root = nodes.get(0);
+            Map<IP, IP> parents = parents(network, nodes);
+            network.add(new Network(IP.valueOf(OTHER_BLOCK), List.of(IP.valueOf(OTHER_BLOCK + 1))));
+            Resilience resilience = new Resilience(FAILURES[random.nextInt(FAILURES.length)]);
+            for (Map.Entry<IP, IP> edge : parents.entrySet()) {
+                if (random.nextBoolean()) {
+                    resilience.setFailure(edge.getValue(), edge.getKey(), FAILURES[random.nextInt(FAILURES.length)]);
+                }
+            }
+            int trials = TRIALS + random.nextInt(MORE_TRIALS);
+            ResilienceResult result = resilience.analyze(network, root, trials, round);
+
+            double mean = 0;
+            for (IP ip : nodes) {
+                double exact = survival(resilience, parents, ip);
+                if (!ip.equals(root)) {
+                    mean += exact;
+                }
+                double estimate = result.getSurvivalProbability(ip);
+                double deviation = Math.sqrt(exact * (1 - exact) / trials) + EPSILON;
+                assertEquals(exact, estimate, DEVIATIONS * deviation, ip.toString());
+                assertEquals(estimate, result.getSurvivalProbabilities().get(ip));
+            }
+            assertEquals(mean, result.getMeanReachable(), DEVIATIONS * Math.sqrt(size * size / 4.0 / trials) + EPSILON);
+            assertEquals(size - 1, result.getHosts());
+            assertEquals(trials, result.getTrials());
+            assertEquals(1, result.getSurvivalProbability(root));
+            assertEquals(0, result.getSurvivalProbability(IP.valueOf(OTHER_BLOCK)));
+            assertEquals(trials, result.getDistribution().values().stream().mapToInt(Integer::intValue).sum());
+            assertTrue(result.getReachablePercentile(0) <= result.getReachablePercentile(MEDIAN));
+            assertTrue(result.getReachablePercentile(PERCENT) <= size - 1);
+
+            // the same seed gives the same result
+            ResilienceResult again = resilience.analyze(network, root, trials, round);
+            assertEquals(result.getDistribution(), again.getDistribution());
+            assertEquals(result.getSurvivalProbabilities(), again.getSurvivalProbabilities());
+        }
+    }
+
+    @Test
+    void distributionAgreesWithAllFailurePatterns() {
+        Random random = new Random(4);
+        List<IP> nodes = new ArrayList<>();
+        Network network = new RandomNetworks(random, BLOCK_SIZE, BLOCK).tree(SMALL_TREE, nodes);
+        Map<IP, IP> parents = parents(network, nodes);
+        Resilience resilience = new Resilience(FAILURES[3]);
+        List<IP> children = new ArrayList<>(parents.keySet());
+        for (IP child : children) {
+            resilience.setFailure(child, parents.get(child), FAILURES[random.nextInt(FAILURES.length)]);
+        }
+        // every pattern of failed edges with its probability and the number of hosts that are still reached
+        double[] exact = new double[children.size() + 1];
+        for (int failed = 0; failed < 1 << children.size(); failed++) {
+            double probability = 1;
+            for (int i = 0; i < children.size(); i++) {
+                double failure = resilience.getFailure(children.get(i), parents.get(children.get(i)));
+                probability *= (failed & 1 << i) != 0 ? failure : 1 - failure;
+            }
+            int reached = 0;
+            for (IP child : children) {
+                boolean up = true;
+                for (IP ip = child; parents.containsKey(ip) && up; ip = parents.get(ip)) {
+                    up = (failed & 1 << children.indexOf(ip)) == 0;
+                }
+                reached += up ? 1 : 0;
+            }
+            exact[reached] += probability;
+        }
+        ResilienceResult result = resilience.analyze(network, nodes.get(0), TRIALS, 1);
+        for (int reached = 0; reached < exact.length; reached++) {
+            double estimate = result.getDistribution().getOrDefault(reached, 0) / (double) TRIALS;
+            double deviation = Math.sqrt(exact[reached] * (1 - exact[reached]) / TRIALS) + EPSILON;
+            assertEquals(exact[reached], estimate, DEVIATIONS * deviation, reached + " hosts");
+        }
+    }
+
+    @Test
+    void invalidInputs() {
+        Network network = new Network(IP.valueOf(1), List.of(IP.valueOf(2)));
+        ResilienceResult unknown = new Resilience(0.5).analyze(network, IP.valueOf(9), 10);
+        assertEquals(0, unknown.getHosts());
+        assertEquals(0, unknown.getMeanReachable());
+        assertThrows(IllegalArgumentException.class, () -> new Resilience(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new Resilience(0.5).analyze(network, IP.valueOf(1), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Resilience(0.5).setFailure(IP.valueOf(1), IP.valueOf(1), 0.1));
+    }
+
+    private static Map<IP, IP> parents(Network network, List<IP> nodes) {
+        // the parent of a node is the next hop on its route to the first node, the root
+        Map<IP, IP> parents = new HashMap<>();
+        for (IP ip : nodes.subList(1, nodes.size())) {
+            parents.put(ip, network.getRoute(ip, nodes.get(0)).get(1));
+        }
+        return parents;
+    }
+
+    private static double survival(Resilience resilience, Map<IP, IP> parents, IP ip) {
+        double survival = 1;
+        for (IP child = ip; parents.containsKey(child); child = parents.get(child)) {
+            survival *= 1 - resilience.getFailure(parents.get(child), child);
+        }
+        return survival;
+    }
+}
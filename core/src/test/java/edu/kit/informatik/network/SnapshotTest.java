@@ -0,0 +1,69 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests that the snapshots of a {@link Network} keep the state they were taken in while the network
+ * and the pages they share with it are changed.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class SnapshotTest {
+
+    private static final int ROUNDS = 10;
+    private static final int NODES = 1000;
+    private static final int CHANGES = 400;
+    private static final int SNAPSHOT_EVERY = 20;
+    private static final int BLOCK = 0x0A000000;
+    private static final int HIGH_BLOCK = 0xCA000000;
+    private static final int BLOCK_SIZE = 1 << 12;
+
+    @Test
+    void snapshotsKeepTheirState() {
+        Random random = new Random(12);
+        RandomNetworks networks = new RandomNetworks(random, BLOCK_SIZE, BLOCK, HIGH_BLOCK);
+        for (int round = 0; round < ROUNDS; round++) {
+            Network network = networks.tree(2 + random.nextInt(NODES));
+            List<Network> snapshots = new ArrayList<>();
+            List<List<IP>> lists = new ArrayList<>();
+            List<String> notations = new ArrayList<>();
+            List<List<List<IP>>> levels = new ArrayList<>();
+            for (int change = 0; change < CHANGES; change++) {
+                if (change % SNAPSHOT_EVERY == 0) {
+                    IP root = network.list().get(0);
+                    snapshots.add(network.snapshot());
+                    lists.add(network.list());
+                    notations.add(network.toString(root));
+                    levels.add(network.getLevels(root));
+                }
+                networks.change(network);
+            }
+            for (int i = 0; i < snapshots.size(); i++) {
+                Network snapshot = snapshots.get(i);
+                IP root = lists.get(i).get(0);
+                assertEquals(lists.get(i), snapshot.list());
+                assertEquals(notations.get(i), snapshot.toString(root));
+                assertEquals(levels.get(i), snapshot.getLevels(root));
+            }
+        }
+    }
+
+    @Test
+    void snapshotsAreFrozen() {
+        Network network = new Network(IP.valueOf(1), List.of(IP.valueOf(2), IP.valueOf(3)));
+        Network snapshot = network.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.connect(IP.valueOf(2), IP.valueOf(3)));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.disconnect(IP.valueOf(1), IP.valueOf(2)));
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.add(new Network(IP.valueOf(3), List.of(IP.valueOf(4)))));
+        assertEquals(network, snapshot.snapshot());
+    }
+}
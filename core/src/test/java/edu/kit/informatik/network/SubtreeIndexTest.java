@@ -0,0 +1,111 @@
+package edu.kit.informatik.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the impacts of {@link Network#impactOf(IP, IP)} and {@link Network#criticalEdges(int)}, answered by the
+ * {@link SubtreeIndex}, against counting the nodes on both sides of an edge while the network is changed.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+class SubtreeIndexTest {
+
+    private static final int ROUNDS = 60;
+    private static final int SMALL_ROUNDS = 20;
+    private static final int MAX_SMALL = 12;
+    private static final int MAX_NODES = 150;
+    private static final int STEPS = 200;
+    private static final int CHECK_EVERY = 10;
+    private static final int BUILD_EVERY = 7;
+    private static final int MAX_COUNT = 6;
+    private static final int ADDRESSES = 5000;
+
+    @Test
+    void impactsAgreeWithCounting() {
+        Random random = new Random(11);
+        RandomNetworks networks = new RandomNetworks(random, ADDRESSES, 0);
+        for (int round = 0; round < ROUNDS; round++) {
+            int size = 2 + random.nextInt(round < SMALL_ROUNDS ? MAX_SMALL : MAX_NODES);
+            List<IP> nodes = new ArrayList<>();
+            Network network = networks.tree(size, nodes);
+            for (int step = 0; step < STEPS; step++) {
+                if (step % BUILD_EVERY == 0) {
+                    // builds the index, so the following changes update it
+                    network.impactOf(nodes.get(random.nextInt(nodes.size())), nodes.get(random.nextInt(nodes.size())));
+                }
+                networks.change(network);
+                if (step % CHECK_EVERY == 0) {
+                    check(network, random);
+                }
+            }
+        }
+    }
+
+    @Test
+    void invalidEdges() {
+        Network network = new Network(IP.valueOf(1), List.of(IP.valueOf(2), IP.valueOf(3)));
+        assertNull(network.impactOf(IP.valueOf(2), IP.valueOf(3)));
+        assertNull(network.impactOf(IP.valueOf(1), IP.valueOf(4)));
+        assertNull(network.impactOf(IP.valueOf(1), IP.valueOf(1)));
+        assertNull(network.impactOf(null, IP.valueOf(1)));
+        assertThrows(IllegalArgumentException.class, () -> network.criticalEdges(-1));
+        assertEquals(Collections.emptyList(), network.criticalEdges(0));
+        assertEquals(2, network.criticalEdges(MAX_COUNT).size());
+    }
+
+    private static void check(Network network, Random random) {
+        List<IP> nodes = network.list();
+        List<Integer> cutOffs = new ArrayList<>();
+        Network snapshot = network.snapshot();
+        for (IP ip1 : nodes) {
+            for (IP ip2 : nodes) {
+                if (ip1.compareTo(ip2) >= 0) {
+                    continue;
+                }
+                EdgeImpact impact = network.impactOf(ip1, ip2);
+                if (network.distance(ip1, ip2) != 1) {
+                    assertNull(impact);
+                    continue;
+                }
+                assertNotNull(impact);
+                assertEquals(new Edge(ip1, ip2), impact.getEdge());
+                assertEquals(side(network, ip1, ip2), impact.getFirstSide());
+                assertEquals(side(network, ip2, ip1), impact.getSecondSide());
+                EdgeImpact frozen = snapshot.impactOf(ip2, ip1);
+                assertEquals(impact.getFirstSide(), frozen.getFirstSide());
+                assertEquals(impact.getSecondSide(), frozen.getSecondSide());
+                cutOffs.add(impact.getCutOff());
+            }
+        }
+        cutOffs.sort(Collections.reverseOrder());
+        int count = random.nextInt(MAX_COUNT);
+        List<EdgeImpact> critical = network.criticalEdges(count);
+        assertEquals(Math.min(count, cutOffs.size()), critical.size());
+        for (int i = 0; i < critical.size(); i++) {
+            assertEquals((int) cutOffs.get(i), critical.get(i).getCutOff());
+        }
+    }
+
+    private static int side(Network network, IP from, IP blocked) {
+        // the nodes reached from an IP without the edge to another IP
+        int count = 0;
+        for (IP ip : network.list()) {
+            List<IP> route = network.getRoute(from, ip);
+            if (ip.equals(from) || route.size() > 1 && !route.get(1).equals(blocked)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -8,6 +8,9 @@
 public class ParseException extends Exception {
 
     private static final long serialVersionUID = -4688107508137905858L;
+    private static final long UNKNOWN_OFFSET = -1;
+
+    private final long offset;
 
     /**
      * Constructor for returning a given Message
@@ -15,5 +18,24 @@ public class ParseException extends Exception {
      */
     public ParseException(String message) {
         super(message);
+        this.offset = UNKNOWN_OFFSET;
+    }
+
+    /**
+     * Constructor for returning a given Message together with the position of the Error in the input.
+     * @param message with the Error
+     * @param offset position of the Error in the input
+     */
+    public ParseException(String message, long offset) {
+        super(message + " at offset " + offset);
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the position of the Error in the input.
+     * @return the offset or -1 if it is unknown
+     */
+    public long getOffset() {
+        return offset;
     }
 }
@@ -0,0 +1,398 @@
+package edu.kit.informatik.network;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+
+/**
+ * The class AddressIndex keeps the packed IP´s of a topology sorted in the order of {@link IP}.
+ * A prefix like 10.20.0.0/16 covers a contiguous range of the order, so the nodes in it are found
+ * by two binary searches in O(log n) and listed in O(k).
+ * The IP´s are held in sorted chunks of at most {@link #CHUNK_SIZE} IP´s. The index is never changed,
+ * a change of the topology creates a new index that copies only the chunks it changes and shares all others
+ * with the old index, so an update costs O(n / CHUNK_SIZE + CHUNK_SIZE) and a snapshot can share the index
+ * with its network.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class AddressIndex {
+
+    /**
+     * Longest prefix length, a prefix of this length covers a single IP.
+     */
+    static final int MAX_PREFIX_LENGTH = Integer.SIZE;
+    /**
+     * Largest number of IP´s of a chunk.
+     */
+    static final int CHUNK_SIZE = 1 << 10;
+    /**
+     * The index without any IP.
+     */
+    static final AddressIndex EMPTY = new AddressIndex(new int[0][]);
+
+    // a chunk that gets smaller than this is joined with a neighbour
+    private static final int MIN_CHUNK_SIZE = CHUNK_SIZE / 4;
+
+    // every chunk is sorted and not empty, all IP´s of a chunk are smaller than those of the next chunk
+    private final int[][] chunks;
+    // position of the first IP of every chunk, followed by the size of the index
+    private final int[] starts;
+
+    private AddressIndex(int[][] chunks) {
+        this.chunks = chunks;
+        this.starts = new int[chunks.length + 1];
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            this.starts[chunk + 1] = this.starts[chunk] + chunks[chunk].length;
+        }
+    }
+
+    /**
+     * Creates the index of all nodes of a topology in O(n log n).
+     * @param topology topology to index
+     */
+    AddressIndex(TopologyView topology) {
+        this(split(sorted(topology)));
+    }
+
+    /**
+     * Returns a new index that contains the IP´s of this index and the added ones.
+     * Only the chunks that get new IP´s are copied.
+     * @param added packed IP´s that are not in this index, in any order
+     * @return the new index
+     */
+    AddressIndex with(int[] added) {
+        if (added.length == 0) {
+            return this;
+        }
+        int[] keys = new int[added.length];
+        for (int i = 0; i < added.length; i++) {
+            keys[i] = added[i] ^ Integer.MIN_VALUE;
+        }
+        int[] insert = fromKeys(keys);
+        if (this.chunks.length == 0) {
+            return new AddressIndex(split(insert));
+        }
+        List<int[]> result = new ArrayList<>(this.chunks.length + insert.length / CHUNK_SIZE + 1);
+        int from = 0;
+        for (int chunk = 0; chunk < this.chunks.length; chunk++) {
+            // the IP´s in front of the next chunk belong to this chunk, the last chunk takes the rest
+            int to = chunk == this.chunks.length - 1 ? insert.length
+                    : firstAtLeast(insert, from, insert.length, Integer.toUnsignedLong(this.chunks[chunk + 1][0]));
+            if (from == to) {
+                result.add(this.chunks[chunk]);
+            } else {
+                result.addAll(Arrays.asList(split(merge(this.chunks[chunk], insert, from, to))));
+            }
+            from = to;
+        }
+        return new AddressIndex(result.toArray(new int[0][]));
+    }
+
+    /**
+     * Returns a new index without a removed IP. Only the chunk of the IP is copied.
+     * @param packed packed IP that is in this index
+     * @return the new index
+     */
+    AddressIndex without(int packed) {
+        long value = Integer.toUnsignedLong(packed);
+        int chunk = chunkOf(value);
+        int[] old = this.chunks[chunk];
+        int position = firstAtLeast(old, 0, old.length, value);
+        int[] smaller = new int[old.length - 1];
+        System.arraycopy(old, 0, smaller, 0, position);
+        System.arraycopy(old, position + 1, smaller, position, smaller.length - position);
+        int[][] result;
+        if (smaller.length == 0) {
+            result = new int[this.chunks.length - 1][];
+            System.arraycopy(this.chunks, 0, result, 0, chunk);
+            System.arraycopy(this.chunks, chunk + 1, result, chunk, result.length - chunk);
+        } else if (smaller.length < MIN_CHUNK_SIZE && this.chunks.length > 1) {
+            // the small chunk is joined with a neighbour, so the number of chunks stays in O(n / CHUNK_SIZE)
+            int first = chunk + 1 < this.chunks.length ? chunk : chunk - 1;
+            int[] left = first == chunk ? smaller : this.chunks[first];
+            int[] right = first == chunk ? this.chunks[first + 1] : smaller;
+            int[] joined = Arrays.copyOf(left, left.length + right.length);
+            System.arraycopy(right, 0, joined, left.length, right.length);
+            int[][] pieces = split(joined);
+            result = new int[this.chunks.length - 2 + pieces.length][];
+            System.arraycopy(this.chunks, 0, result, 0, first);
+            System.arraycopy(pieces, 0, result, first, pieces.length);
+            System.arraycopy(this.chunks, first + 2, result, first + pieces.length, this.chunks.length - first - 2);
+        } else {
+            result = this.chunks.clone();
+            result[chunk] = smaller;
+        }
+        return new AddressIndex(result);
+    }
+
+    /**
+     * Returns the number of IP´s.
+     * @return the size of the index
+     */
+    int size() {
+        return this.starts[this.chunks.length];
+    }
+
+    /**
+     * Returns the IP at a position of the ascending order in O(log(n / CHUNK_SIZE)).
+     * @param position the position
+     * @return the packed IP
+     */
+    int packed(int position) {
+        int low = 0;
+        int high = this.chunks.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.starts[middle] <= position) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return this.chunks[low][position - this.starts[low]];
+    }
+
+    /**
+     * Passes the IP´s that are only in this index and those that are only in another index in ascending order.
+     * Chunks that both indices share are skipped, so two versions of the index of one network are compared
+     * in time in proportion to their number of chunks and the size of the changed chunks.
+     * @param other the other index
+     * @param onlyHere receives the IP´s that are only in this index
+     * @param onlyThere receives the IP´s that are only in the other index
+     */
+    void difference(AddressIndex other, IntConsumer onlyHere, IntConsumer onlyThere) {
+        int here = 0;
+        int hereOffset = 0;
+        int there = 0;
+        int thereOffset = 0;
+        while (here < this.chunks.length || there < other.chunks.length) {
+            if (hereOffset == 0 && thereOffset == 0 && here < this.chunks.length && there < other.chunks.length
+                    && this.chunks[here] == other.chunks[there]) {
+                here++;
+                there++;
+                continue;
+            }
+            int order = here == this.chunks.length ? 1 : there == other.chunks.length ? -1
+                    : Integer.compareUnsigned(this.chunks[here][hereOffset], other.chunks[there][thereOffset]);
+            if (order <= 0) {
+                if (order < 0) {
+                    onlyHere.accept(this.chunks[here][hereOffset]);
+                }
+                if (++hereOffset == this.chunks[here].length) {
+                    here++;
+                    hereOffset = 0;
+                }
+            }
+            if (order >= 0) {
+                if (order > 0) {
+                    onlyThere.accept(other.chunks[there][thereOffset]);
+                }
+                if (++thereOffset == other.chunks[there].length) {
+                    there++;
+                    thereOffset = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns all IP´s in ascending order.
+     * @return unmodifiable view of the index
+     */
+    List<IP> all() {
+        return new Range(0, size());
+    }
+
+    /**
+     * Returns the IP´s of a prefix in ascending order.
+     * @param prefix packed IP of the prefix, the bits after the prefix length are ignored
+     * @param length prefix length from 0 to {@link #MAX_PREFIX_LENGTH}
+     * @return unmodifiable view of the range of the index
+     */
+    List<IP> range(int prefix, int length) {
+        long lowest = lowest(prefix, length);
+        return new Range(firstAtLeast(lowest), firstAtLeast(highest(lowest, length) + 1));
+    }
+
+    /**
+     * Returns the number of IP´s of a prefix in O(log n).
+     * @param prefix packed IP of the prefix, the bits after the prefix length are ignored
+     * @param length prefix length from 0 to {@link #MAX_PREFIX_LENGTH}
+     * @return the number of IP´s
+     */
+    int count(int prefix, int length) {
+        long lowest = lowest(prefix, length);
+        return firstAtLeast(highest(lowest, length) + 1) - firstAtLeast(lowest);
+    }
+
+    private static long lowest(int prefix, int length) {
+        long mask = length == 0 ? 0 : -1L << (MAX_PREFIX_LENGTH - length);
+        return Integer.toUnsignedLong(prefix) & mask;
+    }
+
+    private static long highest(long lowest, int length) {
+        return lowest + (1L << (MAX_PREFIX_LENGTH - length)) - 1;
+    }
+
+    /**
+     * Returns the position of the first IP that is not smaller than a value.
+     * @param value unsigned value of the IP, up to 2^32
+     * @return the position or the size of the index if all IP´s are smaller
+     */
+    private int firstAtLeast(long value) {
+        // the first chunk whose last IP is not smaller than the value
+        int low = 0;
+        int high = this.chunks.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int[] chunk = this.chunks[middle];
+            if (Integer.toUnsignedLong(chunk[chunk.length - 1]) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == this.chunks.length) {
+            return size();
+        }
+        return this.starts[low] + firstAtLeast(this.chunks[low], 0, this.chunks[low].length, value);
+    }
+
+    /**
+     * Returns the chunk that holds an IP of the index.
+     * @param value unsigned value of the IP
+     * @return the last chunk whose first IP is not larger than the value
+     */
+    private int chunkOf(long value) {
+        int low = 0;
+        int high = this.chunks.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (Integer.toUnsignedLong(this.chunks[middle][0]) <= value) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the position of the first IP of a sorted range that is not smaller than a value.
+     * @param sorted sorted packed IP´s
+     * @param from first position of the range
+     * @param to position after the range
+     * @param value unsigned value of the IP, up to 2^32
+     * @return the position or the end of the range if all IP´s are smaller
+     */
+    private static int firstAtLeast(int[] sorted, int from, int to, long value) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Integer.toUnsignedLong(sorted[middle]) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Merges a chunk with a range of sorted IP´s.
+     * @param chunk the chunk
+     * @param insert sorted packed IP´s
+     * @param from first position of the range
+     * @param to position after the range
+     * @return the sorted IP´s of both
+     */
+    private static int[] merge(int[] chunk, int[] insert, int from, int to) {
+        int[] merged = new int[chunk.length + to - from];
+        int i = 0;
+        int j = from;
+        for (int k = 0; k < merged.length; k++) {
+            if (j == to || i < chunk.length && Integer.compareUnsigned(chunk[i], insert[j]) < 0) {
+                merged[k] = chunk[i++];
+            } else {
+                merged[k] = insert[j++];
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Splits sorted IP´s into chunks of nearly equal size with at most {@link #CHUNK_SIZE} IP´s.
+     * @param sorted sorted packed IP´s
+     * @return the chunks, none if there are no IP´s
+     */
+    private static int[][] split(int[] sorted) {
+        if (sorted.length <= CHUNK_SIZE) {
+            return sorted.length == 0 ? new int[0][] : new int[][] {sorted};
+        }
+        int count = (sorted.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int[][] pieces = new int[count][];
+        for (int piece = 0; piece < count; piece++) {
+            int from = (int) ((long) sorted.length * piece / count);
+            int to = (int) ((long) sorted.length * (piece + 1) / count);
+            pieces[piece] = Arrays.copyOfRange(sorted, from, to);
+        }
+        return pieces;
+    }
+
+    private static int[] sorted(TopologyView topology) {
+        int[] keys = new int[topology.size()];
+        int count = 0;
+        for (int id = 0; id < topology.bound(); id++) {
+            if (topology.isNode(id)) {
+                keys[count++] = topology.packed(id) ^ Integer.MIN_VALUE;
+            }
+        }
+        return fromKeys(keys);
+    }
+
+    /**
+     * Sorts keys with flipped sign bits, so the signed order is the unsigned order of the IP´s,
+     * and flips the bits back.
+     * @param keys the keys, they are changed
+     * @return the sorted packed IP´s
+     */
+    private static int[] fromKeys(int[] keys) {
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] ^= Integer.MIN_VALUE;
+        }
+        return keys;
+    }
+
+    /**
+     * Unmodifiable view of a range of the index.
+     */
+    private final class Range extends AbstractList<IP> implements RandomAccess {
+
+        private final int from;
+        private final int to;
+
+        Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public IP get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+            }
+            return IP.valueOf(packed(from + index));
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The class BatchQuery answers a batch of queries in parallel on the common {@link ForkJoinPool}.
+ * The batch is split in halves until a part is small enough, so workers that finish early can steal
+ * the rest. Every thread creates one scratch per batch and answers the queries of all its parts with it.
+ * Queries that need no buffers run without a scratch.
+ * The queries must only read, for example from a frozen network.
+ *
+ * @param <S> type of the scratch
+ * @param <T> type of the queries
+ * @param <R> type of the answers
+ * @author ucfoh
+ * @version 1.0
+ */
+final class BatchQuery<S, T, R> extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+    // parts per worker, so workers that finish early can steal the rest
+    private static final int PARTS_PER_WORKER = 8;
+
+    private final transient List<T> queries;
+    private final transient Object[] answers;
+    private final transient Supplier<S> scratch;
+    private final transient Map<Thread, S> scratches;
+    private final transient BiFunction<S, T, R> query;
+    private final int threshold;
+    private final int start;
+    private final int end;
+
+    private BatchQuery(List<T> queries, Object[] answers, Supplier<S> scratch, Map<Thread, S> scratches,
+            BiFunction<S, T, R> query, int threshold, int start, int end) {
+        this.queries = queries;
+        this.answers = answers;
+        this.scratch = scratch;
+        this.scratches = scratches;
+        this.query = query;
+        this.threshold = threshold;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Answers all queries of a batch.
+     * @param queries the queries
+     * @param scratch creates the scratch of a thread
+     * @param query answers a query with the scratch of its thread
+     * @param <S> type of the scratch
+     * @param <T> type of the queries
+     * @param <R> type of the answers
+     * @return the answers in the order of the queries
+     */
+    static <S, T, R> List<R> run(Collection<T> queries, Supplier<S> scratch, BiFunction<S, T, R> query) {
+        List<T> indexed = queries instanceof RandomAccess ? (List<T>) queries : new ArrayList<>(queries);
+        Object[] answers = new Object[indexed.size()];
+        int parts = ForkJoinPool.getCommonPoolParallelism() * PARTS_PER_WORKER;
+        int threshold = Math.max(1, indexed.size() / parts);
+        // the scratches are dropped with the batch, a thread local would keep them until it is cleaned up
+        Map<Thread, S> scratches = new ConcurrentHashMap<>();
+        ForkJoinPool.commonPool().invoke(new BatchQuery<>(indexed, answers, scratch, scratches, query, threshold, 0,
+                answers.length));
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) new ArrayList<>(Arrays.asList(answers));
+        return list;
+    }
+
+    /**
+     * Answers all queries of a batch that need no scratch.
+     * @param queries the queries
+     * @param query answers a query
+     * @param <T> type of the queries
+     * @param <R> type of the answers
+     * @return the answers in the order of the queries
+     */
+    static <T, R> List<R> run(Collection<T> queries, Function<T, R> query) {
+        return run(queries, () -> null, (none, single) -> query.apply(single));
+    }
+
+    @Override
+    protected void compute() {
+        if (end - start <= threshold) {
+            S buffers = scratches.computeIfAbsent(Thread.currentThread(), thread -> scratch.get());
+            for (int i = start; i < end; i++) {
+                answers[i] = query.apply(buffers, queries.get(i));
+            }
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        invokeAll(new BatchQuery<>(queries, answers, scratch, scratches, query, threshold, start, middle),
+                new BatchQuery<>(queries, answers, scratch, scratches, query, threshold, middle, end));
+    }
+}
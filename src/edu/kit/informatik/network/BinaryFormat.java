@@ -0,0 +1,319 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * The class BinaryFormat reads and writes the tree topology´s of a network in a compact binary format.
+ * A file starts with a header (magic number, version, number of nodes, number of neighbour entries and the
+ * fingerprint of the edges), followed by the sorted packed IP´s of all nodes and the neighbours in compressed
+ * sparse row form: an offset for every node and the indices of the neighbours, sorted as well.
+ * All values are big endian ints, the index of a node is the position of its IP.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class BinaryFormat {
+
+    /**
+     * The first four bytes of a file, "PNET".
+     */
+    static final int MAGIC = 0x504E4554;
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 1;
+    /**
+     * Size of the header in bytes.
+     */
+    static final int HEADER_BYTES = 4 * Integer.BYTES + Long.BYTES;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String CORRUPT = "corrupt network file";
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long offset;
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Writes a topology to a channel.
+     * @param topology topology to write
+     * @param channel target of the file
+     * @throws IOException if the channel fails
+     */
+    static void write(TopologyView topology, WritableByteChannel channel) throws IOException {
+        int bound = topology.bound();
+        long[] keys = new long[topology.size()];
+        int size = 0;
+        for (int id = 0; id < bound; id++) {
+            if (topology.isNode(id)) {
+                // the flipped sign bit lets the signed sort follow the unsigned order of the IP´s
+                keys[size++] = ((long) (topology.packed(id) ^ Integer.MIN_VALUE) << Integer.SIZE) | id;
+            }
+        }
+        Arrays.sort(keys);
+        int[] index = new int[bound];
+        int entries = 0;
+        for (int i = 0; i < size; i++) {
+            index[(int) keys[i]] = i;
+            entries += topology.degree((int) keys[i]);
+        }
+        BinaryFormat format = new BinaryFormat();
+        format.buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(entries).putLong(topology.fingerprint());
+        for (int i = 0; i < size; i++) {
+            format.put(channel, topology.packed((int) keys[i]));
+        }
+        int sum = 0;
+        format.put(channel, sum);
+        for (int i = 0; i < size; i++) {
+            sum += topology.degree((int) keys[i]);
+            format.put(channel, sum);
+        }
+        for (int i = 0; i < size; i++) {
+            int id = (int) keys[i];
+            for (int k = 0; k < topology.degree(id); k++) {
+                format.put(channel, index[topology.neighbour(id, k)]);
+            }
+        }
+        format.flush(channel);
+    }
+
+    /**
+     * Reads a file into a new topology and checks that it is a valid tree topology.
+     * Like every network it has at least two nodes and no node without an edge.
+     * @param channel source of the file
+     * @return the network
+     * @throws ParseException if the file is not valid
+     * @throws IOException if the channel fails
+     */
+    static Network read(ReadableByteChannel channel) throws ParseException, IOException {
+        BinaryFormat format = new BinaryFormat();
+        format.buffer.limit(0);
+        int size = format.header(channel);
+        if (size < 2) {
+            throw format.corrupt();
+        }
+        int entries = format.next(channel);
+        long fingerprint = format.nextLong(channel);
+        Topology topology = new Topology();
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            int packed = format.next(channel);
+            if (i > 0 && Integer.compareUnsigned(previous, packed) >= 0) {
+                throw format.corrupt();
+            }
+            topology.add(packed);
+            previous = packed;
+        }
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i <= size; i++) {
+            offsets[i] = format.next(channel);
+            // a node without a neighbour would have been removed by the network
+            if (i == 0 ? offsets[i] != 0 : offsets[i] <= offsets[i - 1]) {
+                throw format.corrupt();
+            }
+        }
+        if (offsets[size] != entries) {
+            throw format.corrupt();
+        }
+        Connectivity connectivity = new Connectivity(topology);
+        for (int id = 0; id < size; id++) {
+            int neighbour = Topology.NO_NODE;
+            for (int k = 0; k < offsets[id + 1] - offsets[id]; k++) {
+                int next = format.next(channel);
+                if (next <= neighbour || next >= size || next == id) {
+                    throw format.corrupt();
+                }
+                neighbour = next;
+                // smaller neighbours were appended by themselves, in the same order
+                if (neighbour < id) {
+                    if (k >= topology.degree(id) || topology.neighbour(id, k) != neighbour) {
+                        throw format.corrupt();
+                    }
+                } else if (k != topology.degree(id) || !connectivity.union(id, neighbour)) {
+                    throw format.corrupt();
+                } else {
+                    topology.append(id, neighbour);
+                }
+            }
+            if (topology.degree(id) != offsets[id + 1] - offsets[id]) {
+                throw format.corrupt();
+            }
+        }
+        if (topology.fingerprint() != fingerprint) {
+            throw format.corrupt();
+        }
+        return new Network(topology, connectivity);
+    }
+
+    /**
+     * Maps a file into memory, the nodes are read straight from the mapped file.
+     * Without a check only the header and the size of the file are checked, a damaged file can then make
+     * the queries fail, loop until the memory is exhausted or give wrong answers.
+     * @param channel source of the file
+     * @param check if the nodes and edges are checked as well, which costs O(n) once
+     * @return the mapped topology
+     * @throws ParseException if the file is not valid
+     * @throws IOException if the channel fails or the file is too large to be mapped
+     */
+    static MappedTopology map(FileChannel channel, boolean check) throws ParseException, IOException {
+        BinaryFormat format = new BinaryFormat();
+        format.buffer.limit(0);
+        int size = format.header(channel);
+        int entries = format.next(channel);
+        long fingerprint = format.nextLong(channel);
+        long position = HEADER_BYTES;
+        long expected = position + ((long) size + size + 1 + entries) * Integer.BYTES;
+        if (channel.size() != expected || entries < 0) {
+            throw new ParseException(CORRUPT, channel.size());
+        }
+        IntBuffer addresses = section(channel, position, size);
+        position += (long) size * Integer.BYTES;
+        IntBuffer offsets = section(channel, position, size + 1);
+        position += (long) (size + 1) * Integer.BYTES;
+        IntBuffer neighbours = section(channel, position, entries);
+        if (check) {
+            check(addresses, offsets, neighbours, size, fingerprint);
+        }
+        return new MappedTopology(addresses, offsets, neighbours, size, fingerprint);
+    }
+
+    /**
+     * Checks the mapped sections the same way {@link #read(ReadableByteChannel)} checks a file.
+     */
+    private static void check(IntBuffer addresses, IntBuffer offsets, IntBuffer neighbours, int size,
+                              long fingerprint) throws ParseException {
+        long offsetsStart = HEADER_BYTES + (long) size * Integer.BYTES;
+        long neighboursStart = offsetsStart + (long) (size + 1) * Integer.BYTES;
+        if (size < 2) {
+            throw new ParseException(CORRUPT, 2 * Integer.BYTES);
+        }
+        for (int i = 1; i < size; i++) {
+            if (Integer.compareUnsigned(addresses.get(i - 1), addresses.get(i)) >= 0) {
+                throw new ParseException(CORRUPT, HEADER_BYTES + (long) i * Integer.BYTES);
+            }
+        }
+        for (int i = 0; i <= size; i++) {
+            if (i == 0 ? offsets.get(i) != 0 : offsets.get(i) <= offsets.get(i - 1)) {
+                throw new ParseException(CORRUPT, offsetsStart + (long) i * Integer.BYTES);
+            }
+        }
+        if (offsets.get(size) != neighbours.capacity()) {
+            throw new ParseException(CORRUPT, offsetsStart + (long) size * Integer.BYTES);
+        }
+        Connectivity connectivity = new Connectivity(new Topology());
+        for (int id = 0; id < size; id++) {
+            connectivity.makeSet(id);
+        }
+        // number of smaller neighbours of every node that already listed the node
+        int[] matched = new int[size];
+        long sum = 0;
+        for (int id = 0; id < size; id++) {
+            int first = offsets.get(id);
+            int degree = offsets.get(id + 1) - first;
+            int neighbour = Topology.NO_NODE;
+            int smaller = 0;
+            for (int k = 0; k < degree; k++) {
+                int next = neighbours.get(first + k);
+                long position = neighboursStart + (long) (first + k) * Integer.BYTES;
+                if (next <= neighbour || next >= size || next == id) {
+                    throw new ParseException(CORRUPT, position);
+                }
+                neighbour = next;
+                if (neighbour < id) {
+                    smaller++;
+                    continue;
+                }
+                // the larger neighbour has to list this node right after its other smaller neighbours
+                int back = matched[neighbour];
+                if (back >= offsets.get(neighbour + 1) - offsets.get(neighbour)
+                    || neighbours.get(offsets.get(neighbour) + back) != id || !connectivity.union(id, neighbour)) {
+                    throw new ParseException(CORRUPT, position);
+                }
+                matched[neighbour]++;
+                sum += Topology.edgeHashOf(addresses.get(id), addresses.get(neighbour));
+            }
+            if (smaller != matched[id]) {
+                throw new ParseException(CORRUPT, neighboursStart + (long) first * Integer.BYTES);
+            }
+        }
+        if (sum != fingerprint) {
+            throw new ParseException(CORRUPT, 4 * Integer.BYTES);
+        }
+    }
+
+    private static IntBuffer section(FileChannel channel, long position, int length) throws IOException {
+        long bytes = (long) length * Integer.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("the network file is too large to be mapped");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, bytes).asIntBuffer();
+    }
+
+    private int header(ReadableByteChannel channel) throws ParseException, IOException {
+        if (next(channel) != MAGIC) {
+            throw new ParseException("not a network file", 0);
+        }
+        if (next(channel) != VERSION) {
+            throw new ParseException("unknown version of the network file", Integer.BYTES);
+        }
+        int size = next(channel);
+        if (size < 0) {
+            throw corrupt();
+        }
+        return size;
+    }
+
+    private ParseException corrupt() {
+        return new ParseException(CORRUPT, offset - Integer.BYTES);
+    }
+
+    private void put(WritableByteChannel channel, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flush(channel);
+        }
+        buffer.putInt(value);
+    }
+
+    private void flush(WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private int next(ReadableByteChannel channel) throws ParseException, IOException {
+        fill(channel, Integer.BYTES);
+        offset += Integer.BYTES;
+        return buffer.getInt();
+    }
+
+    private long nextLong(ReadableByteChannel channel) throws ParseException, IOException {
+        fill(channel, Long.BYTES);
+        offset += Long.BYTES;
+        return buffer.getLong();
+    }
+
+    private void fill(ReadableByteChannel channel, int bytes) throws ParseException, IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new ParseException("unexpected end of the network file", offset);
+            }
+        }
+        buffer.flip();
+    }
+}
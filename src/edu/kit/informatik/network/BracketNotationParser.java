@@ -0,0 +1,137 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * The class BracketNotationParser reads a tree in bracket notation from a stream in a single pass.
+ * Only a fixed size buffer of the input is held in memory, the tree is build with an explicit stack
+ * of the currently open subtrees.
+ * Errors are reported with the offset of the char where they occur.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class BracketNotationParser {
+
+    private static final int BUFFER_SIZE = 1 << 13;
+    private static final int LONGEST_IP = 15;
+    private static final int INITIAL_DEPTH = 16;
+    private static final int END = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char[] token = new char[LONGEST_IP];
+    private final CharBuffer tokenView = CharBuffer.wrap(token);
+    private int position;
+    private int limit;
+    private long offset = -1;
+    private int[] stack = new int[INITIAL_DEPTH];
+    private int depth;
+
+    private BracketNotationParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads a tree in bracket notation.
+     * @param reader source of the bracket notation
+     * @return the topology of the tree
+     * @throws ParseException if the input was not correct
+     * @throws IOException if the reader fails
+     */
+    static Topology parse(Reader reader) throws ParseException, IOException {
+        return new BracketNotationParser(reader).parse();
+    }
+
+    private Topology parse() throws ParseException, IOException {
+
+        Topology topology = new Topology();
+        int c = read();
+        if (c != '(') {
+            throw new ParseException("no existing brackets", offset);
+        }
+        while (true) {
+            boolean opening = c == '(';
+            if (opening) {
+                c = read();
+            }
+            long start = offset;
+            int length = 0;
+            while (c != ' ' && c != '(' && c != ')' && c != END) {
+                if (length == LONGEST_IP) {
+                    throw new ParseException("IP is too long", offset);
+                }
+                token[length++] = (char) c;
+                c = read();
+            }
+            int ip = parseIp(length, start);
+            if (topology.idOf(ip) != Topology.NO_NODE) {
+                throw new ParseException(Network.ILLEGAL_TREE_TOPOLOGY, start);
+            }
+            int id = topology.add(ip);
+            if (depth > 0) {
+                topology.append(stack[depth - 1], id);
+            }
+            if (opening) {
+                if (c != ' ') {
+                    throw new ParseException("a subtree needs at least one child", offset);
+                }
+                push(id);
+            }
+            while (c == ')') {
+                if (depth == 0) {
+                    throw new ParseException("Number of Opened and Closed Brackets are not equal", offset);
+                }
+                depth--;
+                c = read();
+            }
+            if (depth == 0) {
+                if (c != END) {
+                    throw new ParseException("unexpected input after the tree", offset);
+                }
+                break;
+            }
+            if (c != ' ') {
+                throw new ParseException(c == END ? "Number of Opened and Closed Brackets are not equal"
+                        : "unexpected bracket", offset);
+            }
+            c = read();
+        }
+        topology.sortNeighbours();
+        return topology;
+    }
+
+    private int parseIp(int length, long start) throws ParseException {
+        try {
+            return IP.parse(tokenView, 0, length);
+        } catch (ParseException e) {
+            throw new ParseException(e.getMessage(), start);
+        }
+    }
+
+    private void push(int id) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = id;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                offset++;
+                return END;
+            }
+        }
+        offset++;
+        return buffer[position++];
+    }
+}
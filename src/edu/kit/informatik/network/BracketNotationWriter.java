@@ -0,0 +1,183 @@
+package edu.kit.informatik.network;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * The class BracketNotationWriter writes a tree in bracket notation to a stream.
+ * The tree is walked with an explicit stack (DFS) and the output is collected in a fixed size buffer
+ * that is flushed whenever it is full, so the whole notation is never held in memory.
+ * Every char is written exactly once, in its final position.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class BracketNotationWriter {
+
+    private static final int BUFFER_SIZE = 1 << 13;
+    private static final int INITIAL_DEPTH = 16;
+    // an IP together with the space before and the bracket after it
+    private static final int LONGEST_TOKEN = IP.LONGEST_NOTATION + 2;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final Appendable appendable;
+    private final WritableByteChannel channel;
+    private char[] chars;
+    private int length;
+
+    private BracketNotationWriter(Appendable appendable, WritableByteChannel channel) {
+        this.appendable = appendable;
+        this.channel = channel;
+    }
+
+    /**
+     * Writes the tree of a root to an Appendable, Writers and StringBuilders are written in blocks.
+     * @param topology the topology
+     * @param root id of the root
+     * @param out target of the bracket notation
+     * @return the number of written nodes
+     * @throws IOException if the target fails
+     */
+    static int write(TopologyView topology, int root, Appendable out) throws IOException {
+        return new BracketNotationWriter(out, null).write(topology, root, Topology.NO_NODE);
+    }
+
+    /**
+     * Writes the subtree of a node below its parent, the way it appears inside the tree of a root:
+     * a space followed by the IP of a leaf or by the bracket notation of the subtree.
+     * @param topology the topology
+     * @param node id of the node
+     * @param parent id of the parent, its side of the tree is not written
+     * @param out target of the subtree
+     * @return the number of written nodes
+     * @throws IOException if the target fails
+     */
+    static int writeSubtree(TopologyView topology, int node, int parent, Appendable out) throws IOException {
+        return new BracketNotationWriter(out, null).write(topology, node, parent);
+    }
+
+    /**
+     * Writes the tree of a root as ASCII bytes to a channel.
+     * @param topology the topology
+     * @param root id of the root
+     * @param out target of the bracket notation
+     * @return the number of written nodes
+     * @throws IOException if the target fails
+     */
+    static int write(TopologyView topology, int root, WritableByteChannel out) throws IOException {
+        return new BracketNotationWriter(null, out).write(topology, root, Topology.NO_NODE);
+    }
+
+    /**
+     * Builds a tree into the bracketnotation. (based on DFS algorithm with an explicit stack)
+     * Every frame of the stack is a subtree that is still open, together with the next neighbour to visit.
+     * @param topology the topology
+     * @param root root of the tree
+     * @param parent parent of the root if only its subtree is written, otherwise {@link Topology#NO_NODE}
+     * @return the number of written nodes
+     * @throws IOException if the target fails
+     */
+    private int write(TopologyView topology, int root, int parent) throws IOException {
+        int written = 1;
+        if (parent != Topology.NO_NODE && topology.degree(root) == 1) {
+            leaf(topology.packed(root));
+            flush();
+            return written;
+        }
+        int[] nodes = new int[INITIAL_DEPTH];
+        int[] parents = new int[INITIAL_DEPTH];
+        int[] next = new int[INITIAL_DEPTH];
+        int depth = 0;
+        open(topology.packed(root), parent != Topology.NO_NODE);
+        nodes[depth] = root;
+        parents[depth] = parent;
+        next[depth++] = 0;
+        while (depth > 0) {
+            int top = depth - 1;
+            int node = nodes[top];
+            int index = next[top];
+            while (index < topology.degree(node) && topology.neighbour(node, index) == parents[top]) {
+                index++;
+            }
+            if (index == topology.degree(node)) {
+                put(')');
+                depth--;
+                continue;
+            }
+            next[top] = index + 1;
+            int child = topology.neighbour(node, index);
+            written++;
+            if (topology.degree(child) == 1) {
+                leaf(topology.packed(child));
+                continue;
+            }
+            open(topology.packed(child), true);
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                parents = Arrays.copyOf(parents, depth * 2);
+                next = Arrays.copyOf(next, depth * 2);
+            }
+            nodes[depth] = child;
+            parents[depth] = node;
+            next[depth++] = 0;
+        }
+        flush();
+        return written;
+    }
+
+    private void open(int packed, boolean space) throws IOException {
+        reserve();
+        if (space) {
+            buffer[length++] = ' ';
+        }
+        buffer[length++] = '(';
+        length = IP.format(packed, buffer, length);
+    }
+
+    private void leaf(int packed) throws IOException {
+        reserve();
+        buffer[length++] = ' ';
+        length = IP.format(packed, buffer, length);
+    }
+
+    private void put(char c) throws IOException {
+        if (length == BUFFER_SIZE) {
+            flush();
+        }
+        buffer[length++] = (byte) c;
+    }
+
+    private void reserve() throws IOException {
+        if (length + LONGEST_TOKEN > BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (channel != null) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, length);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } else {
+            if (chars == null) {
+                chars = new char[BUFFER_SIZE];
+            }
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) buffer[i];
+            }
+            if (appendable instanceof Writer) {
+                ((Writer) appendable).write(chars, 0, length);
+            } else if (appendable instanceof StringBuilder) {
+                ((StringBuilder) appendable).append(chars, 0, length);
+            } else {
+                appendable.append(CharBuffer.wrap(chars, 0, length));
+            }
+        }
+        length = 0;
+    }
+}
@@ -0,0 +1,288 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class ConcurrentNetwork is a network that can be used by many threads at once.
+ * Every version of the network is a frozen {@link Network}. Readers query the current version without any lock,
+ * writers change a private network one after another and publish the new version atomically.
+ * A new version shares everything but the changed pages with the version before (see {@link Network#snapshot()}).
+ * So every query sees one complete version and the rules for a tree topology hold in every version.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public class ConcurrentNetwork {
+
+    private final Object writeLock = new Object();
+    private final Network network;
+    private volatile Network current;
+
+    /**
+     * Creates a new concurrent network with a root and its children.
+     *
+     * @param root     root of the tree
+     * @param children children of the root
+     */
+    public ConcurrentNetwork(final IP root, final List<IP> children) {
+        this.network = new Network(root, children);
+        this.current = network.snapshot();
+    }
+
+    /**
+     * Creates a new concurrent network from the bracket notation.
+     *
+     * @param bracketNotation Network as bracket Notation
+     * @throws ParseException when the input was not correct
+     */
+    public ConcurrentNetwork(final String bracketNotation) throws ParseException {
+        this.network = new Network(bracketNotation);
+        this.current = network.snapshot();
+    }
+
+    /**
+     * Creates a new concurrent network and reads the bracket notation from a stream.
+     *
+     * @param bracketNotation source of the Network as bracket Notation
+     * @throws ParseException when the input was not correct, the offset of the error is reported
+     * @throws IOException when the input could not be read
+     */
+    public ConcurrentNetwork(final Reader bracketNotation) throws ParseException, IOException {
+        this.network = new Network(bracketNotation);
+        this.current = network.snapshot();
+    }
+
+    /**
+     * Returns the current version of the network. The version is frozen and never changes,
+     * so several queries on it give consistent answers while other threads change the network.
+     *
+     * @return the current version
+     */
+    public Network snapshot() {
+        return current;
+    }
+
+    /**
+     * Add´s the tree topology of a given network, see {@link Network#add(Network)}.
+     *
+     * @param subnet Network input
+     * @return boolean if the add was successful or not
+     */
+    public boolean add(final Network subnet) {
+        synchronized (writeLock) {
+            return publish(network.add(subnet));
+        }
+    }
+
+    /**
+     * Add´s the tree topology´s of all given networks in a single transaction, see {@link Network#addAll(Collection)}.
+     *
+     * @param subnets Network inputs
+     * @return boolean if the network was changed
+     */
+    public boolean addAll(final Collection<Network> subnets) {
+        synchronized (writeLock) {
+            return publish(network.addAll(subnets));
+        }
+    }
+
+    /**
+     * Creates an edge between ip1 and ip2 if there isn´t already a Path existing.
+     *
+     * @param ip1 ip input 1
+     * @param ip2 ip input 2
+     * @return boolean if the connection was successful or not
+     */
+    public boolean connect(final IP ip1, final IP ip2) {
+        synchronized (writeLock) {
+            return publish(network.connect(ip1, ip2));
+        }
+    }
+
+    /**
+     * Disconnects an edge between ip1 and ip2 if the edge exists and if it's not the last edge.
+     *
+     * @param ip1 input ip 1
+     * @param ip2 input ip 2
+     * @return boolean if the disconnect was successful or not
+     */
+    public boolean disconnect(final IP ip1, final IP ip2) {
+        synchronized (writeLock) {
+            return publish(network.disconnect(ip1, ip2));
+        }
+    }
+
+    /**
+     * Returns a list of all nodes of the current version.
+     * @return a list of all nodes existing in the tree topology
+     */
+    public List<IP> list() {
+        return current.list();
+    }
+
+    /**
+     * Returns the nodes of the current version inside a range of IP´s given in the CIDR notation.
+     * @param prefix first IP of the range, the bits after the prefix length are ignored
+     * @param length prefix length from 0 to 32
+     * @return a sorted unmodifiable list of the nodes inside the range
+     * @throws IllegalArgumentException if the prefix is null or the length is not between 0 and 32
+     */
+    public List<IP> list(final IP prefix, final int length) {
+        return current.list(prefix, length);
+    }
+
+    /**
+     * Returns the number of nodes of the current version inside a range of IP´s given in the CIDR notation.
+     * @param prefix first IP of the range, the bits after the prefix length are ignored
+     * @param length prefix length from 0 to 32
+     * @return the number of nodes inside the range
+     * @throws IllegalArgumentException if the prefix is null or the length is not between 0 and 32
+     */
+    public int count(final IP prefix, final int length) {
+        return current.count(prefix, length);
+    }
+
+    /**
+     * Returns if the ip exists in the current version.
+     * @param ip ip input
+     * @return if the ip input exists in the tree Topology
+     */
+    public boolean contains(final IP ip) {
+        return current.contains(ip);
+    }
+
+    /**
+     * Returns the hight of the tree from a given root in the current version.
+     * @param root IP
+     * @return the hight of the Tree
+     */
+    public int getHeight(final IP root) {
+        return current.getHeight(root);
+    }
+
+    /**
+     * Returns the hight of the tree for every IP as root in the current version.
+     * @return the hight for every IP of the network
+     */
+    public Map<IP, Integer> heights() {
+        return current.heights();
+    }
+
+    /**
+     * Returns the hight of the tree for every given IP as root in the current version, in parallel.
+     * @param roots IP´s
+     * @return the hights in the order of the roots
+     */
+    public List<Integer> heights(final Collection<IP> roots) {
+        return current.heights(roots);
+    }
+
+    /**
+     * Returns the length of the longest route in the current version.
+     * @return the diameter
+     */
+    public int diameter() {
+        return current.diameter();
+    }
+
+    /**
+     * Returns the centers of all trees in the current version.
+     * @return sorted list of the centers
+     */
+    public List<IP> centers() {
+        return current.centers();
+    }
+
+    /**
+     * Returns the levels of the tree from a given root in the current version.
+     * @param root IP
+     * @return List of Lists of IP´s
+     */
+    public List<List<IP>> getLevels(final IP root) {
+        return current.getLevels(root);
+    }
+
+    /**
+     * Returns the levels of the tree for every given IP as root in the current version, in parallel.
+     * @param roots IP´s
+     * @return the levels in the order of the roots
+     */
+    public List<List<List<IP>>> levels(final Collection<IP> roots) {
+        return current.levels(roots);
+    }
+
+    /**
+     * Returns the route from a start IP to an end IP in the current version.
+     * @param start route start IP
+     * @param end   route end IP
+     * @return the Route as List
+     */
+    public List<IP> getRoute(final IP start, final IP end) {
+        return current.getRoute(start, end);
+    }
+
+    /**
+     * Returns the routes between many pairs of IP´s in the current version, in parallel.
+     * @param pairs start and end IP of every route
+     * @return the routes in the order of the pairs
+     */
+    public List<List<IP>> routes(final List<IP[]> pairs) {
+        return current.routes(pairs);
+    }
+
+    /**
+     * Returns how the tree of the current version would be split by disconnecting an edge.
+     * @param ip1 input ip 1
+     * @param ip2 input ip 2
+     * @return the impact or null if there is no edge between the IP´s
+     */
+    public EdgeImpact impactOf(final IP ip1, final IP ip2) {
+        return current.impactOf(ip1, ip2);
+    }
+
+    /**
+     * Returns the edges of the current version that would cut off the most IP´s.
+     * @param count maximal number of edges
+     * @return the most critical edges, starting with the most critical one
+     */
+    public List<EdgeImpact> criticalEdges(final int count) {
+        return current.criticalEdges(count);
+    }
+
+    /**
+     * Returns the number of edges on the route from a start IP to an end IP in the current version.
+     * @param start route start IP
+     * @param end   route end IP
+     * @return the distance or -1 if there is no route
+     */
+    public int distance(final IP start, final IP end) {
+        return current.distance(start, end);
+    }
+
+    /**
+     * Returns the current version as bracket notation from the given IP as root.
+     * @param root IP
+     * @return Bracketnotaion as string
+     */
+    public String toString(final IP root) {
+        return current.toString(root);
+    }
+
+    /**
+     * Publishes a new version if the network was changed.
+     * @param changed if the network was changed
+     * @return if the network was changed
+     */
+    private boolean publish(boolean changed) {
+        if (changed) {
+            current = network.snapshot();
+        }
+        return changed;
+    }
+}
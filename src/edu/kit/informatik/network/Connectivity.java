@@ -0,0 +1,143 @@
+package edu.kit.informatik.network;
+
+import java.util.Arrays;
+
+/**
+ * The class Connectivity is an index of the connected components of a topology.
+ * It is a disjoint set structure with path compression and union by rank, so the question
+ * if two nodes are already connected is answered in nearly constant time.
+ * Because a disjoint set can not be split, removing an edge rebuilds the affected component.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class Connectivity {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] parent;
+    private byte[] rank;
+
+    /**
+     * Creates the index for all nodes and edges of a topology.
+     * @param topology topology to index
+     */
+    Connectivity(TopologyView topology) {
+        int capacity = Math.max(INITIAL_CAPACITY, topology.bound());
+        this.parent = new int[capacity];
+        this.rank = new byte[capacity];
+        for (int id = 0; id < topology.bound(); id++) {
+            this.parent[id] = id;
+        }
+        for (int id = 0; id < topology.bound(); id++) {
+            if (!topology.isNode(id)) {
+                continue;
+            }
+            for (int i = 0; i < topology.degree(id); i++) {
+                union(id, topology.neighbour(id, i));
+            }
+        }
+    }
+
+    /**
+     * Adds a node as its own component.
+     * @param id id of the new node
+     */
+    void makeSet(int id) {
+        if (id >= this.parent.length) {
+            int capacity = Math.max(id + 1, this.parent.length * 2);
+            this.parent = Arrays.copyOf(this.parent, capacity);
+            this.rank = Arrays.copyOf(this.rank, capacity);
+        }
+        this.parent[id] = id;
+        this.rank[id] = 0;
+    }
+
+    /**
+     * Returns the representative of the component of a node.
+     * @param id node id
+     * @return the representative
+     */
+    int find(int id) {
+        int root = id;
+        while (this.parent[root] != root) {
+            root = this.parent[root];
+        }
+        while (this.parent[id] != root) {
+            int next = this.parent[id];
+            this.parent[id] = root;
+            id = next;
+        }
+        return root;
+    }
+
+    /**
+     * Returns if two nodes are in the same component.
+     * @param id1 first node
+     * @param id2 second node
+     * @return if there is a path between the nodes
+     */
+    boolean connected(int id1, int id2) {
+        return find(id1) == find(id2);
+    }
+
+    /**
+     * Merges the components of two nodes.
+     * @param id1 first node
+     * @param id2 second node
+     * @return false if the nodes were already in the same component
+     */
+    boolean union(int id1, int id2) {
+        int root1 = find(id1);
+        int root2 = find(id2);
+        if (root1 == root2) {
+            return false;
+        }
+        if (this.rank[root1] < this.rank[root2]) {
+            this.parent[root1] = root2;
+        } else if (this.rank[root1] > this.rank[root2]) {
+            this.parent[root2] = root1;
+        } else {
+            this.parent[root2] = root1;
+            this.rank[root1]++;
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the component of a node after an edge of it was removed.
+     * All nodes of the former component have to be rebuild, the nodes of the
+     * other components are not touched.
+     * @param topology the changed topology
+     * @param id node of the component
+     * @return the number of nodes in the rebuild component
+     */
+    int rebuild(Topology topology, int id) {
+        int[] queue = new int[INITIAL_CAPACITY];
+        int[] from = new int[INITIAL_CAPACITY];
+        int head = 0;
+        int tail = 1;
+        queue[0] = id;
+        from[0] = Topology.NO_NODE;
+        this.rank[id] = 0;
+        while (head < tail) {
+            int node = queue[head];
+            int previous = from[head++];
+            this.parent[node] = id;
+            for (int i = 0; i < topology.degree(node); i++) {
+                int next = topology.neighbour(node, i);
+                if (next == previous) {
+                    continue;
+                }
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, tail * 2);
+                    from = Arrays.copyOf(from, tail * 2);
+                }
+                queue[tail] = next;
+                from[tail++] = node;
+                this.rank[id] = 1;
+            }
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,135 @@
+package edu.kit.informatik.network;
+
+/**
+ * The class Eccentricities computes the height of the tree for every node as root in linear time.
+ * Every tree is rooted once, the two highest subtrees below each node are computed bottom up and the
+ * longest path leaving each node upwards is computed top down (rerooting).
+ * The height from a node is the maximum of both.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class Eccentricities {
+
+    private final int[] eccentricity;
+    private final int diameter;
+    private final int[] centers;
+    private final int centerCount;
+
+    /**
+     * Computes the eccentricities of all nodes of a topology.
+     * @param topology topology to analyse
+     */
+    Eccentricities(TopologyView topology) {
+        int bound = topology.bound();
+        int[] order = new int[bound];
+        int[] parent = new int[bound];
+        int[] down1 = new int[bound];
+        int[] down2 = new int[bound];
+        int[] best = new int[bound];
+        int[] up = new int[bound];
+        boolean[] visited = new boolean[bound];
+        this.eccentricity = new int[bound];
+        this.centers = new int[bound];
+        int longest = 0;
+        int count = 0;
+        int end = 0;
+        for (int root = 0; root < bound; root++) {
+            if (!topology.isNode(root) || visited[root]) {
+                continue;
+            }
+            int start = end;
+            end = bfs(topology, root, order, parent, visited, start);
+            for (int i = end - 1; i >= start; i--) {
+                int node = order[i];
+                best[node] = Topology.NO_NODE;
+                for (int k = 0; k < topology.degree(node); k++) {
+                    int child = topology.neighbour(node, k);
+                    if (child == parent[node]) {
+                        continue;
+                    }
+                    int height = down1[child] + 1;
+                    if (best[node] == Topology.NO_NODE || height > down1[node]) {
+                        down2[node] = down1[node];
+                        down1[node] = height;
+                        best[node] = child;
+                    } else if (height > down2[node]) {
+                        down2[node] = height;
+                    }
+                }
+            }
+            int minimum = Integer.MAX_VALUE;
+            for (int i = start; i < end; i++) {
+                int node = order[i];
+                if (node != root) {
+                    int p = parent[node];
+                    up[node] = 1 + Math.max(up[p], best[p] == node ? down2[p] : down1[p]);
+                }
+                eccentricity[node] = Math.max(down1[node], up[node]);
+                longest = Math.max(longest, down1[node] + down2[node]);
+                minimum = Math.min(minimum, eccentricity[node]);
+            }
+            for (int i = start; i < end; i++) {
+                if (eccentricity[order[i]] == minimum) {
+                    centers[count++] = order[i];
+                }
+            }
+        }
+        this.diameter = longest;
+        this.centerCount = count;
+    }
+
+    private static int bfs(TopologyView topology, int root, int[] order, int[] parent, boolean[] visited, int start) {
+        int head = start;
+        int tail = start;
+        order[tail++] = root;
+        parent[root] = Topology.NO_NODE;
+        visited[root] = true;
+        while (head < tail) {
+            int node = order[head++];
+            for (int i = 0; i < topology.degree(node); i++) {
+                int child = topology.neighbour(node, i);
+                if (!visited[child]) {
+                    visited[child] = true;
+                    parent[child] = node;
+                    order[tail++] = child;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Returns the height of the tree with a node as root.
+     * @param id node id
+     * @return the eccentricity of the node
+     */
+    int of(int id) {
+        return eccentricity[id];
+    }
+
+    /**
+     * Returns the longest route of all trees, counted in edges.
+     * @return the diameter
+     */
+    int diameter() {
+        return diameter;
+    }
+
+    /**
+     * Returns the number of centers of all trees.
+     * @return number of centers
+     */
+    int centerCount() {
+        return centerCount;
+    }
+
+    /**
+     * Returns a center of a tree. Every tree has one or two centers.
+     * @param index index of the center
+     * @return node id of the center
+     */
+    int center(int index) {
+        return centers[index];
+    }
+}
@@ -0,0 +1,93 @@
+package edu.kit.informatik.network;
+
+/**
+ * The class Edge models an undirected connection between two IP´s.
+ * The smaller IP is always the first one, so two edges between the same IP´s are equal.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class Edge implements Comparable<Edge> {
+
+    private final IP first;
+    private final IP second;
+
+    /**
+     * Creates a new edge between two different IP´s.
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @throws IllegalArgumentException if an IP is null or both IP´s are the same
+     */
+    public Edge(final IP ip1, final IP ip2) {
+        if (ip1 == null || ip2 == null || ip1.equals(ip2)) {
+            throw new IllegalArgumentException("an edge needs two different IP´s");
+        }
+        if (ip1.compareTo(ip2) < 0) {
+            this.first = ip1;
+            this.second = ip2;
+        } else {
+            this.first = ip2;
+            this.second = ip1;
+        }
+    }
+
+    /**
+     * Returns a key for the edge between two packed IP´s that does not depend on their order.
+     * The smaller IP is in the upper half of the key.
+     * @param packed1 first packed IP
+     * @param packed2 second packed IP
+     * @return the key
+     */
+    static long key(int packed1, int packed2) {
+        return Integer.compareUnsigned(packed1, packed2) < 0
+                ? (long) packed1 << Integer.SIZE | Integer.toUnsignedLong(packed2)
+                : (long) packed2 << Integer.SIZE | Integer.toUnsignedLong(packed1);
+    }
+
+    /**
+     * Returns the smaller IP of the edge.
+     * @return the first IP
+     */
+    public IP getFirst() {
+        return first;
+    }
+
+    /**
+     * Returns the bigger IP of the edge.
+     * @return the second IP
+     */
+    public IP getSecond() {
+        return second;
+    }
+
+    @Override
+    public int compareTo(Edge o) {
+        int comparison = first.compareTo(o.first);
+        return comparison != 0 ? comparison : second.compareTo(o.second);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Edge edge = (Edge) o;
+        return first.equals(edge.first) && second.equals(edge.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * first.hashCode() + second.hashCode();
+    }
+
+    /**
+     * Returns the edge as bracket notation.
+     * @return the edge as string
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        first.appendTo(sb.append('('));
+        second.appendTo(sb.append(' '));
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,68 @@
+package edu.kit.informatik.network;
+
+/**
+ * The class EdgeImpact holds how a tree would be split by disconnecting an edge
+ * (see {@link Network#impactOf(IP, IP)}), the number of IP´s that would stay on the side of each end.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class EdgeImpact {
+
+    private final Edge edge;
+    private final int firstSide;
+    private final int secondSide;
+
+    /**
+     * Creates a new impact.
+     * @param edge the edge
+     * @param firstSide number of IP´s on the side of the first IP
+     * @param secondSide number of IP´s on the side of the second IP
+     */
+    EdgeImpact(Edge edge, int firstSide, int secondSide) {
+        this.edge = edge;
+        this.firstSide = firstSide;
+        this.secondSide = secondSide;
+    }
+
+    /**
+     * Returns the edge.
+     * @return the edge
+     */
+    public Edge getEdge() {
+        return edge;
+    }
+
+    /**
+     * Returns the number of IP´s that would stay connected to the first IP of the edge, including itself.
+     * @return the size of the first side
+     */
+    public int getFirstSide() {
+        return firstSide;
+    }
+
+    /**
+     * Returns the number of IP´s that would stay connected to the second IP of the edge, including itself.
+     * @return the size of the second side
+     */
+    public int getSecondSide() {
+        return secondSide;
+    }
+
+    /**
+     * Returns the number of IP´s that would be cut off, the size of the smaller side.
+     * @return the number of cut off IP´s
+     */
+    public int getCutOff() {
+        return Math.min(firstSide, secondSide);
+    }
+
+    /**
+     * Returns the edge with the sizes of both sides.
+     * @return the impact as string
+     */
+    @Override
+    public String toString() {
+        return edge + " " + firstSide + "/" + secondSide;
+    }
+}
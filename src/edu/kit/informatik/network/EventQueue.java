@@ -0,0 +1,86 @@
+package edu.kit.informatik.network;
+
+import java.util.Arrays;
+
+/**
+ * The class EventQueue is a priority queue of events, every event is a node id with the time it happens.
+ * It is a binary heap on two primitive arrays, so no objects are created for the events.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class EventQueue {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] times = new double[INITIAL_CAPACITY];
+    private int[] nodes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns if there is no event left.
+     * @return if the queue is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds an event.
+     * @param time time of the event
+     * @param node node id of the event
+     */
+    void push(double time, int node) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (times[parent] <= time) {
+                break;
+            }
+            times[index] = times[parent];
+            nodes[index] = nodes[parent];
+            index = parent;
+        }
+        times[index] = time;
+        nodes[index] = node;
+    }
+
+    /**
+     * Returns the time of the earliest event.
+     * @return the time
+     */
+    double time() {
+        return times[0];
+    }
+
+    /**
+     * Removes the earliest event.
+     * @return node id of the event
+     */
+    int pop() {
+        int node = nodes[0];
+        double time = times[--size];
+        int last = nodes[size];
+        int index = 0;
+        int child = 1;
+        while (child < size) {
+            if (child + 1 < size && times[child + 1] < times[child]) {
+                child++;
+            }
+            if (time <= times[child]) {
+                break;
+            }
+            times[index] = times[child];
+            nodes[index] = nodes[child];
+            index = child;
+            child = 2 * index + 1;
+        }
+        times[index] = time;
+        nodes[index] = last;
+        return node;
+    }
+}
@@ -0,0 +1,117 @@
+package edu.kit.informatik.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class Histogram counts non negative values in buckets of logarithmic size with linear sub buckets,
+ * like an HdrHistogram. Every power of two is split into 32 buckets, so every percentile is exact
+ * up to about three percent, for values from zero up to {@link Long#MAX_VALUE} in a fixed 15 KiB.
+ * Values can be recorded by many threads at once without locks.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private static final double HUNDRED_PERCENT = 100;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value, negative values are recorded as zero.
+     * @param value the value
+     */
+    void record(long value) {
+        long positive = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(positive));
+        count.increment();
+        sum.add(positive);
+        long highest = max.get();
+        while (positive > highest && !max.compareAndSet(highest, positive)) {
+            highest = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     * @return the maximum or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the average of the recorded values.
+     * @return the mean or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long values = count.sum();
+        return values == 0 ? 0 : (double) sum.sum() / values;
+    }
+
+    /**
+     * Returns the value that the given percentage of all recorded values do not exceed.
+     * The value is the upper end of its bucket, but never more than the maximum.
+     * @param percentile the percentage, from 0 to 100
+     * @return the value or 0 if nothing was recorded
+     * @throws IllegalArgumentException if the percentage is not between 0 and 100
+     */
+    public long getPercentile(final double percentile) {
+        if (!(percentile >= 0 && percentile <= HUNDRED_PERCENT)) {
+            throw new IllegalArgumentException("A percentile has to be between 0 and 100");
+        }
+        long values = count.sum();
+        if (values == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / HUNDRED_PERCENT * values));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestOf(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns the bucket of a value. Values below 64 have a bucket each, above every power of two
+     * is split into {@link #SUB_BUCKETS} buckets by the bits after the highest one.
+     * @param value non negative value
+     * @return index of the bucket
+     */
+    private static int bucketOf(long value) {
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        if (magnitude < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long highestOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
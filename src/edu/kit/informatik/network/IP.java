@@ -5,6 +5,7 @@
 
 /**
  * the class IP models an IP for a network.
+ * The four blocks of the IP are packed into a single int, the first block in the highest byte.
  * @author ucfoh
  * @version 1.0
  */
@@ -12,11 +13,17 @@ public class IP implements Comparable<IP> {
 
     private static final int REQUIRED_NUMBERS = 4;
     private static final int HIGHEST_VALUE = 255;
-    private static final long BIT_MASK = 255;
-    private static final short FIRST_BIT_SHIFT = 32;
-    private static final int SECOND_BIT_SHIFT = 24;
+    private static final int BIT_MASK = 255;
+    private static final int FIRST_BIT_SHIFT = 24;
     private static final int NEXT_BIT_SHIFT_STEP = 8;
-    private long ip;
+    private static final int RADIX = 10;
+    /**
+     * Number of chars of the longest point notation.
+     */
+    static final int LONGEST_NOTATION = 15;
+    private static final int CACHE_SIZE = 1 << 12;
+    private static final IP[] CACHE = new IP[CACHE_SIZE];
+    private final int ip;
 
     /**
      * The constructor creates a new IP from a point notation but only if the input was valid.
@@ -24,73 +31,222 @@ public class IP implements Comparable<IP> {
      * @throws ParseException if input was invalid
      */
     public IP(final String pointNotation) throws ParseException {
+        if (pointNotation == null) {
+            throw new ParseException("null is not a valid IP");
+        }
+        this.ip = parse(pointNotation, 0, pointNotation.length());
+    }
+
+    private IP(final int packed) {
+        this.ip = packed;
+    }
 
+    /**
+     * Returns the IP for a packed address. Recently used IP´s are shared.
+     * @param packed the IP packed into an int
+     * @return the IP
+     */
+    public static IP valueOf(final int packed) {
+        int slot = (packed ^ (packed >>> FIRST_BIT_SHIFT)) & (CACHE_SIZE - 1);
+        IP cached = CACHE[slot];
+        if (cached == null || cached.ip != packed) {
+            cached = new IP(packed);
+            CACHE[slot] = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Parses a point notation into a packed address.
+     * @param pointNotation the ip as pointnotaion
+     * @return the IP packed into an int
+     * @throws ParseException if input was invalid
+     */
+    public static int parse(final CharSequence pointNotation) throws ParseException {
         if (pointNotation == null) {
             throw new ParseException("null is not a valid IP");
         }
-        int counter = 0;
-        for (int i = 0; i < pointNotation.length(); i++) {
-            if (pointNotation.charAt(i) == '.') {
-                counter++;
+        return parse(pointNotation, 0, pointNotation.length());
+    }
+
+    /**
+     * Parses the point notation between start (inclusive) and end (exclusive) in a single pass.
+     * @param chars chars containing the ip
+     * @param start index of the first char
+     * @param end index after the last char
+     * @return the IP packed into an int
+     * @throws ParseException if input was invalid
+     * @throws IllegalArgumentException if the chars are null or the range is not inside the chars
+     */
+    public static int parse(final CharSequence chars, final int start, final int end) throws ParseException {
+        if (chars == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        checkRange(chars.length(), start, end);
+        long begin = Instrumentation.start();
+        try {
+            int packed = 0;
+            int numbers = 0;
+            int block = 0;
+            int digits = 0;
+            for (int i = start; i <= end; i++) {
+                char c = i == end ? '.' : chars.charAt(i);
+                if (c == '.') {
+                    packed = appendBlock(packed, block, digits, ++numbers);
+                    block = 0;
+                    digits = 0;
+                } else {
+                    block = appendDigit(block, digits, c);
+                    digits++;
+                }
             }
+            return finish(packed, numbers);
+        } catch (ParseException e) {
+            Instrumentation.rejected(Operation.IP_PARSE);
+            throw e;
+        } finally {
+            Instrumentation.stop(Operation.IP_PARSE, begin);
+        }
+    }
+
+    /**
+     * Parses the point notation between start (inclusive) and end (exclusive) of ASCII bytes in a single pass.
+     * @param bytes bytes containing the ip
+     * @param start index of the first byte
+     * @param end index after the last byte
+     * @return the IP packed into an int
+     * @throws ParseException if input was invalid
+     * @throws IllegalArgumentException if the bytes are null or the range is not inside the bytes
+     */
+    public static int parse(final byte[] bytes, final int start, final int end) throws ParseException {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        checkRange(bytes.length, start, end);
+        long begin = Instrumentation.start();
+        try {
+            int packed = 0;
+            int numbers = 0;
+            int block = 0;
+            int digits = 0;
+            for (int i = start; i <= end; i++) {
+                char c = i == end ? '.' : (char) (bytes[i] & BIT_MASK);
+                if (c == '.') {
+                    packed = appendBlock(packed, block, digits, ++numbers);
+                    block = 0;
+                    digits = 0;
+                } else {
+                    block = appendDigit(block, digits, c);
+                    digits++;
+                }
+            }
+            return finish(packed, numbers);
+        } catch (ParseException e) {
+            Instrumentation.rejected(Operation.IP_PARSE);
+            throw e;
+        } finally {
+            Instrumentation.stop(Operation.IP_PARSE, begin);
+        }
+    }
+
+    private static void checkRange(int length, int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IllegalArgumentException("The range from " + start + " to " + end
+                    + " is not inside the input of length " + length);
         }
-        if (counter != 3) {
+    }
+
+    private static int appendDigit(int block, int digits, char c) throws ParseException {
+        if (c == '-') {
+            throw new ParseException("negative zero is not allowed");
+        }
+        if (c == '+') {
+            throw new ParseException("the symbol + is not allowed");
+        }
+        if (c < '0' || c > '9') {
+            throw new ParseException("input is not a number");
+        }
+        if (digits == 1 && block == 0) {
+            throw new ParseException("leading zeros are not allowed");
+        }
+        int value = block * RADIX + (c - '0');
+        if (value > HIGHEST_VALUE) {
+            throw new ParseException("number is out of range");
+        }
+        return value;
+    }
+
+    private static int appendBlock(int packed, int block, int digits, int numbers) throws ParseException {
+        if (numbers > REQUIRED_NUMBERS) {
             throw new ParseException("not enough or to many dots");
         }
-        String[] numbers = pointNotation.split("\\.");
-        if (numbers.length != REQUIRED_NUMBERS) {
-            throw new ParseException("not enough numbers");
+        if (digits == 0) {
+            throw new ParseException("empty block is not allowed");
         }
-        for (String numberAsString : numbers) {
-            if (numberAsString.length() == 0) {
-                throw new ParseException("empty block is not allowed");
-            }
-            if (numberAsString.charAt(0) == '0' && numberAsString.length() != 1) {
-                throw new ParseException("leading zeros are not allowed");
-            }
-            if (numberAsString.charAt(0) == '-') {
-                throw new ParseException("negative zero is not allowed");
-            }
-            if (numberAsString.charAt(0) == '+') {
-                throw new ParseException("the symbol + is not allowed" );
-            }
+        return (packed << NEXT_BIT_SHIFT_STEP) | block;
+    }
+
+    private static int finish(int packed, int numbers) throws ParseException {
+        if (numbers != REQUIRED_NUMBERS) {
+            throw new ParseException("not enough or to many dots");
         }
-        for (String number : numbers) {
-            int num;
-            try {
-                num = Integer.parseInt(number);
-            } catch (NumberFormatException e) {
-                throw new ParseException(("input is not a number"));
-            }
-            if (num <= HIGHEST_VALUE && num >= 0) {
-                this.ip = this.ip | num;
-                this.ip = this.ip << NEXT_BIT_SHIFT_STEP;
+        return packed;
+    }
 
-            } else {
-                throw new ParseException("number is out of range");
-            }
+    /**
+     * Returns the IP packed into an int.
+     * @return the packed IP
+     */
+    public int toInt() {
+        return this.ip;
+    }
+
+    /**
+     * Appends the point notation of this IP to the StringBuilder.
+     * @param sb StringBuilder to append to
+     * @return the given StringBuilder
+     */
+    public StringBuilder appendTo(final StringBuilder sb) {
+        sb.append((this.ip >>> FIRST_BIT_SHIFT) & BIT_MASK);
+        for (int i = FIRST_BIT_SHIFT - NEXT_BIT_SHIFT_STEP; i >= 0; i = i - NEXT_BIT_SHIFT_STEP) {
+            sb.append('.').append((this.ip >>> i) & BIT_MASK);
         }
+        return sb;
+    }
 
+    /**
+     * Writes the point notation of a packed IP as ASCII bytes.
+     * @param packed the packed IP
+     * @param bytes target, at least {@link #LONGEST_NOTATION} bytes must be free
+     * @param offset index of the first byte
+     * @return index after the last written byte
+     */
+    static int format(final int packed, final byte[] bytes, final int offset) {
+        int position = offset;
+        for (int shift = FIRST_BIT_SHIFT; shift >= 0; shift = shift - NEXT_BIT_SHIFT_STEP) {
+            int block = (packed >>> shift) & BIT_MASK;
+            if (shift != FIRST_BIT_SHIFT) {
+                bytes[position++] = '.';
+            }
+            if (block >= RADIX * RADIX) {
+                bytes[position++] = (byte) ('0' + block / (RADIX * RADIX));
+            }
+            if (block >= RADIX) {
+                bytes[position++] = (byte) ('0' + block / RADIX % RADIX);
+            }
+            bytes[position++] = (byte) ('0' + block % RADIX);
+        }
+        return position;
     }
 
     @Override
     public String toString() {
-        String ipAsString = "" + ((this.ip >> FIRST_BIT_SHIFT) & BIT_MASK);
-        for (int i = SECOND_BIT_SHIFT; i > 0; i = i - NEXT_BIT_SHIFT_STEP) {
-            ipAsString = ipAsString + "." + ((this.ip >> i) & BIT_MASK);
-        }
-        return ipAsString;
+        return appendTo(new StringBuilder(LONGEST_NOTATION)).toString();
     }
 
     @Override
     public int compareTo(IP o) {
-        if (this.ip > o.ip) {
-            return 1;
-        } else if (this.ip == o.ip) {
-            return 0;
-        } else {
-            return -1;
-        }
+        return Integer.compareUnsigned(this.ip, o.ip);
     }
 
     @Override
@@ -107,6 +263,6 @@ public boolean equals(Object o) {
 
     @Override
     public int hashCode() {
-        return (int) ip;
+        return ip;
     }
 }
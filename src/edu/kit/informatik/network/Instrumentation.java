@@ -0,0 +1,92 @@
+package edu.kit.informatik.network;
+
+/**
+ * The class Instrumentation holds the installed {@link NetworkMetrics} and reports to them.
+ * Every report first checks if the metrics are {@link NetworkMetrics#NOOP}, so nothing is measured
+ * while no metrics are installed.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class Instrumentation {
+
+    /**
+     * Start time of an operation that is not measured.
+     */
+    static final long NOT_MEASURED = Long.MIN_VALUE;
+
+    private static volatile NetworkMetrics metrics = NetworkMetrics.NOOP;
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Installs metrics.
+     * @param installed the metrics, not null
+     */
+    static void install(NetworkMetrics installed) {
+        metrics = installed;
+    }
+
+    /**
+     * Returns the installed metrics.
+     * @return the metrics
+     */
+    static NetworkMetrics installed() {
+        return metrics;
+    }
+
+    /**
+     * Returns the start time of an operation.
+     * @return the time in nanoseconds or {@link #NOT_MEASURED} if no metrics are installed
+     */
+    static long start() {
+        return metrics == NetworkMetrics.NOOP ? NOT_MEASURED : System.nanoTime();
+    }
+
+    /**
+     * Reports the time of an operation.
+     * @param operation the operation
+     * @param start the start time from {@link #start()}
+     */
+    static void stop(Operation operation, long start) {
+        if (start != NOT_MEASURED) {
+            metrics.latency(operation, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reports the number of nodes a traversal visited.
+     * @param operation the operation
+     * @param nodes the number of visited nodes
+     */
+    static void visited(Operation operation, long nodes) {
+        NetworkMetrics installed = metrics;
+        if (installed != NetworkMetrics.NOOP) {
+            installed.visited(operation, nodes);
+        }
+    }
+
+    /**
+     * Reports a rejected change or input.
+     * @param operation the operation
+     */
+    static void rejected(Operation operation) {
+        NetworkMetrics installed = metrics;
+        if (installed != NetworkMetrics.NOOP) {
+            installed.rejected(operation);
+        }
+    }
+
+    /**
+     * Reports a rolled back transaction.
+     * @param operation the operation
+     * @param staged the number of staged nodes that were dropped
+     */
+    static void rolledBack(Operation operation, long staged) {
+        NetworkMetrics installed = metrics;
+        if (installed != NetworkMetrics.NOOP) {
+            installed.rolledBack(operation, staged);
+        }
+    }
+}
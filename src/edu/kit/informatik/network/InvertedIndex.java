@@ -0,0 +1,141 @@
+package edu.kit.informatik.network;
+
+import java.util.Arrays;
+
+/**
+ * The class InvertedIndex maps every packed IP to the sorted slots of the networks that contain it.
+ * Every distinct IP has one entry in an open addressing table, an entry is removed as soon as
+ * no network contains its IP anymore, so the index grows with the distinct IP´s and their memberships only.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class InvertedIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_POSTINGS = 2;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int[] NO_SLOTS = new int[0];
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    // null marks an empty entry, because every int is a valid IP
+    private int[][] postings = new int[INITIAL_CAPACITY][];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int count;
+
+    /**
+     * Adds the slot of a network to an IP.
+     * @param packed the packed IP
+     * @param slot slot of the network, not yet added to the IP
+     */
+    void add(int packed, int slot) {
+        if ((count + 1) * 2 > keys.length) {
+            rehash();
+        }
+        int entry = entryOf(packed);
+        if (postings[entry] == null) {
+            keys[entry] = packed;
+            postings[entry] = new int[INITIAL_POSTINGS];
+            count++;
+        }
+        int[] slots = postings[entry];
+        int length = lengths[entry];
+        if (length == slots.length) {
+            slots = Arrays.copyOf(slots, length * 2);
+            postings[entry] = slots;
+        }
+        int position = -Arrays.binarySearch(slots, 0, length, slot) - 1;
+        System.arraycopy(slots, position, slots, position + 1, length - position);
+        slots[position] = slot;
+        lengths[entry]++;
+    }
+
+    /**
+     * Removes the slot of a network from an IP.
+     * @param packed the packed IP
+     * @param slot slot of the network, added to the IP before
+     */
+    void remove(int packed, int slot) {
+        int entry = entryOf(packed);
+        int[] slots = postings[entry];
+        int length = lengths[entry];
+        int position = Arrays.binarySearch(slots, 0, length, slot);
+        System.arraycopy(slots, position + 1, slots, position, length - position - 1);
+        lengths[entry]--;
+        if (lengths[entry] == 0) {
+            delete(entry);
+        }
+    }
+
+    /**
+     * Returns the slots of the networks that contain an IP.
+     * @param packed the packed IP
+     * @return the sorted slots
+     */
+    int[] slotsOf(int packed) {
+        int entry = entryOf(packed);
+        return postings[entry] == null ? NO_SLOTS : Arrays.copyOf(postings[entry], lengths[entry]);
+    }
+
+    /**
+     * Returns the number of distinct IP´s.
+     * @return the number of IP´s in at least one network
+     */
+    int size() {
+        return count;
+    }
+
+    private int entryOf(int packed) {
+        int mask = keys.length - 1;
+        int entry = home(packed, mask);
+        while (postings[entry] != null && keys[entry] != packed) {
+            entry = (entry + 1) & mask;
+        }
+        return entry;
+    }
+
+    private static int home(int packed, int mask) {
+        return (int) ((packed * HASH_MULTIPLIER) >>> Integer.SIZE) & mask;
+    }
+
+    /**
+     * Deletes an entry and shifts the following entries of its cluster back, so no search stops too early.
+     * @param entry the entry
+     */
+    private void delete(int entry) {
+        int mask = keys.length - 1;
+        int gap = entry;
+        int next = (gap + 1) & mask;
+        while (postings[next] != null) {
+            int home = home(keys[next], mask);
+            // the entry can fill the gap if its home is not between the gap and itself
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                postings[gap] = postings[next];
+                lengths[gap] = lengths[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        postings[gap] = null;
+        lengths[gap] = 0;
+        count--;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[][] oldPostings = postings;
+        int[] oldLengths = lengths;
+        keys = new int[oldKeys.length * 2];
+        postings = new int[keys.length][];
+        lengths = new int[keys.length];
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldPostings[old] != null) {
+                int entry = entryOf(oldKeys[old]);
+                keys[entry] = oldKeys[old];
+                postings[entry] = oldPostings[old];
+                lengths[entry] = oldLengths[old];
+            }
+        }
+    }
+}
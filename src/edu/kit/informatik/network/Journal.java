@@ -0,0 +1,462 @@
+package edu.kit.informatik.network;
+
+import edu.kit.informatik.exceptions.ParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The class Journal records every successful change of a network in an append only file, so the network can be
+ * recovered after a restart without parsing it again (see {@link Network#recover(Path, SyncPolicy, int)}).
+ * The directory holds one generation: a checkpoint of the whole topology in the binary format
+ * (see {@link BinaryFormat}) and the journal of the changes since the checkpoint. A new checkpoint is written
+ * next to the old one and renamed atomically before the files of the old generation are deleted,
+ * so a crash at any time leaves a complete generation.
+ * A journal file starts with a header (magic number, version and generation), every record with its length
+ * and a checksum, so a record that was only partly written by a crash is detected and dropped.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class Journal implements Closeable {
+
+    /**
+     * The first four bytes of a journal file, "PJRN".
+     */
+    static final int MAGIC = 0x504A524E;
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 1;
+    /**
+     * Size of the header in bytes.
+     */
+    static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final byte CONNECT = 1;
+    private static final byte DISCONNECT = 2;
+    private static final byte ADD = 3;
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".pnet";
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String CORRUPT = "corrupt journal";
+
+    private final Path directory;
+    private final TopologyView topology;
+    private final SyncPolicy policy;
+    private final int checkpointInterval;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 checksum = new CRC32();
+    private FileChannel channel;
+    private long generation;
+    private int changes;
+    private int recordStart;
+
+    private Journal(Path directory, TopologyView topology, SyncPolicy policy, int checkpointInterval) {
+        this.directory = directory;
+        this.topology = topology;
+        this.policy = policy;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Starts a new journal for a topology. The topology is written as the first checkpoint,
+     * the files of an older journal in the directory are replaced.
+     * @param directory directory of the journal, it is created if it does not exist
+     * @param topology the live topology of the network
+     * @param policy when changes are forced to the storage device
+     * @param checkpointInterval number of changes after which a checkpoint is written, 0 for never
+     * @return the journal
+     * @throws IOException if a file could not be written
+     */
+    static Journal start(Path directory, TopologyView topology, SyncPolicy policy, int checkpointInterval)
+            throws IOException {
+        Files.createDirectories(directory);
+        Journal journal = new Journal(directory, topology, policy, checkpointInterval);
+        journal.generation = latest(directory) + 1;
+        journal.writeCheckpoint();
+        journal.openJournal(HEADER_BYTES);
+        journal.deleteOthers();
+        return journal;
+    }
+
+    /**
+     * Recovers a network from the latest checkpoint of a directory and replays the changes of its journal.
+     * A record at the end that was only partly written or whose length does not fit into the file is dropped,
+     * the journal continues after the last complete record.
+     * @param directory directory of the journal
+     * @param policy when changes are forced to the storage device
+     * @param checkpointInterval number of changes after which a checkpoint is written, 0 for never
+     * @return the network, journaled to the same directory
+     * @throws ParseException if there is no checkpoint or a file is not valid
+     * @throws IOException if a file could not be read or written
+     */
+    static Network recover(Path directory, SyncPolicy policy, int checkpointInterval)
+            throws ParseException, IOException {
+        long generation = Files.isDirectory(directory) ? latest(directory) : -1;
+        if (generation < 0) {
+            throw new ParseException("no checkpoint in " + directory);
+        }
+        Network network;
+        try (FileChannel checkpoint = FileChannel.open(file(directory, CHECKPOINT_PREFIX, generation,
+                CHECKPOINT_SUFFIX), StandardOpenOption.READ)) {
+            network = BinaryFormat.read(checkpoint);
+        }
+        Journal journal = new Journal(directory, network.view(), policy, checkpointInterval);
+        journal.generation = generation;
+        Path log = file(directory, JOURNAL_PREFIX, generation, JOURNAL_SUFFIX);
+        long end = HEADER_BYTES;
+        // a journal without a complete header was created by a crash right after its checkpoint
+        if (Files.exists(log) && Files.size(log) >= HEADER_BYTES) {
+            try (FileChannel replayed = FileChannel.open(log, StandardOpenOption.READ)) {
+                end = journal.replay(replayed, network);
+            }
+        }
+        journal.openJournal(end);
+        journal.deleteOthers();
+        network.attach(journal);
+        return network;
+    }
+
+    /**
+     * Records a connect.
+     * @param packed1 first packed IP
+     * @param packed2 second packed IP
+     */
+    void connected(int packed1, int packed2) {
+        ByteBuffer record = begin(1 + 2 * Integer.BYTES);
+        record.put(CONNECT).putInt(packed1).putInt(packed2);
+        end(record);
+    }
+
+    /**
+     * Records a disconnect.
+     * @param packed1 first packed IP
+     * @param packed2 second packed IP
+     */
+    void disconnected(int packed1, int packed2) {
+        ByteBuffer record = begin(1 + 2 * Integer.BYTES);
+        record.put(DISCONNECT).putInt(packed1).putInt(packed2);
+        end(record);
+    }
+
+    /**
+     * Records the subnets of an add as one transaction.
+     * @param subnets topologies of the subnets
+     */
+    void added(Collection<TopologyView> subnets) {
+        int[] edges = new int[subnets.size()];
+        int length = 1 + Integer.BYTES;
+        int index = 0;
+        for (TopologyView subnet : subnets) {
+            for (int id = 0; id < subnet.bound(); id++) {
+                edges[index] += subnet.isNode(id) ? subnet.degree(id) : 0;
+            }
+            edges[index] /= 2;
+            length += Integer.BYTES + edges[index++] * 2 * Integer.BYTES;
+        }
+        ByteBuffer record = begin(length);
+        record.put(ADD).putInt(subnets.size());
+        index = 0;
+        for (TopologyView subnet : subnets) {
+            record.putInt(edges[index++]);
+            for (int id = 0; id < subnet.bound(); id++) {
+                if (!subnet.isNode(id)) {
+                    continue;
+                }
+                for (int i = 0; i < subnet.degree(id); i++) {
+                    int neighbour = subnet.neighbour(id, i);
+                    if (neighbour > id) {
+                        record.putInt(subnet.packed(id)).putInt(subnet.packed(neighbour));
+                    }
+                }
+            }
+        }
+        end(record);
+    }
+
+    /**
+     * Writes a checkpoint of the topology and starts a new generation with an empty journal.
+     * @throws IOException if a file could not be written
+     */
+    void checkpoint() throws IOException {
+        sync();
+        generation++;
+        writeCheckpoint();
+        channel.close();
+        openJournal(HEADER_BYTES);
+        deleteOthers();
+        changes = 0;
+    }
+
+    /**
+     * Writes the buffered changes and forces them to the storage device.
+     * @throws IOException if the file could not be written
+     */
+    void sync() throws IOException {
+        flush();
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private ByteBuffer begin(int length) {
+        if (buffer.remaining() < RECORD_HEADER_BYTES + length) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        // a record larger than the buffer is written on its own
+        ByteBuffer record = buffer.remaining() >= RECORD_HEADER_BYTES + length ? buffer
+                : ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        recordStart = record.position();
+        record.putInt(length).putInt(0);
+        return record;
+    }
+
+    private void end(ByteBuffer record) {
+        try {
+            ByteBuffer payload = record.duplicate();
+            payload.position(recordStart + RECORD_HEADER_BYTES).limit(record.position());
+            checksum.reset();
+            checksum.update(payload);
+            record.putInt(recordStart + Integer.BYTES, (int) checksum.getValue());
+            if (record != buffer) {
+                record.flip();
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+                if (policy == SyncPolicy.BATCH) {
+                    channel.force(false);
+                }
+            }
+            changes++;
+            if (policy == SyncPolicy.ALWAYS) {
+                sync();
+            }
+            if (checkpointInterval > 0 && changes >= checkpointInterval) {
+                checkpoint();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        boolean written = buffer.hasRemaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        if (written && policy == SyncPolicy.BATCH) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Replays the complete records of a journal file.
+     * @param replayed the journal file
+     * @param network the network of the checkpoint
+     * @return the end of the last complete record
+     * @throws ParseException if the file is not a journal of this generation or a change can not be replayed
+     * @throws IOException if the file could not be read
+     */
+    private long replay(FileChannel replayed, Network network) throws ParseException, IOException {
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        input.limit(0);
+        long offset = 0;
+        if (!fill(replayed, input, HEADER_BYTES) || input.getInt() != MAGIC) {
+            throw new ParseException("not a journal file", 0);
+        }
+        if (input.getInt() != VERSION || input.getLong() != generation) {
+            throw new ParseException("unknown version or generation of the journal file", Integer.BYTES);
+        }
+        offset += HEADER_BYTES;
+        while (fill(replayed, input, RECORD_HEADER_BYTES)) {
+            int length = input.getInt();
+            int expected = input.getInt();
+            // a torn or garbage tail can hold any length, so it is checked before the buffer grows
+            if (length <= 0 || length > replayed.size() - offset - RECORD_HEADER_BYTES) {
+                break;
+            }
+            if (input.capacity() < length) {
+                ByteBuffer larger = ByteBuffer.allocate(length);
+                larger.put(input).flip();
+                input = larger;
+            }
+            if (!fill(replayed, input, length)) {
+                break;
+            }
+            ByteBuffer payload = input.slice();
+            payload.limit(length);
+            checksum.reset();
+            checksum.update(payload.duplicate());
+            if ((int) checksum.getValue() != expected) {
+                break;
+            }
+            if (!apply(payload, network)) {
+                throw new ParseException(CORRUPT, offset);
+            }
+            input.position(input.position() + length);
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private static boolean apply(ByteBuffer payload, Network network) {
+        byte type = payload.get();
+        if (type == CONNECT) {
+            return network.connect(IP.valueOf(payload.getInt()), IP.valueOf(payload.getInt()));
+        }
+        if (type == DISCONNECT) {
+            return network.disconnect(IP.valueOf(payload.getInt()), IP.valueOf(payload.getInt()));
+        }
+        if (type != ADD) {
+            return false;
+        }
+        int count = payload.getInt();
+        List<Network> subnets = new ArrayList<>(count);
+        for (int subnet = 0; subnet < count; subnet++) {
+            Topology tree = new Topology();
+            int edges = payload.getInt();
+            for (int edge = 0; edge < edges; edge++) {
+                int id1 = intern(tree, payload.getInt());
+                int id2 = intern(tree, payload.getInt());
+                tree.link(id1, id2);
+            }
+            subnets.add(new Network(tree, new Connectivity(tree)));
+        }
+        return count == 1 ? network.add(subnets.get(0)) : network.addAll(subnets);
+    }
+
+    private static int intern(Topology tree, int packed) {
+        int id = tree.idOf(packed);
+        return id == Topology.NO_NODE ? tree.add(packed) : id;
+    }
+
+    /**
+     * Reads until the buffer holds enough bytes.
+     * @param replayed the file
+     * @param input the buffer in read mode
+     * @param bytes number of bytes needed
+     * @return false if the file ended before
+     * @throws IOException if the file could not be read
+     */
+    private static boolean fill(FileChannel replayed, ByteBuffer input, int bytes) throws IOException {
+        if (input.remaining() >= bytes) {
+            return true;
+        }
+        input.compact();
+        while (input.position() < bytes) {
+            if (replayed.read(input) < 0) {
+                input.flip();
+                return false;
+            }
+        }
+        input.flip();
+        return true;
+    }
+
+    private void writeCheckpoint() throws IOException {
+        Path temporary = file(directory, CHECKPOINT_PREFIX, generation, TEMPORARY_SUFFIX);
+        try (FileChannel checkpoint = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            BinaryFormat.write(topology, checkpoint);
+            checkpoint.force(true);
+        }
+        Files.move(temporary, file(directory, CHECKPOINT_PREFIX, generation, CHECKPOINT_SUFFIX),
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Opens the journal of the current generation and continues after its last complete record.
+     * @param end end of the last complete record, a shorter file is started with a new header
+     * @throws IOException if the file could not be written
+     */
+    private void openJournal(long end) throws IOException {
+        channel = FileChannel.open(file(directory, JOURNAL_PREFIX, generation, JOURNAL_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(generation).flip();
+            channel.truncate(0);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+        channel.truncate(end);
+        channel.position(end);
+        channel.force(true);
+    }
+
+    /**
+     * Deletes the files of all other generations and unfinished checkpoints.
+     * @throws IOException if a file could not be deleted
+     */
+    private void deleteOthers() throws IOException {
+        String checkpoint = CHECKPOINT_PREFIX + generation + CHECKPOINT_SUFFIX;
+        String journal = JOURNAL_PREFIX + generation + JOURNAL_SUFFIX;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                boolean own = name.startsWith(CHECKPOINT_PREFIX) || name.startsWith(JOURNAL_PREFIX);
+                if (own && !name.equals(checkpoint) && !name.equals(journal)) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the latest generation with a complete checkpoint.
+     * @param directory directory of the journal
+     * @return the generation or -1 if there is none
+     * @throws IOException if the directory could not be read
+     */
+    private static long latest(Path directory) throws IOException {
+        long latest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                CHECKPOINT_PREFIX + "*" + CHECKPOINT_SUFFIX)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                String number = name.substring(CHECKPOINT_PREFIX.length(), name.length() - CHECKPOINT_SUFFIX.length());
+                try {
+                    latest = Math.max(latest, Long.parseLong(number));
+                } catch (NumberFormatException e) {
+                    // not a checkpoint of a journal
+                }
+            }
+        }
+        return latest;
+    }
+
+    private static Path file(Path directory, String prefix, long generation, String suffix) {
+        return directory.resolve(prefix + generation + suffix);
+    }
+}
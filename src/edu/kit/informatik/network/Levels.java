@@ -0,0 +1,177 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class Levels holds the levels of a tree from a given root.
+ * The levels are computed with a breadth first search and stored as one int array of packed IP´s,
+ * every level is sorted and starts at its offset.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class Levels {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int[] packed;
+    private final int[] offsets;
+
+    private Levels(int[] packed, int[] offsets) {
+        this.packed = packed;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Computes the levels of the tree of a root. (based on BFS algorithm)
+     * @param topology the topology
+     * @param root id of the root
+     * @return the levels
+     */
+    static Levels of(TopologyView topology, int root) {
+        return of(topology, root, new Scratch());
+    }
+
+    /**
+     * Computes the levels of the tree of a root in the buffers of a scratch, see {@link #of(TopologyView, int)}.
+     * @param topology the topology
+     * @param root id of the root
+     * @param scratch buffers of the search, they are grown if needed and kept for the next search
+     * @return the levels
+     */
+    static Levels of(TopologyView topology, int root, Scratch scratch) {
+        int[] queue = scratch.queue;
+        int[] from = scratch.from;
+        int[] offsets = scratch.offsets;
+        int levels = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail] = root;
+        from[tail++] = Topology.NO_NODE;
+        while (head < tail) {
+            if (levels + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[levels++] = head;
+            int end = tail;
+            while (head < end) {
+                int node = queue[head];
+                int parent = from[head++];
+                for (int i = 0; i < topology.degree(node); i++) {
+                    int child = topology.neighbour(node, i);
+                    if (child == parent) {
+                        continue;
+                    }
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                        from = Arrays.copyOf(from, tail * 2);
+                    }
+                    queue[tail] = child;
+                    from[tail++] = node;
+                }
+            }
+        }
+        offsets[levels] = tail;
+        scratch.queue = queue;
+        scratch.from = from;
+        scratch.offsets = offsets;
+        // the flipped sign bit lets the signed sort follow the unsigned order of the IP´s
+        int[] packed = new int[tail];
+        for (int i = 0; i < tail; i++) {
+            packed[i] = topology.packed(queue[i]) ^ Integer.MIN_VALUE;
+        }
+        for (int level = 0; level < levels; level++) {
+            Arrays.sort(packed, offsets[level], offsets[level + 1]);
+        }
+        for (int i = 0; i < tail; i++) {
+            packed[i] ^= Integer.MIN_VALUE;
+        }
+        return new Levels(packed, Arrays.copyOf(offsets, levels + 1));
+    }
+
+    /**
+     * Computes the height of the tree of a root without storing the levels. (based on DFS algorithm)
+     * @param topology the topology
+     * @param root id of the root
+     * @return the height
+     */
+    static int height(TopologyView topology, int root) {
+        int[] stack = new int[INITIAL_CAPACITY];
+        int[] from = new int[INITIAL_CAPACITY];
+        int[] depths = new int[INITIAL_CAPACITY];
+        int height = 0;
+        int depth = 0;
+        stack[depth] = root;
+        from[depth] = Topology.NO_NODE;
+        depths[depth++] = 0;
+        while (depth > 0) {
+            int node = stack[--depth];
+            int parent = from[depth];
+            int level = depths[depth];
+            height = Math.max(height, level);
+            for (int i = 0; i < topology.degree(node); i++) {
+                int child = topology.neighbour(node, i);
+                if (child == parent) {
+                    continue;
+                }
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                    from = Arrays.copyOf(from, depth * 2);
+                    depths = Arrays.copyOf(depths, depth * 2);
+                }
+                stack[depth] = child;
+                from[depth] = node;
+                depths[depth++] = level + 1;
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Returns the number of nodes in all levels.
+     * @return the number of nodes
+     */
+    int size() {
+        return packed.length;
+    }
+
+    /**
+     * Returns the height of the tree, the number of levels starting with zero.
+     * @return the height
+     */
+    int height() {
+        return offsets.length - 2;
+    }
+
+    /**
+     * Creates a new list of the levels.
+     * @return List of Lists of IP´s
+     */
+    List<List<IP>> toList() {
+        List<List<IP>> levels = new ArrayList<>(offsets.length - 1);
+        for (int level = 0; level + 1 < offsets.length; level++) {
+            List<IP> list = new ArrayList<>(offsets[level + 1] - offsets[level]);
+            for (int i = offsets[level]; i < offsets[level + 1]; i++) {
+                list.add(IP.valueOf(packed[i]));
+            }
+            levels.add(list);
+        }
+        return levels;
+    }
+
+    /**
+     * The class Scratch holds the buffers of a breadth first search, so one thread can reuse them
+     * for many searches.
+     *
+     * @author ucfoh
+     * @version 1.0
+     */
+    static final class Scratch {
+
+        private int[] queue = new int[INITIAL_CAPACITY];
+        private int[] from = new int[INITIAL_CAPACITY];
+        private int[] offsets = new int[INITIAL_CAPACITY];
+    }
+}
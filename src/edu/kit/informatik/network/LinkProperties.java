@@ -0,0 +1,71 @@
+package edu.kit.informatik.network;
+
+/**
+ * The class LinkProperties models the transmission properties of a link between two IP´s.
+ * A message of a given size needs the latency plus its size divided by the bandwidth to cross the link.
+ * All times use the same unit, the bandwidth is given in bytes per time unit.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class LinkProperties {
+
+    private final double latency;
+    private final double bandwidth;
+
+    /**
+     * Creates new link properties.
+     * @param latency time until the first byte arrives, not negative
+     * @param bandwidth bytes per time unit, positive or infinite
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public LinkProperties(final double latency, final double bandwidth) {
+        if (!(latency >= 0) || Double.isInfinite(latency) || !(bandwidth > 0)) {
+            throw new IllegalArgumentException("latency must not be negative and bandwidth must be positive");
+        }
+        this.latency = latency;
+        this.bandwidth = bandwidth;
+    }
+
+    /**
+     * Returns the latency.
+     * @return the latency
+     */
+    public double getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the bandwidth.
+     * @return bytes per time unit
+     */
+    public double getBandwidth() {
+        return bandwidth;
+    }
+
+    /**
+     * Returns the time a message needs to cross the link.
+     * @param messageSize size of the message in bytes, not negative
+     * @return latency plus transmission time
+     * @throws IllegalArgumentException if the size of the message is negative
+     */
+    public double transmissionTime(final long messageSize) {
+        if (messageSize < 0) {
+            throw new IllegalArgumentException("The size of a message must not be negative");
+        }
+        return latency + messageSize / bandwidth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LinkProperties that = (LinkProperties) o;
+        return Double.compare(latency, that.latency) == 0 && Double.compare(bandwidth, that.bandwidth) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(latency) + Double.hashCode(bandwidth);
+    }
+}
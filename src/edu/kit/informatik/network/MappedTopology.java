@@ -0,0 +1,102 @@
+package edu.kit.informatik.network;
+
+import java.nio.IntBuffer;
+
+/**
+ * The class MappedTopology reads the tree topology´s straight from a memory mapped file
+ * in the binary format (see {@link BinaryFormat}). The id of a node is the position of its IP in the
+ * sorted IP´s, so an IP is found by binary search and nothing has to be loaded into the heap.
+ * A mapped topology can not be changed and can be read by many threads at once.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class MappedTopology implements TopologyView {
+
+    private static final int OBJECT_BYTES = 64;
+    private static final int OBJECTS = 4;
+
+    private final IntBuffer addresses;
+    private final IntBuffer offsets;
+    private final IntBuffer neighbours;
+    private final int size;
+    private final long fingerprint;
+
+    /**
+     * Creates a topology on the mapped sections of a file.
+     * @param addresses sorted packed IP´s
+     * @param offsets first neighbour entry of every node
+     * @param neighbours neighbour entries
+     * @param size number of nodes
+     * @param fingerprint fingerprint of the edges
+     */
+    MappedTopology(IntBuffer addresses, IntBuffer offsets, IntBuffer neighbours, int size, long fingerprint) {
+        this.addresses = addresses;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.size = size;
+        this.fingerprint = fingerprint;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int bound() {
+        return size;
+    }
+
+    @Override
+    public boolean isNode(int id) {
+        return id >= 0 && id < size;
+    }
+
+    @Override
+    public int idOf(int packed) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Integer.compareUnsigned(addresses.get(middle), packed);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return Topology.NO_NODE;
+    }
+
+    @Override
+    public int packed(int id) {
+        return addresses.get(id);
+    }
+
+    @Override
+    public int degree(int id) {
+        return offsets.get(id + 1) - offsets.get(id);
+    }
+
+    @Override
+    public int neighbour(int id, int index) {
+        return neighbours.get(offsets.get(id) + index);
+    }
+
+    @Override
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the heap used by the buffers, the mapped file itself is not part of the heap.
+     * @return the estimated footprint
+     */
+    @Override
+    public long footprint() {
+        return OBJECT_BYTES * OBJECTS;
+    }
+}
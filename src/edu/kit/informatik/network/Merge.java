@@ -0,0 +1,249 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class Merge adds the tree topology´s of one or more subnets to a topology as a transaction.
+ * Every subnet is validated before anything is changed, so a rejected merge leaves the topology untouched
+ * and costs only time in proportion to the size of the subnets.
+ * The validation works on a small disjoint set over the components of the topology the subnets touch
+ * and the nodes they add. An edge that an earlier subnet of the same merge already staged is no change,
+ * just like an edge that is already part of the topology.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class Merge {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NEW_NODE = 1L << Integer.SIZE;
+    private static final long EMPTY = -1;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final Topology topology;
+    private final Connectivity connectivity;
+    private final List<TopologyView> staged = new ArrayList<>();
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] parent = new int[INITIAL_CAPACITY];
+    private int count;
+    // keys of the new edges, an edge key is never EMPTY as an edge has two different IP´s
+    private long[] edges = new long[INITIAL_CAPACITY];
+    private int edgeCount;
+    private int[] added = new int[INITIAL_CAPACITY];
+    private int addedCount;
+
+    /**
+     * Creates a new merge into a topology.
+     * @param topology topology to merge into
+     * @param connectivity connectivity index of the topology
+     */
+    Merge(Topology topology, Connectivity connectivity) {
+        this.topology = topology;
+        this.connectivity = connectivity;
+        Arrays.fill(this.keys, EMPTY);
+        Arrays.fill(this.edges, EMPTY);
+    }
+
+    /**
+     * Validates a subnet together with all subnets staged before.
+     * @param subnet topology of the subnet
+     * @return false if the subnet would close a cycle
+     */
+    boolean stage(TopologyView subnet) {
+        boolean changes = false;
+        for (int id = 0; id < subnet.bound(); id++) {
+            if (!subnet.isNode(id)) {
+                continue;
+            }
+            int own = topology.idOf(subnet.packed(id));
+            for (int i = 0; i < subnet.degree(id); i++) {
+                int neighbour = subnet.neighbour(id, i);
+                //every edge is validated once
+                if (neighbour < id) {
+                    continue;
+                }
+                int ownNeighbour = topology.idOf(subnet.packed(neighbour));
+                if (own != Topology.NO_NODE && ownNeighbour != Topology.NO_NODE
+                        && topology.hasEdge(own, ownNeighbour)) {
+                    continue;
+                }
+                if (!stageEdge(Edge.key(subnet.packed(id), subnet.packed(neighbour)))) {
+                    continue;
+                }
+                changes = true;
+                //an edge adds at most two local nodes
+                if ((count + 2) * 2 > keys.length) {
+                    rehash();
+                }
+                if (!union(local(own, subnet.packed(id)), local(ownNeighbour, subnet.packed(neighbour)))) {
+                    return false;
+                }
+            }
+        }
+        if (changes) {
+            staged.add(subnet);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of nodes the validation has staged so far.
+     * @return the number of staged nodes
+     */
+    int stagedNodes() {
+        return count;
+    }
+
+    /**
+     * Returns if none of the staged subnets changes the topology.
+     * @return if there is nothing to commit
+     */
+    boolean isEmpty() {
+        return staged.isEmpty();
+    }
+
+    /**
+     * Adds all staged subnets to the topology.
+     * @return packed IP´s of the nodes that were new to the topology
+     */
+    int[] commit() {
+        for (TopologyView subnet : staged) {
+            for (int id = 0; id < subnet.bound(); id++) {
+                if (!subnet.isNode(id)) {
+                    continue;
+                }
+                int own = intern(subnet.packed(id));
+                for (int i = 0; i < subnet.degree(id); i++) {
+                    int neighbour = intern(subnet.packed(subnet.neighbour(id, i)));
+                    if (!topology.hasEdge(own, neighbour)) {
+                        topology.link(own, neighbour);
+                        connectivity.union(own, neighbour);
+                    }
+                }
+            }
+        }
+        staged.clear();
+        return Arrays.copyOf(added, addedCount);
+    }
+
+    private int intern(int packed) {
+        int id = topology.idOf(packed);
+        if (id == Topology.NO_NODE) {
+            id = topology.add(packed);
+            connectivity.makeSet(id);
+            if (addedCount == added.length) {
+                added = Arrays.copyOf(added, addedCount * 2);
+            }
+            added[addedCount++] = packed;
+        }
+        return id;
+    }
+
+    /**
+     * Remembers a new edge.
+     * @param key key of the edge (see {@link Edge#key(int, int)})
+     * @return false if the edge was staged before
+     */
+    private boolean stageEdge(long key) {
+        if ((edgeCount + 1) * 2 > edges.length) {
+            long[] oldEdges = edges;
+            edges = new long[oldEdges.length * 2];
+            Arrays.fill(edges, EMPTY);
+            for (long old : oldEdges) {
+                if (old != EMPTY) {
+                    edges[edgeSlot(old)] = old;
+                }
+            }
+        }
+        int slot = edgeSlot(key);
+        if (edges[slot] == key) {
+            return false;
+        }
+        edges[slot] = key;
+        edgeCount++;
+        return true;
+    }
+
+    /**
+     * Returns the slot of an edge key or the empty slot where it belongs.
+     * @param key key of the edge
+     * @return the slot
+     */
+    private int edgeSlot(long key) {
+        int mask = edges.length - 1;
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> Integer.SIZE) & mask;
+        while (edges[slot] != EMPTY && edges[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the local index of a node. Existing nodes are represented by their component,
+     * new nodes by their IP.
+     * @param id id of the node in the topology
+     * @param packed packed IP of the node
+     * @return the local index
+     */
+    private int local(int id, int packed) {
+        long key = id == Topology.NO_NODE ? NEW_NODE | Integer.toUnsignedLong(packed) : connectivity.find(id);
+        int mask = keys.length - 1;
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> Integer.SIZE) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return find(parent[slot]);
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        parent[slot] = slot;
+        count++;
+        return slot;
+    }
+
+    private int find(int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    private boolean union(int index1, int index2) {
+        int root1 = find(index1);
+        int root2 = find(index2);
+        if (root1 == root2) {
+            return false;
+        }
+        parent[root1] = root2;
+        return true;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldParent = parent;
+        int[] moved = new int[oldKeys.length];
+        keys = new long[oldKeys.length * 2];
+        parent = new int[keys.length];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] == EMPTY) {
+                continue;
+            }
+            int slot = (int) ((oldKeys[old] * HASH_MULTIPLIER) >>> Integer.SIZE) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[old];
+            moved[old] = slot;
+        }
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] != EMPTY) {
+                parent[moved[old]] = moved[oldParent[old]];
+            }
+        }
+    }
+}
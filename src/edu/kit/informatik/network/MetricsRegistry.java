@@ -0,0 +1,102 @@
+package edu.kit.informatik.network;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class MetricsRegistry collects all measurements in memory until they are pulled.
+ * Every operation has a histogram of its latencies in nanoseconds and a histogram of the nodes its
+ * traversals visited, together with counters of the rejected changes, the rolled back transactions
+ * and the nodes they had staged. All structures are created up front, so recording never allocates.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class MetricsRegistry implements NetworkMetrics {
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> visits = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> rejections = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> rollbacks = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+
+    /**
+     * Creates a new registry without measurements.
+     */
+    public MetricsRegistry() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Histogram());
+            visits.put(operation, new Histogram());
+            rejections.put(operation, new LongAdder());
+            rollbacks.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+
+    @Override
+    public void latency(final Operation operation, final long nanos) {
+        latencies.get(operation).record(nanos);
+    }
+
+    @Override
+    public void visited(final Operation operation, final long nodes) {
+        visits.get(operation).record(nodes);
+    }
+
+    @Override
+    public void rejected(final Operation operation) {
+        rejections.get(operation).increment();
+    }
+
+    @Override
+    public void rolledBack(final Operation operation, final long staged) {
+        rollbacks.get(operation).increment();
+        dropped.get(operation).add(staged);
+    }
+
+    /**
+     * Returns the latencies of an operation in nanoseconds.
+     * @param operation the operation
+     * @return the histogram of the latencies
+     */
+    public Histogram getLatencies(final Operation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * Returns the number of nodes the traversals of an operation visited.
+     * @param operation the operation
+     * @return the histogram of the visited nodes per traversal
+     */
+    public Histogram getVisited(final Operation operation) {
+        return visits.get(operation);
+    }
+
+    /**
+     * Returns how often a change or an input of an operation was rejected.
+     * @param operation the operation
+     * @return the number of rejections
+     */
+    public long getRejected(final Operation operation) {
+        return rejections.get(operation).sum();
+    }
+
+    /**
+     * Returns how often a transaction of an operation was rolled back.
+     * @param operation the operation
+     * @return the number of rollbacks
+     */
+    public long getRolledBack(final Operation operation) {
+        return rollbacks.get(operation).sum();
+    }
+
+    /**
+     * Returns the number of staged nodes that were dropped by the rollbacks of an operation.
+     * @param operation the operation
+     * @return the number of dropped nodes
+     */
+    public long getDropped(final Operation operation) {
+        return dropped.get(operation).sum();
+    }
+}
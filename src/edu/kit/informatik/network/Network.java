@@ -3,20 +3,27 @@
 import edu.kit.informatik.exceptions.InvalidTreeException;
 import edu.kit.informatik.exceptions.ParseException;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.TreeSet;
 
 /**
  * The Class Network models a network structure with different tree topology´s.
- * The tree topology‘s are saved in an adjacency list.
+ * The tree topology‘s are saved in an int indexed adjacency structure (see {@link Topology}).
  * It inherits useful methods for operations on the network structure.
  *
  * @author ucfoh
@@ -24,9 +31,23 @@
  */
 public class Network {
 
-    private static final String ILLEGAL_TREE_TOPOLOGY = "Its not allowed to add a circular Graph";
-    private static final int SMALLEST_NOTATION_POSSIBLE = 17;
-    private final Map<IP, TreeSet<IP>> adjacencyList = new HashMap<>();
+    static final String ILLEGAL_TREE_TOPOLOGY = "Its not allowed to add a circular Graph";
+    private static final int CACHED_LEVELS = 8;
+    private static final int CACHED_HEIGHTS = 1024;
+    private static final int CACHED_RENDERINGS = 4;
+    private static final String FROZEN = "A frozen network can not be changed";
+    private Topology topology = new Topology();
+    private TopologyView view = topology;
+    private Connectivity connectivity;
+    private volatile RouteIndex routeIndex;
+    private volatile Eccentricities eccentricities;
+    private volatile SubtreeIndex subtrees;
+    private volatile AddressIndex addresses;
+    private Journal journal;
+    private final boolean frozen;
+    private final RootCache<Levels> levelCache = new RootCache<>(CACHED_LEVELS);
+    private final RootCache<Integer> heightCache = new RootCache<>(CACHED_HEIGHTS);
+    private final RootCache<Rendering> renderings = new RootCache<>(CACHED_RENDERINGS);
 
     /**
      * This constructor creates a new network instance and adds a valid tree topology if the inputs were correct.
@@ -36,11 +57,17 @@ public class Network {
      */
     public Network(final IP root, final List<IP> children) {
 
-        TreeSet<IP> childSet = constructorInputValidation(root, children);
-        adjacencyList.put(root, childSet);
-        for (IP child : childSet) {
-            adjacencyList.put(child, new TreeSet<>());
-            adjacencyList.get(child).add(root);
+        this.frozen = false;
+        long begin = Instrumentation.start();
+        try {
+            TreeSet<IP> childSet = constructorInputValidation(root, children);
+            int rootId = topology.add(root);
+            for (IP child : childSet) {
+                topology.link(rootId, topology.add(child));
+            }
+            this.connectivity = new Connectivity(topology);
+        } finally {
+            Instrumentation.stop(Operation.CREATE, begin);
         }
     }
 
@@ -52,93 +79,432 @@ public Network(final IP root, final List<IP> children) {
      */
     public Network(final String bracketNotation) throws ParseException {
 
-        constructorInputValidation(bracketNotation);
-        String[] ips = bracketNotation.split(" ");
-        LinkedList<IP> rootList = new LinkedList<>();
-        boolean firstElement = true;
-        IP newIp;
-
-        for (String ip : ips) {
-            if (ip.contains("(")) {
-                if (firstElement) {
-                    newIp = new IP(ip.substring(1));
-                    adjacencyList.put(newIp, new TreeSet<>());
-                    firstElement = false;
-                } else {
-                    newIp = new IP(ip.substring(1));
-                    addIP(newIp, rootList);
-                }
-                rootList.add(new IP(ip.substring(1)));
-
-            } else if (ip.contains(")")) {
-                int counter = 0;
-                for (int i = 0; i < ip.length(); i++) {
-                    if (ip.charAt(i) == ')') {
-                        counter++;
-                    }
-                }
-                newIp = new IP(ip.substring(0, ip.length() - counter));
-                addIP(newIp, rootList);
-                for (int i = 0; i < counter; i++) {
-                    rootList.removeLast();
-                }
+        this.frozen = false;
+        long begin = Instrumentation.start();
+        try {
+            if (bracketNotation == null) {
+                throw new ParseException("Null is not allowed");
+            }
+            try {
+                this.topology = BracketNotationParser.parse(new StringReader(bracketNotation));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.view = topology;
+            this.connectivity = new Connectivity(topology);
+        } catch (ParseException e) {
+            Instrumentation.rejected(Operation.PARSE);
+            throw e;
+        } finally {
+            Instrumentation.stop(Operation.PARSE, begin);
+        }
+    }
 
-            } else {
-                newIp = new IP(ip);
-                addIP(newIp, rootList);
+    /**
+     * The constructor creates a new Network instance and reads the bracket notation from a stream.
+     * The input is parsed in a single pass and never held in memory as a whole.
+     *
+     * @param bracketNotation source of the Network as bracket Notation
+     * @throws ParseException when the input was not correct, the offset of the error is reported
+     * @throws IOException when the input could not be read
+     */
+    public Network(final Reader bracketNotation) throws ParseException, IOException {
+
+        this.frozen = false;
+        long begin = Instrumentation.start();
+        try {
+            if (bracketNotation == null) {
+                throw new ParseException("Null is not allowed");
             }
+            this.topology = BracketNotationParser.parse(bracketNotation);
+            this.view = topology;
+            this.connectivity = new Connectivity(topology);
+        } catch (ParseException e) {
+            Instrumentation.rejected(Operation.PARSE);
+            throw e;
+        } finally {
+            Instrumentation.stop(Operation.PARSE, begin);
         }
     }
 
     /**
-     * The add Method add´s the tree topology of a given network to the other network.
-     * But only if the rules for a tree topology are not harmed.
+     * Creates a network on a topology that was loaded together with its connectivity index.
+     * @param topology the topology
+     * @param connectivity connectivity index of the topology
+     */
+    Network(final Topology topology, final Connectivity connectivity) {
+        this.frozen = false;
+        this.topology = topology;
+        this.view = topology;
+        this.connectivity = connectivity;
+    }
+
+    /**
+     * Creates a frozen network. A frozen network can´t be changed, so it can be read by many threads at once.
+     * @param view topology that is not changed anymore
+     * @param routeIndex route index of the topology or null
+     * @param eccentricities hights of the topology or null
+     * @param addresses address index of the topology or null
+     */
+    Network(final TopologyView view, final RouteIndex routeIndex, final Eccentricities eccentricities,
+            final AddressIndex addresses) {
+        this.frozen = true;
+        this.topology = null;
+        this.view = view;
+        this.routeIndex = routeIndex;
+        this.eccentricities = eccentricities;
+        this.addresses = addresses;
+    }
+
+    /**
+     * Returns a frozen view of the network in its current state in O(1).
+     * The view shares the tree topology´s and the indices that are already build with the network,
+     * later changes of the network copy only the parts they touch and are not visible in the view.
+     * All queries work on the view, changes throw an {@link UnsupportedOperationException}.
      *
-     * @param subnet Network input
-     * @return boolean if the add was successful or not
+     * @return the frozen network
      */
-    public boolean add(final Network subnet) {
+    public Network snapshot() {
+        long begin = Instrumentation.start();
+        try {
+            if (this.frozen) {
+                return this;
+            }
+            return new Network(this.topology.snapshot(), this.routeIndex, this.eccentricities, this.addresses);
+        } finally {
+            Instrumentation.stop(Operation.SNAPSHOT, begin);
+        }
+    }
+
+    /**
+     * Reads a network from a file in the binary format (see {@link #save(Path)}) into the heap.
+     * The file is checked completely, so the network is a valid tree topology afterwards.
+     *
+     * @param file the file
+     * @return the network
+     * @throws ParseException if the file is not a valid network file
+     * @throws IOException if the file could not be read
+     */
+    public static Network load(final Path file) throws ParseException, IOException {
+
+        long begin = Instrumentation.start();
+        try {
+            if (file == null) {
+                throw new ParseException("Null is not allowed");
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return BinaryFormat.read(channel);
+            }
+        } catch (ParseException e) {
+            Instrumentation.rejected(Operation.LOAD);
+            throw e;
+        } finally {
+            Instrumentation.stop(Operation.LOAD, begin);
+        }
+    }
+
+    /**
+     * Maps a file in the binary format (see {@link #save(Path)}) into memory and returns a frozen network
+     * that answers all queries straight from the mapped file. Opening the file costs O(1),
+     * only its header and size are checked.
+     * The file has to be trusted: a damaged file, e.g. with a cycle or a neighbour that does not exist,
+     * is not rejected and can make the queries throw unchecked exceptions, never finish until the memory
+     * is exhausted or return wrong results. Use {@link #map(Path, boolean)} to check an untrusted file.
+     *
+     * @param file the file
+     * @return the frozen network
+     * @throws ParseException if the file is not a valid network file
+     * @throws IOException if the file could not be mapped
+     */
+    public static Network map(final Path file) throws ParseException, IOException {
+        return map(file, false);
+    }
+
+    /**
+     * Maps a file in the binary format (see {@link #save(Path)}) into memory and returns a frozen network
+     * that answers all queries straight from the mapped file. If the file is checked, it is read once in O(n)
+     * without being copied into the heap and rejected like in {@link #load(Path)}, so the network is a valid
+     * tree topology afterwards. Otherwise only its header and size are checked, see {@link #map(Path)}.
+     *
+     * @param file the file
+     * @param check if the nodes and edges of the file are checked
+     * @return the frozen network
+     * @throws ParseException if the file is not a valid network file
+     * @throws IOException if the file could not be mapped
+     */
+    public static Network map(final Path file, final boolean check) throws ParseException, IOException {
 
-        if (!addValidation(subnet)) {
-            return false;
+        long begin = Instrumentation.start();
+        try {
+            if (file == null) {
+                throw new ParseException("Null is not allowed");
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new Network(BinaryFormat.map(channel, check), null, null, null);
+            }
+        } catch (ParseException e) {
+            Instrumentation.rejected(Operation.MAP);
+            throw e;
+        } finally {
+            Instrumentation.stop(Operation.MAP, begin);
         }
+    }
 
-        Map<IP, TreeSet<IP>> topologySave = new HashMap<>();
-        for (IP ip : this.adjacencyList.keySet()) {
-            topologySave.put(ip, new TreeSet<>(this.adjacencyList.get(ip)));
+    /**
+     * Writes the network to a file in a compact binary format. The sorted IP´s take 4 bytes
+     * each and every edge 8 bytes, the file can be read with {@link #load(Path)} or {@link #map(Path)}.
+     *
+     * @param file the file, it is replaced if it exists
+     * @throws IOException if the file could not be written
+     */
+    public void save(final Path file) throws IOException {
 
+        long begin = Instrumentation.start();
+        try {
+            if (file == null) {
+                throw new IllegalArgumentException("Null is not allowed");
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                BinaryFormat.write(this.view, channel);
+            }
+        } finally {
+            Instrumentation.stop(Operation.SAVE, begin);
         }
+    }
 
-        for (IP ip : subnet.adjacencyList.keySet()) {
-            if (!this.adjacencyList.containsKey(ip)) {
+    /**
+     * Starts to record every successful change of the network in an append only journal in a directory.
+     * The whole topology is written as the first checkpoint, afterwards a new checkpoint is written
+     * after every given number of changes, so {@link #recover(Path, SyncPolicy, int)} only has to replay
+     * the changes since the last checkpoint. A journal that was started before is closed.
+     * A change that can not be written to the journal throws an {@link java.io.UncheckedIOException}
+     * after the network was changed.
+     *
+     * @param directory directory of the journal, the files of an older journal in it are replaced
+     * @param policy when changes are forced to the storage device
+     * @param checkpointInterval number of changes after which a checkpoint is written, 0 for never
+     * @throws IllegalArgumentException if the directory or the policy is null or the interval is negative
+     * @throws IOException if the journal could not be written
+     */
+    public void startJournal(final Path directory, final SyncPolicy policy, final int checkpointInterval)
+            throws IOException {
 
-                this.adjacencyList.put(ip, new TreeSet<>());
-                this.adjacencyList.get(ip).addAll(subnet.adjacencyList.get(ip));
+        long begin = Instrumentation.start();
+        try {
+            checkMutable();
+            checkJournal(directory, policy, checkpointInterval);
+            closeJournal();
+            this.journal = Journal.start(directory, this.topology, policy, checkpointInterval);
+        } finally {
+            Instrumentation.stop(Operation.START_JOURNAL, begin);
+        }
+    }
 
-            } else {
-                this.adjacencyList.get(ip).addAll(subnet.adjacencyList.get(ip));
+    /**
+     * Recovers a network from the latest checkpoint in the directory of a journal and replays the changes
+     * recorded since then, so it takes time in proportion to the changes and not to the parsing
+     * of the bracket notation. The recovered network continues the journal.
+     *
+     * @param directory directory of the journal
+     * @param policy when changes are forced to the storage device
+     * @param checkpointInterval number of changes after which a checkpoint is written, 0 for never
+     * @return the recovered network
+     * @throws IllegalArgumentException if the directory or the policy is null or the interval is negative
+     * @throws ParseException if there is no checkpoint or a file of the journal is not valid
+     * @throws IOException if the journal could not be read or written
+     */
+    public static Network recover(final Path directory, final SyncPolicy policy, final int checkpointInterval)
+            throws ParseException, IOException {
+
+        long begin = Instrumentation.start();
+        try {
+            checkJournal(directory, policy, checkpointInterval);
+            return Journal.recover(directory, policy, checkpointInterval);
+        } catch (ParseException e) {
+            Instrumentation.rejected(Operation.RECOVER);
+            throw e;
+        } finally {
+            Instrumentation.stop(Operation.RECOVER, begin);
+        }
+    }
+
+    /**
+     * Writes a checkpoint of the whole topology now and starts an empty journal after it.
+     *
+     * @throws IllegalStateException if no journal was started
+     * @throws IOException if the checkpoint could not be written
+     */
+    public void checkpoint() throws IOException {
+        long begin = Instrumentation.start();
+        try {
+            if (this.journal == null) {
+                throw new IllegalStateException("No journal was started");
             }
+            this.journal.checkpoint();
+        } finally {
+            Instrumentation.stop(Operation.CHECKPOINT, begin);
         }
+    }
 
-        LinkedHashSet<IP> visited = new LinkedHashSet<>();
-        for (IP ip : this.adjacencyList.keySet()) {
-            if (!visited.contains(ip) && checkCycle(ip, null, visited)) {
-                this.adjacencyList.clear();
-                this.adjacencyList.putAll(topologySave);
+    /**
+     * Forces all recorded changes to the storage device and stops the journal.
+     * Nothing happens if no journal was started.
+     *
+     * @throws IOException if the journal could not be written
+     */
+    public void closeJournal() throws IOException {
+        long begin = Instrumentation.start();
+        try {
+            if (this.journal != null) {
+                Journal closed = this.journal;
+                this.journal = null;
+                closed.close();
+            }
+        } finally {
+            Instrumentation.stop(Operation.CLOSE_JOURNAL, begin);
+        }
+    }
+
+    /**
+     * The add Method add´s the tree topology of a given network to the other network.
+     * But only if the rules for a tree topology are not harmed.
+     * The subnet is validated before the network is changed.
+     *
+     * @param subnet Network input
+     * @return boolean if the add was successful or not
+     */
+    public boolean add(final Network subnet) {
+
+        long begin = Instrumentation.start();
+        try {
+            checkMutable();
+            if (subnet == null) {
+                Instrumentation.rejected(Operation.ADD);
+                return false;
+            }
+            Merge merge = new Merge(this.topology, this.connectivity);
+            if (!merge.stage(subnet.view)) {
+                Instrumentation.rejected(Operation.ADD);
+                Instrumentation.rolledBack(Operation.ADD, merge.stagedNodes());
                 return false;
             }
+            if (merge.isEmpty()) {
+                Instrumentation.rejected(Operation.ADD);
+                return false;
+            }
+            int[] added = merge.commit();
+            if (this.addresses != null) {
+                this.addresses = this.addresses.with(added);
+            }
+            subtrees = null;
+            renderings.clear();
+            modified();
+            if (this.journal != null) {
+                this.journal.added(Collections.singletonList(subnet.view));
+            }
+            return true;
+        } finally {
+            Instrumentation.stop(Operation.ADD, begin);
+        }
+    }
+
+    /**
+     * Add´s the tree topology´s of all given networks in a single transaction.
+     * Either all subnets are added or, if one of them is null or the subnets together would harm the rules
+     * for a tree topology, none of them.
+     *
+     * @param subnets Network inputs
+     * @return boolean if the network was changed
+     */
+    public boolean addAll(final Collection<Network> subnets) {
+
+        long begin = Instrumentation.start();
+        try {
+            checkMutable();
+            if (subnets == null) {
+                Instrumentation.rejected(Operation.ADD_ALL);
+                return false;
+            }
+            Merge merge = new Merge(this.topology, this.connectivity);
+            List<TopologyView> views = new ArrayList<>(subnets.size());
+            for (Network subnet : subnets) {
+                if (subnet == null || !merge.stage(subnet.view)) {
+                    Instrumentation.rejected(Operation.ADD_ALL);
+                    Instrumentation.rolledBack(Operation.ADD_ALL, merge.stagedNodes());
+                    return false;
+                }
+                views.add(subnet.view);
+            }
+            if (merge.isEmpty()) {
+                Instrumentation.rejected(Operation.ADD_ALL);
+                return false;
+            }
+            int[] added = merge.commit();
+            if (this.addresses != null) {
+                this.addresses = this.addresses.with(added);
+            }
+            subtrees = null;
+            renderings.clear();
+            modified();
+            if (this.journal != null) {
+                this.journal.added(views);
+            }
+            return true;
+        } finally {
+            Instrumentation.stop(Operation.ADD_ALL, begin);
         }
-        return true;
     }
 
     /**
      * Returns a list of all nodes.
-     * @return a list of all nodes existing in the tree topology
+     * The list is an unmodifiable view of the sorted address index, so it costs O(1) once the index is build.
+     * It shows the nodes of the moment it was returned and is not changed by later changes of the network.
+     * @return a sorted list of all nodes existing in the tree topology
      */
     public List<IP> list() {
-        List<IP> list = new ArrayList<>(this.adjacencyList.keySet());
-        Collections.sort(list);
-        return list;
+        long begin = Instrumentation.start();
+        try {
+            return addresses().all();
+        } finally {
+            Instrumentation.stop(Operation.LIST, begin);
+        }
+    }
+
+    /**
+     * Returns the nodes inside a range of IP´s given in the CIDR notation, like 10.20.0.0/16.
+     * The nodes are found in the sorted address index in O(log n + k).
+     * @param prefix first IP of the range, the bits after the prefix length are ignored
+     * @param length prefix length from 0 to 32
+     * @return a sorted unmodifiable list of the nodes inside the range
+     * @throws IllegalArgumentException if the prefix is null or the length is not between 0 and 32
+     */
+    public List<IP> list(final IP prefix, final int length) {
+        long begin = Instrumentation.start();
+        try {
+            checkPrefix(prefix, length);
+            return addresses().range(prefix.toInt(), length);
+        } finally {
+            Instrumentation.stop(Operation.LIST_RANGE, begin);
+        }
+    }
+
+    /**
+     * Returns the number of nodes inside a range of IP´s given in the CIDR notation, like 10.20.0.0/16,
+     * in O(log n).
+     * @param prefix first IP of the range, the bits after the prefix length are ignored
+     * @param length prefix length from 0 to 32
+     * @return the number of nodes inside the range
+     * @throws IllegalArgumentException if the prefix is null or the length is not between 0 and 32
+     */
+    public int count(final IP prefix, final int length) {
+        long begin = Instrumentation.start();
+        try {
+            checkPrefix(prefix, length);
+            return addresses().count(prefix.toInt(), length);
+        } finally {
+            Instrumentation.stop(Operation.COUNT_RANGE, begin);
+        }
     }
 
     /**
@@ -150,16 +516,42 @@ public List<IP> list() {
      */
     public boolean connect(final IP ip1, final IP ip2) {
 
-        if (contains(ip1) && contains(ip2)) {
+        long begin = Instrumentation.start();
+        try {
+            checkMutable();
+            int id1 = this.topology.idOf(ip1);
+            int id2 = this.topology.idOf(ip2);
+            if (id1 != Topology.NO_NODE && id2 != Topology.NO_NODE) {
 
-            if (traversal(ip1, new LinkedHashSet<>()).contains(ip2)) {
+                List<Rendering> above1 = renderingsOf(id1);
+                List<Rendering> above2 = renderingsOf(id2);
+                if (!this.connectivity.union(id1, id2)) {
+                    Instrumentation.rejected(Operation.CONNECT);
+                    return false;
+                }
+                this.topology.link(id1, id2);
+                for (Rendering rendering : above1) {
+                    rendering.connected(this.topology, id1, id2);
+                }
+                for (Rendering rendering : above2) {
+                    rendering.connected(this.topology, id2, id1);
+                }
+                if (this.subtrees != null) {
+                    this.subtrees.link(this.topology, id1, id2);
+                }
+                modified();
+                if (this.journal != null) {
+                    this.journal.connected(ip1.toInt(), ip2.toInt());
+                }
+                return true;
+            } else {
+                Instrumentation.rejected(Operation.CONNECT);
                 return false;
             }
-            this.adjacencyList.get(ip1).add(ip2);
-            this.adjacencyList.get(ip2).add(ip1);
-            return true;
-        } else return false;
 
+        } finally {
+            Instrumentation.stop(Operation.CONNECT, begin);
+        }
     }
 
     /**
@@ -170,24 +562,47 @@ public boolean connect(final IP ip1, final IP ip2) {
      * @return boolean if the disconnect was successful or not
      */
     public boolean disconnect(final IP ip1, final IP ip2) {
-        if (this.adjacencyList.size() == 2) {
-            return false;
-        }
-        //checks if the nodes the edge exists
-        if (contains(ip1) && contains(ip2)
-                && this.adjacencyList.get(ip1).contains(ip2)
-                && this.adjacencyList.get(ip2).contains(ip1)) {
-            this.adjacencyList.get(ip1).remove(ip2);
-            if (this.adjacencyList.get(ip1).isEmpty()) {
-                this.adjacencyList.remove(ip1);
+        long begin = Instrumentation.start();
+        try {
+            checkMutable();
+            if (this.topology.size() == 2) {
+                Instrumentation.rejected(Operation.DISCONNECT);
+                return false;
             }
-            this.adjacencyList.get(ip2).remove(ip1);
-            if (this.adjacencyList.get(ip2).isEmpty()) {
-                this.adjacencyList.remove(ip2);
+            int id1 = this.topology.idOf(ip1);
+            int id2 = this.topology.idOf(ip2);
+            //checks if the nodes the edge exists
+            if (id1 != Topology.NO_NODE && id2 != Topology.NO_NODE && this.topology.hasEdge(id1, id2)) {
+                disconnectRenderings(id1, id2);
+                this.topology.unlink(id1, id2);
+                if (this.subtrees != null) {
+                    this.subtrees.cut(this.topology, id1, id2);
+                }
+                int visited = 0;
+                if (this.topology.degree(id1) == 0) {
+                    this.topology.remove(id1);
+                    removed(ip1);
+                } else {
+                    visited += this.connectivity.rebuild(this.topology, id1);
+                }
+                if (this.topology.degree(id2) == 0) {
+                    this.topology.remove(id2);
+                    removed(ip2);
+                } else {
+                    visited += this.connectivity.rebuild(this.topology, id2);
+                }
+                Instrumentation.visited(Operation.DISCONNECT, visited);
+                modified();
+                if (this.journal != null) {
+                    this.journal.disconnected(ip1.toInt(), ip2.toInt());
+                }
+                return true;
+            } else {
+                Instrumentation.rejected(Operation.DISCONNECT);
+                return false;
             }
-            return true;
-        } else {
-            return false;
+        } finally {
+            Instrumentation.stop(Operation.DISCONNECT, begin);
         }
     }
 
@@ -197,52 +612,229 @@ public boolean disconnect(final IP ip1, final IP ip2) {
      * @return if the ip input exists in the tree Topology
      */
     public boolean contains(final IP ip) {
-        return this.adjacencyList.containsKey(ip);
+        long begin = Instrumentation.start();
+        try {
+            return this.view.idOf(ip) != Topology.NO_NODE;
+        } finally {
+            Instrumentation.stop(Operation.CONTAINS, begin);
+        }
+    }
+
+    /**
+     * Returns a fingerprint of all edges. The fingerprint does not depend on the order of the changes
+     * and is updated by every change in O(1), so networks with different fingerprints are different.
+     * @return the fingerprint
+     */
+    public long fingerprint() {
+        long begin = Instrumentation.start();
+        try {
+            return this.view.fingerprint();
+        } finally {
+            Instrumentation.stop(Operation.FINGERPRINT, begin);
+        }
+    }
+
+    /**
+     * Returns an estimate of the heap used by the tree topology´s in bytes.
+     * @return the estimated memory footprint
+     */
+    public long memoryFootprint() {
+        long begin = Instrumentation.start();
+        try {
+            return this.view.footprint();
+        } finally {
+            Instrumentation.stop(Operation.MEMORY_FOOTPRINT, begin);
+        }
     }
 
     /**
      * Returns the hight of the tree from a given root.
      * The hight is the number of level´s in the tree.
      * But starting with zero
+     * The hight is computed without building the levels and cached until the network is changed.
+     * A frozen network computes the hights of all roots at once and keeps them.
      *
      * @param root IP
      * @return the hight of the Tree
      */
     public int getHeight(final IP root) {
-        if (!this.adjacencyList.containsKey(root)) {
-            return 0;
-        } else {
-            return getLevels(root).size() - 1;
+        long begin = Instrumentation.start();
+        try {
+            int rootId = this.view.idOf(root);
+            if (rootId == Topology.NO_NODE) {
+                return 0;
+            }
+            Eccentricities all = this.eccentricities;
+            if (all != null) {
+                return all.of(rootId);
+            }
+            if (this.frozen) {
+                return eccentricities().of(rootId);
+            }
+            Levels levels = this.levelCache.get(rootId);
+            if (levels != null) {
+                return levels.height();
+            }
+            Integer height = this.heightCache.get(rootId);
+            if (height == null) {
+                height = Levels.height(this.view, rootId);
+                this.heightCache.put(rootId, height);
+            }
+            return height;
+        } finally {
+            Instrumentation.stop(Operation.GET_HEIGHT, begin);
         }
+    }
 
+    /**
+     * Returns the hight of the tree for every IP as root (its eccentricity).
+     * All hights are computed together in O(n) by rerooting every tree once.
+     *
+     * @return the hight for every IP of the network
+     */
+    public Map<IP, Integer> heights() {
+        long begin = Instrumentation.start();
+        try {
+            Eccentricities all = eccentricities();
+            Map<IP, Integer> heights = new HashMap<>();
+            for (int id = 0; id < this.view.bound(); id++) {
+                if (this.view.isNode(id)) {
+                    heights.put(this.view.address(id), all.of(id));
+                }
+            }
+            return heights;
+        } finally {
+            Instrumentation.stop(Operation.HEIGHTS, begin);
+        }
     }
 
     /**
-     * Returns a list of the levels in the tree topology. From a given root.
+     * Returns the hight of the tree for every given IP as root, see {@link #getHeight(IP)}.
+     * The hights of all IP´s are computed once and the batch is answered in parallel on a frozen view.
+     *
+     * @param roots IP´s
+     * @return the hights in the order of the roots, 0 for IP´s that are not part of the network
+     */
+    public List<Integer> heights(final Collection<IP> roots) {
+
+        long begin = Instrumentation.start();
+        try {
+            if (roots == null) {
+                throw new IllegalArgumentException("Null is not allowed");
+            }
+            eccentricities();
+            Network frozenView = snapshot();
+            return BatchQuery.run(roots, frozenView::getHeight);
+        } finally {
+            Instrumentation.stop(Operation.HEIGHTS_BATCH, begin);
+        }
+    }
+
+    /**
+     * Returns the length of the longest route in the network, counted in edges.
+     * If the network consists of several trees, the longest route of all trees is returned.
+     *
+     * @return the diameter
+     */
+    public int diameter() {
+        long begin = Instrumentation.start();
+        try {
+            return eccentricities().diameter();
+        } finally {
+            Instrumentation.stop(Operation.DIAMETER, begin);
+        }
+    }
+
+    /**
+     * Returns the centers of all trees, the IP´s with the smallest hight of their tree.
+     * Every tree has one or two centers.
+     *
+     * @return sorted list of the centers
+     */
+    public List<IP> centers() {
+        long begin = Instrumentation.start();
+        try {
+            Eccentricities all = eccentricities();
+            List<IP> centers = new ArrayList<>(all.centerCount());
+            for (int i = 0; i < all.centerCount(); i++) {
+                centers.add(this.view.address(all.center(i)));
+            }
+            Collections.sort(centers);
+            return centers;
+        } finally {
+            Instrumentation.stop(Operation.CENTERS, begin);
+        }
+    }
+
+    /**
+     * Returns a list of the levels in the tree view. From a given root.
      * Level 0 is a list with just the root.
      * Level 1 is a list from the Children of the root.
+     * The levels are cached until the network is changed, every call returns new lists.
+     * A frozen network does not cache the levels, so it can be read by many threads at once.
      *
      * @param root IP
      * @return List of Lists of IP´s
      */
     public List<List<IP>> getLevels(final IP root) {
 
-
-        List<List<IP>> levels = new LinkedList<>();
-        if (!this.adjacencyList.containsKey(root)) {
-            return levels;
-        }
-        levelList(root, 0, levels, null);
-        for (List<IP> level : levels) {
-            Collections.sort(level);
+        long begin = Instrumentation.start();
+        try {
+            int rootId = this.view.idOf(root);
+            if (rootId == Topology.NO_NODE) {
+                return new ArrayList<>();
+            }
+            if (this.frozen) {
+                Levels levels = Levels.of(this.view, rootId);
+                Instrumentation.visited(Operation.GET_LEVELS, levels.size());
+                return levels.toList();
+            }
+            Levels levels = this.levelCache.get(rootId);
+            if (levels == null) {
+                levels = Levels.of(this.view, rootId);
+                Instrumentation.visited(Operation.GET_LEVELS, levels.size());
+                this.levelCache.put(rootId, levels);
+            }
+            return levels.toList();
+        } finally {
+            Instrumentation.stop(Operation.GET_LEVELS, begin);
         }
-        return levels;
+    }
+
+    /**
+     * Returns the levels of the tree for every given IP as root, see {@link #getLevels(IP)}.
+     * The batch is answered in parallel on a frozen view, every worker reuses the buffers of its searches.
+     * The levels are not cached.
+     *
+     * @param roots IP´s
+     * @return the levels in the order of the roots, empty for IP´s that are not part of the network
+     */
+    public List<List<List<IP>>> levels(final Collection<IP> roots) {
 
+        long begin = Instrumentation.start();
+        try {
+            if (roots == null) {
+                throw new IllegalArgumentException("Null is not allowed");
+            }
+            TopologyView frozenView = snapshot().view;
+            return BatchQuery.run(roots, Levels.Scratch::new, (scratch, root) -> {
+                int rootId = frozenView.idOf(root);
+                if (rootId == Topology.NO_NODE) {
+                    return new ArrayList<>();
+                }
+                Levels levels = Levels.of(frozenView, rootId, scratch);
+                Instrumentation.visited(Operation.LEVELS_BATCH, levels.size());
+                return levels.toList();
+            });
+        } finally {
+            Instrumentation.stop(Operation.LEVELS_BATCH, begin);
+        }
     }
 
     /**
      * Returns the route from a start IP to an end IP in the tree.
      * The route is a list of IP´s with the start IP on the left and the end IP on the right.
+     * The route is read from the route index, so it costs O(log n + length of the route).
      *
      * @param start route start IP
      * @param end   route end IP
@@ -250,140 +842,415 @@ public List<List<IP>> getLevels(final IP root) {
      */
     public List<IP> getRoute(final IP start, final IP end) {
 
+        long begin = Instrumentation.start();
+        try {
+            int startId = this.view.idOf(start);
+            int endId = this.view.idOf(end);
+            if (startId == Topology.NO_NODE || endId == Topology.NO_NODE || startId == endId
+                    || !connected(startId, endId)) {
+                return new ArrayList<>();
+            }
+            RouteIndex index = routeIndex();
+            int ancestor = index.lowestCommonAncestor(startId, endId);
+            int length = index.depth(startId) + index.depth(endId) - 2 * index.depth(ancestor) + 1;
+            IP[] route = new IP[length];
+            int left = 0;
+            for (int id = startId; id != ancestor; id = index.parent(id)) {
+                route[left++] = this.view.address(id);
+            }
+            route[left] = this.view.address(ancestor);
+            int right = length - 1;
+            for (int id = endId; id != ancestor; id = index.parent(id)) {
+                route[right--] = this.view.address(id);
+            }
+            return new ArrayList<>(Arrays.asList(route));
+        } finally {
+            Instrumentation.stop(Operation.GET_ROUTE, begin);
+        }
+    }
+
+    /**
+     * Returns the routes between many pairs of IP´s, see {@link #getRoute(IP, IP)}.
+     * The route index is build once and the batch is answered in parallel on a frozen view.
+     *
+     * @param pairs start and end IP of every route
+     * @return the routes in the order of the pairs
+     * @throws IllegalArgumentException if a pair is null or has not exactly two IP´s
+     */
+    public List<List<IP>> routes(final List<IP[]> pairs) {
 
-        LinkedList<IP> route = new LinkedList<>();
-        if (start == null || end == null) {
-            return route;
+        long begin = Instrumentation.start();
+        try {
+            if (pairs == null) {
+                throw new IllegalArgumentException("Null is not allowed");
+            }
+            for (IP[] pair : pairs) {
+                if (pair == null || pair.length != 2) {
+                    throw new IllegalArgumentException("A pair needs a start and an end IP");
+                }
+            }
+            routeIndex();
+            Network frozenView = snapshot();
+            return BatchQuery.run(pairs, pair -> frozenView.getRoute(pair[0], pair[1]));
+        } finally {
+            Instrumentation.stop(Operation.ROUTES_BATCH, begin);
         }
-        if (start.equals(end) || !this.adjacencyList.containsKey(start) || !this.adjacencyList.containsKey(end)) {
-            return route;
+    }
+
+    /**
+     * Returns the number of edges on the route from a start IP to an end IP in O(log n).
+     *
+     * @param start route start IP
+     * @param end   route end IP
+     * @return the distance or -1 if there is no route
+     */
+    public int distance(final IP start, final IP end) {
+
+        long begin = Instrumentation.start();
+        try {
+            int startId = this.view.idOf(start);
+            int endId = this.view.idOf(end);
+            if (startId == Topology.NO_NODE || endId == Topology.NO_NODE
+                    || !connected(startId, endId)) {
+                return -1;
+            }
+            return routeIndex().distance(startId, endId);
+        } finally {
+            Instrumentation.stop(Operation.DISTANCE, begin);
+        }
+    }
+
+    /**
+     * Returns how the tree would be split by disconnecting the edge between two IP´s,
+     * without changing the network. The sizes of all subtrees are indexed once in O(n),
+     * then every impact is answered in O(1). Connecting and disconnecting update the index.
+     *
+     * @param ip1 input ip 1
+     * @param ip2 input ip 2
+     * @return the impact or null if there is no edge between the IP´s
+     */
+    public EdgeImpact impactOf(final IP ip1, final IP ip2) {
+
+        long begin = Instrumentation.start();
+        try {
+            int id1 = this.view.idOf(ip1);
+            int id2 = this.view.idOf(ip2);
+            if (id1 == Topology.NO_NODE || id2 == Topology.NO_NODE) {
+                return null;
+            }
+            SubtreeIndex index = subtrees();
+            int lower = index.lower(id1, id2);
+            if (lower == Topology.NO_NODE) {
+                return null;
+            }
+            return impact(index, lower);
+        } finally {
+            Instrumentation.stop(Operation.IMPACT_OF, begin);
+        }
+    }
+
+    /**
+     * Returns the edges that would cut off the most IP´s if they were disconnected, see {@link #impactOf(IP, IP)}.
+     * Edges that cut off the same number of IP´s are ordered by the IP that would be cut off from the root.
+     *
+     * @param count maximal number of edges
+     * @return the most critical edges, starting with the most critical one
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public List<EdgeImpact> criticalEdges(final int count) {
+
+        long begin = Instrumentation.start();
+        try {
+            if (count < 0) {
+                throw new IllegalArgumentException("The count can not be negative");
+            }
+            SubtreeIndex index = subtrees();
+            int[] lower = index.critical(this.view, count);
+            List<EdgeImpact> edges = new ArrayList<>(lower.length);
+            for (int id : lower) {
+                edges.add(impact(index, id));
+            }
+            return edges;
+        } finally {
+            Instrumentation.stop(Operation.CRITICAL_EDGES, begin);
         }
-        route(start, end, new LinkedHashSet<>(), route);
-        return route;
     }
 
     /**
      * Returns the networstructure as bracket notation from the given IP as root.
+     * The notations of the last used roots are cached (see {@link Rendering}), a connect or disconnect
+     * changes only the fragments on the path from the edge to the root, an add drops the cache.
+     * So a repeated call for an unchanged root costs O(1).
      * @param root IP
      * @return Bracketnotaion as string
      */
     public String toString(IP root) {
 
-        if (root == null || !this.adjacencyList.containsKey(root)) {
-            return "";
+        long begin = Instrumentation.start();
+        try {
+            int rootId = this.view.idOf(root);
+            if (rootId == Topology.NO_NODE) {
+                return "";
+            }
+            if (!this.frozen) {
+                Rendering rendering = this.renderings.get(rootId);
+                if (rendering != null) {
+                    return rendering.notation();
+                }
+            }
+            StringBuilder sb = new StringBuilder();
+            try {
+                Instrumentation.visited(Operation.TO_STRING, BracketNotationWriter.write(this.view, rootId, sb));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            String notation = sb.toString();
+            if (!this.frozen) {
+                this.renderings.put(rootId, new Rendering(this.view, rootId, notation));
+            }
+            return notation;
+        } finally {
+            Instrumentation.stop(Operation.TO_STRING, begin);
         }
-        StringBuilder sb = new StringBuilder();
-        bracketNotation(root, null, sb);
-
-        return sb.toString();
     }
 
     /**
-     * Method do travel through the Tree. (based on DFS algorithm)
-     * @param root starting point
-     * @param visited set of visited nodes
-     * @return the List of the Visited nodes
+     * Writes the networkstructure as bracket notation from the given IP as root to an Appendable,
+     * for example a Writer or a StringBuilder. The output is the same as {@link #toString(IP)}, but it is
+     * streamed in blocks of a fixed size, so it is never build as a whole in memory.
+     * Nothing is written if the IP is not part of the network.
+     *
+     * @param root IP
+     * @param out target of the bracket notation
+     * @throws IOException if the target fails
      */
-    private HashSet<IP> traversal(IP root, LinkedHashSet<IP> visited) {
+    public void writeTo(final IP root, final Appendable out) throws IOException {
 
-        visited.add(root);
-
-        for (IP ip : this.adjacencyList.get(root)) {
-            if (!visited.contains(ip)) {
-                traversal(ip, visited);
+        long begin = Instrumentation.start();
+        try {
+            if (out == null) {
+                throw new IllegalArgumentException("Null is not allowed");
+            }
+            int rootId = this.view.idOf(root);
+            if (rootId != Topology.NO_NODE) {
+                Instrumentation.visited(Operation.WRITE_TO, BracketNotationWriter.write(this.view, rootId, out));
             }
+        } finally {
+            Instrumentation.stop(Operation.WRITE_TO, begin);
         }
-        return visited;
     }
 
     /**
-     * Checks if the Tree contains a cycle. (based on DFS algorithm)
-     * @param root starting point
-     * @param parent parent of the node
-     * @param visited Set of visited nodes
-     * @return if there is a cycle or not
+     * Writes the networkstructure as bracket notation from the given IP as root to a channel.
+     * The bracket notation is written as ASCII bytes, see {@link #writeTo(IP, Appendable)}.
+     *
+     * @param root IP
+     * @param out target of the bracket notation
+     * @throws IOException if the target fails
      */
-    private boolean checkCycle(IP root, IP parent, LinkedHashSet<IP> visited) {
-
-        visited.add(root);
+    public void writeTo(final IP root, final WritableByteChannel out) throws IOException {
 
-        for (IP ip : adjacencyList.get(root)) {
-            if (!ip.equals(parent) && visited.contains(ip)) {
-                return true;
+        long begin = Instrumentation.start();
+        try {
+            if (out == null) {
+                throw new IllegalArgumentException("Null is not allowed");
             }
-            if (!visited.contains(ip) && checkCycle(ip, root, visited)) {
-                return true;
+            int rootId = this.view.idOf(root);
+            if (rootId != Topology.NO_NODE) {
+                Instrumentation.visited(Operation.WRITE_TO, BracketNotationWriter.write(this.view, rootId, out));
             }
+        } finally {
+            Instrumentation.stop(Operation.WRITE_TO, begin);
         }
-        return false;
     }
 
     /**
-     * Checks if there is a route and saves the route in a Set. (based on DFS algorithm)
-     * @param start starting point of the route
-     * @param end end point of the route
-     * @param visited Set of visited notes
-     * @param route List of the IP´s of the route
-     * @return boolean if there is a route or not
+     * Returns the tree topology´s of the network to read them.
+     * @return the topology
      */
-    private boolean route(IP start, IP end, LinkedHashSet<IP> visited, LinkedList<IP> route) {
+    TopologyView view() {
+        return this.view;
+    }
 
-        visited.add(start);
-        route.add(start);
-        if (start.equals(end)) {
-            return true;
+    /**
+     * Returns the route index and builds it if the network was changed since it was used the last time.
+     * @return the route index
+     */
+    private RouteIndex routeIndex() {
+        RouteIndex index = routeIndex;
+        if (index == null) {
+            long begin = Instrumentation.start();
+            index = new RouteIndex(view);
+            Instrumentation.stop(Operation.ROUTE_INDEX, begin);
+            Instrumentation.visited(Operation.ROUTE_INDEX, view.size());
+            routeIndex = index;
         }
+        return index;
+    }
 
-        for (IP ip : adjacencyList.get(start)) {
-            if (!visited.contains(ip) && route(ip, end, visited, route)) {
-                return true;
-            }
+    /**
+     * Returns if there is a route between two nodes.
+     * A frozen network has no connectivity index, the roots of the route index are compared instead.
+     * @param id1 first node
+     * @param id2 second node
+     * @return if both nodes are in the same tree
+     */
+    private boolean connected(int id1, int id2) {
+        if (this.frozen) {
+            RouteIndex index = routeIndex();
+            return index.ancestor(id1, 0) == index.ancestor(id2, 0);
         }
-        route.removeLast();
-        return false;
+        return this.connectivity.connected(id1, id2);
     }
 
     /**
-     * Builds a tree into the bracketnotation. (based on DFS algorithm)
-     * @param root root of the tree
-     * @param parent parent of the node
-     * @param result StringBuilder where the bracketnotaion is saved
+     * Continues a journal that recovered the network.
+     * @param recovered the journal
      */
-    private void bracketNotation(IP root, IP parent, StringBuilder result) {
+    void attach(final Journal recovered) {
+        this.journal = recovered;
+    }
 
-        if (adjacencyList.get(root).size() == 1 && parent != null) {
-            result.append(root);
-        } else {
-            result.append("(").append(root).append(" ");
-            for (IP ip : adjacencyList.get(root)) {
-                if (!ip.equals(parent)) {
-                    bracketNotation(ip, root, result);
-                    result.append(" ");
-                }
-            }
-            result.replace(result.length() - 1, result.length(), "");
-            result.append(")");
+    private static void checkJournal(Path directory, SyncPolicy policy, int checkpointInterval) {
+        if (directory == null || policy == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException("The checkpoint interval must not be negative");
         }
     }
 
     /**
-     * Puts all Levels of the Tree into a list. (based on DFS algorithm)
-     * @param root starting point
-     * @param level current level
-     * @param list list where the different levels are saved
-     * @param parent parent of the node
+     * Returns the sorted address index and builds it if it was not used yet.
+     * @return the address index of the current nodes
      */
-    private void levelList(IP root, int level, List<List<IP>> list, IP parent) {
+    AddressIndex addresses() {
+        AddressIndex index = addresses;
+        if (index == null) {
+            long begin = Instrumentation.start();
+            index = new AddressIndex(view);
+            Instrumentation.stop(Operation.ADDRESS_INDEX, begin);
+            Instrumentation.visited(Operation.ADDRESS_INDEX, view.size());
+            addresses = index;
+        }
+        return index;
+    }
 
-        if (list.size() == level) {
-            list.add(new LinkedList<>());
+    private void removed(IP ip) {
+        if (this.addresses != null) {
+            this.addresses = this.addresses.without(ip.toInt());
+        }
+    }
+
+    /**
+     * Returns the cached renderings of the roots that are in the same tree as a node.
+     * @param id the node
+     * @return the renderings
+     */
+    private List<Rendering> renderingsOf(int id) {
+        if (this.renderings.isEmpty()) {
+            return Collections.emptyList();
         }
-        list.get(level).add(root);
-        for (IP ip : adjacencyList.get(root)) {
-            if (!ip.equals(parent)) {
-                levelList(ip, level + 1, list, root);
+        List<Rendering> found = new ArrayList<>(CACHED_RENDERINGS);
+        for (Map.Entry<Integer, Rendering> entry : this.renderings.entrySet()) {
+            if (this.connectivity.connected(entry.getKey(), id)) {
+                found.add(entry.getValue());
             }
         }
+        return found;
+    }
+
+    /**
+     * Removes an edge from the cached renderings of the roots in its tree, before it is unlinked.
+     * A rendering whose root loses its last edge is dropped.
+     * @param id1 first node of the edge
+     * @param id2 second node of the edge
+     */
+    private void disconnectRenderings(int id1, int id2) {
+        Iterator<Map.Entry<Integer, Rendering>> entries = this.renderings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Integer, Rendering> entry = entries.next();
+            if (this.connectivity.connected(entry.getKey(), id1)
+                    && !entry.getValue().disconnecting(this.topology, id1, id2)) {
+                entries.remove();
+            }
+        }
+    }
+
+    private static void checkPrefix(IP prefix, int length) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        if (length < 0 || length > AddressIndex.MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("A prefix length has to be between 0 and 32");
+        }
+    }
+
+    /**
+     * Returns the subtree index and builds it if the network was changed by adding subnets.
+     * @return the subtree index
+     */
+    private SubtreeIndex subtrees() {
+        SubtreeIndex index = subtrees;
+        if (index == null) {
+            long begin = Instrumentation.start();
+            index = new SubtreeIndex(view);
+            Instrumentation.stop(Operation.SUBTREE_INDEX, begin);
+            Instrumentation.visited(Operation.SUBTREE_INDEX, view.size());
+            subtrees = index;
+        }
+        return index;
+    }
+
+    /**
+     * Creates the impact of the edge above a node.
+     * @param index the subtree index
+     * @param lower the lower node of the edge
+     * @return the impact
+     */
+    private EdgeImpact impact(SubtreeIndex index, int lower) {
+        int below = index.size(lower);
+        int above = index.treeSize(lower) - below;
+        IP lowerIp = this.view.address(lower);
+        Edge edge = new Edge(lowerIp, this.view.address(index.parent(lower)));
+        return edge.getFirst().equals(lowerIp) ? new EdgeImpact(edge, below, above)
+                : new EdgeImpact(edge, above, below);
+    }
+
+    /**
+     * Checks that the network is not frozen before it is changed.
+     * @throws UnsupportedOperationException if the network is frozen
+     */
+    private void checkMutable() {
+        if (this.frozen) {
+            throw new UnsupportedOperationException(FROZEN);
+        }
+    }
+
+    /**
+     * Returns the hights of all IP´s and computes them if the network was changed since they were used.
+     * @return the eccentricities
+     */
+    private Eccentricities eccentricities() {
+        Eccentricities all = eccentricities;
+        if (all == null) {
+            long begin = Instrumentation.start();
+            all = new Eccentricities(view);
+            Instrumentation.stop(Operation.ECCENTRICITIES, begin);
+            Instrumentation.visited(Operation.ECCENTRICITIES, view.size());
+            eccentricities = all;
+        }
+        return all;
+    }
+
+    /**
+     * Drops all indices that depend on the tree topology´s after a successful change.
+     */
+    private void modified() {
+        routeIndex = null;
+        eccentricities = null;
+        levelCache.clear();
+        heightCache.clear();
     }
 
     /**
@@ -419,80 +1286,38 @@ private TreeSet<IP> constructorInputValidation(IP root, List<IP> children) throw
     }
 
     /**
-     * Checks if the Input was correct.
-     * @param bracketNotation a Tree in bracket notation
-     * @throws ParseException if the input was not correct
-     */
-    private void constructorInputValidation(String bracketNotation) throws ParseException {
-
-        if (bracketNotation == null) {
-            throw new ParseException("Null is not allowed");
-        }
-        int bracketCounter = 0;
-        if (bracketNotation.length() < SMALLEST_NOTATION_POSSIBLE) {
-            throw new ParseException("not enough chars vor a valid input");
-        }
-        if (bracketNotation.charAt(0) != '(' || bracketNotation.charAt(bracketNotation.length() - 1) != ')') {
-            throw new ParseException("no existing brackets");
-        }
-        for (char c : bracketNotation.toCharArray()) {
-            if (c == '(') {
-                bracketCounter++;
-            } else if (c == ')') {
-                bracketCounter--;
-            }
-        }
-        if (bracketCounter != 0) {
-            throw new ParseException("Number of Opened and Closed Brackets are not equal");
-        }
-    }
-
-    /**
-     * Adds a new IP and connects it with the last element of the root List and adds it to the adjacency list.
-     * @param ip new node
-     * @param rootList list of roots (root of every subtree)
-     * @throws ParseException if the IP already exists
+     * Compares the nodes and edges of two networks.
+     * Networks with different fingerprints are rejected in O(1), otherwise only the parts of the
+     * tree topology´s that were changed since they were shared are compared (see {@link NetworkDiff}).
+     *
+     * @param o other object
+     * @return if the other object is a network with the same nodes and edges
      */
-    private void addIP(IP ip, LinkedList<IP> rootList) throws ParseException {
-
-        if (adjacencyList.containsKey(ip)) {
-            throw new ParseException(ILLEGAL_TREE_TOPOLOGY);
+    @Override
+    public boolean equals(Object o) {
+        long begin = Instrumentation.start();
+        try {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Network network = (Network) o;
+            return NetworkDiff.equal(view, network.view);
+        } finally {
+            Instrumentation.stop(Operation.EQUALS, begin);
         }
-        adjacencyList.put(ip, new TreeSet<>());
-        connect(rootList.getLast(), ip);
     }
 
     /**
-     * Checks if the subnet is null or a part tree
-     * @param subnet Network to check
-     * @return if the Validation was true
+     * Returns a hash of the edges in O(1), derived from the fingerprint.
+     * @return the hash code
      */
-    private boolean addValidation(Network subnet) {
-
-        if (subnet == null) {
-            return false;
-        }
-        for (IP ip: subnet.adjacencyList.keySet()) {
-            if (!this.adjacencyList.containsKey(ip)) {
-                return true;
-            }
-            if (!this.adjacencyList.get(ip).containsAll(subnet.adjacencyList.get(ip))) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Network network = (Network) o;
-        return Objects.equals(adjacencyList, network.adjacencyList);
-    }
-
     @Override
     public int hashCode() {
-        return Objects.hash(adjacencyList);
+        long begin = Instrumentation.start();
+        try {
+            long fingerprint = view.fingerprint();
+            return (int) (fingerprint ^ (fingerprint >>> Integer.SIZE));
+        } finally {
+            Instrumentation.stop(Operation.HASH_CODE, begin);
+        }
     }
 }
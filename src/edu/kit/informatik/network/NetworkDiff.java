@@ -0,0 +1,178 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The class NetworkDiff holds the nodes and edges that were added or removed between two networks.
+ * Only the pages of the tree topology´s that were changed since the networks shared them
+ * (see {@link Network#snapshot()}) are compared, so the diff of a network and one of its snapshots costs time
+ * in proportion to the number of changes. Networks that share nothing are compared completely in O(n).
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class NetworkDiff {
+
+    private final List<IP> addedNodes = new ArrayList<>();
+    private final List<IP> removedNodes = new ArrayList<>();
+    private final List<Edge> addedEdges = new ArrayList<>();
+    private final List<Edge> removedEdges = new ArrayList<>();
+
+    private NetworkDiff() {
+    }
+
+    /**
+     * Computes the changes that turn one network into another.
+     * @param from the older network
+     * @param to the newer network
+     * @return the diff
+     * @throws IllegalArgumentException if a network is null
+     */
+    public static NetworkDiff between(final Network from, final Network to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        NetworkDiff diff = new NetworkDiff();
+        compare(from.view(), to.view(), diff);
+        Collections.sort(diff.addedNodes);
+        Collections.sort(diff.removedNodes);
+        Collections.sort(diff.addedEdges);
+        Collections.sort(diff.removedEdges);
+        return diff;
+    }
+
+    /**
+     * Returns if two topology´s have the same nodes and edges, stops at the first difference.
+     * @param from first topology
+     * @param to second topology
+     * @return if there is no difference
+     */
+    static boolean equal(TopologyView from, TopologyView to) {
+        return from.size() == to.size() && from.fingerprint() == to.fingerprint() && compare(from, to, null);
+    }
+
+    /**
+     * Returns the IP´s that were added, sorted.
+     * @return the added nodes
+     */
+    public List<IP> getAddedNodes() {
+        return Collections.unmodifiableList(addedNodes);
+    }
+
+    /**
+     * Returns the IP´s that were removed, sorted.
+     * @return the removed nodes
+     */
+    public List<IP> getRemovedNodes() {
+        return Collections.unmodifiableList(removedNodes);
+    }
+
+    /**
+     * Returns the edges that were added, sorted.
+     * @return the added edges
+     */
+    public List<Edge> getAddedEdges() {
+        return Collections.unmodifiableList(addedEdges);
+    }
+
+    /**
+     * Returns the edges that were removed, sorted.
+     * @return the removed edges
+     */
+    public List<Edge> getRemovedEdges() {
+        return Collections.unmodifiableList(removedEdges);
+    }
+
+    /**
+     * Returns if both networks were equal.
+     * @return if nothing was changed
+     */
+    public boolean isEmpty() {
+        return addedNodes.isEmpty() && removedNodes.isEmpty() && addedEdges.isEmpty() && removedEdges.isEmpty();
+    }
+
+    /**
+     * Compares the changed pages of two topology´s. A changed edge changes the neighbours of both its nodes,
+     * so both nodes are on changed pages and the edge is reported by the node with the smaller IP.
+     * @param from the older topology
+     * @param to the newer topology
+     * @param diff diff to fill or null to stop at the first difference
+     * @return if there was no difference
+     */
+    private static boolean compare(TopologyView from, TopologyView to, NetworkDiff diff) {
+        int pages = Math.max(from.pageCount(), to.pageCount());
+        for (int page = 0; page < pages; page++) {
+            if (from.samePage(to, page)) {
+                continue;
+            }
+            int start = page << PagedInts.PAGE_BITS;
+            for (int id = start; id < Math.min(start + PagedInts.PAGE_SIZE, from.bound()); id++) {
+                if (from.isNode(id) && !compareNode(from, id, to, to.idOf(from.packed(id)), diff) && diff == null) {
+                    return false;
+                }
+            }
+            for (int id = start; id < Math.min(start + PagedInts.PAGE_SIZE, to.bound()); id++) {
+                if (to.isNode(id) && from.idOf(to.packed(id)) == Topology.NO_NODE) {
+                    if (diff == null) {
+                        return false;
+                    }
+                    compareNode(from, Topology.NO_NODE, to, id, diff);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the neighbours of a node in both topology´s, both lists are sorted by IP.
+     * @param from the older topology
+     * @param fromId id of the node in the older topology or {@link Topology#NO_NODE}
+     * @param to the newer topology
+     * @param toId id of the node in the newer topology or {@link Topology#NO_NODE}
+     * @param diff diff to fill or null to stop at the first difference
+     * @return if there was no difference
+     */
+    private static boolean compareNode(TopologyView from, int fromId, TopologyView to, int toId,
+            NetworkDiff diff) {
+        int packed = fromId != Topology.NO_NODE ? from.packed(fromId) : to.packed(toId);
+        if (toId == Topology.NO_NODE || fromId == Topology.NO_NODE) {
+            if (diff == null) {
+                return false;
+            }
+            (toId == Topology.NO_NODE ? diff.removedNodes : diff.addedNodes).add(IP.valueOf(packed));
+        }
+        int fromDegree = fromId == Topology.NO_NODE ? 0 : from.degree(fromId);
+        int toDegree = toId == Topology.NO_NODE ? 0 : to.degree(toId);
+        int i = 0;
+        int k = 0;
+        boolean equal = true;
+        while (i < fromDegree || k < toDegree) {
+            int fromNeighbour = i < fromDegree ? from.packed(from.neighbour(fromId, i)) : 0;
+            int toNeighbour = k < toDegree ? to.packed(to.neighbour(toId, k)) : 0;
+            int comparison = i == fromDegree ? 1 : k == toDegree ? -1
+                    : Integer.compareUnsigned(fromNeighbour, toNeighbour);
+            if (comparison == 0) {
+                i++;
+                k++;
+                continue;
+            }
+            if (diff == null) {
+                return false;
+            }
+            equal = false;
+            int neighbour = comparison < 0 ? fromNeighbour : toNeighbour;
+            if (Integer.compareUnsigned(packed, neighbour) < 0) {
+                Edge edge = new Edge(IP.valueOf(packed), IP.valueOf(neighbour));
+                (comparison < 0 ? diff.removedEdges : diff.addedEdges).add(edge);
+            }
+            if (comparison < 0) {
+                i++;
+            } else {
+                k++;
+            }
+        }
+        return equal && fromId != Topology.NO_NODE && toId != Topology.NO_NODE;
+    }
+}
@@ -0,0 +1,65 @@
+package edu.kit.informatik.network;
+
+/**
+ * The interface NetworkMetrics receives measurements of the operations on networks and IP´s.
+ * One instance is installed for the whole program, by default {@link #NOOP}. As long as it is installed
+ * the operations do not even read the clock, so the measurements cost nothing when they are not needed.
+ * All methods can be called by many threads at once and have to return quickly.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public interface NetworkMetrics {
+
+    /**
+     * Ignores all measurements.
+     */
+    NetworkMetrics NOOP = new NetworkMetrics() { };
+
+    /**
+     * Installs the metrics that receive all following measurements.
+     * @param metrics the metrics or null to install {@link #NOOP}
+     */
+    static void install(final NetworkMetrics metrics) {
+        Instrumentation.install(metrics == null ? NOOP : metrics);
+    }
+
+    /**
+     * Returns the installed metrics.
+     * @return the metrics
+     */
+    static NetworkMetrics installed() {
+        return Instrumentation.installed();
+    }
+
+    /**
+     * Receives the time an operation took, also if it failed with an exception.
+     * @param operation the operation
+     * @param nanos the time in nanoseconds
+     */
+    default void latency(Operation operation, long nanos) {
+    }
+
+    /**
+     * Receives the number of nodes a traversal of an operation visited.
+     * @param operation the operation
+     * @param nodes the number of visited nodes
+     */
+    default void visited(Operation operation, long nodes) {
+    }
+
+    /**
+     * Receives a change or an input that was rejected, for example a connect that would close a cycle.
+     * @param operation the operation
+     */
+    default void rejected(Operation operation) {
+    }
+
+    /**
+     * Receives a transaction that was rolled back together with the number of nodes it had staged.
+     * @param operation the operation
+     * @param staged the number of staged nodes that were dropped
+     */
+    default void rolledBack(Operation operation, long staged) {
+    }
+}
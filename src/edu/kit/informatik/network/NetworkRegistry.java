@@ -0,0 +1,152 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The class NetworkRegistry manages many named networks that share an address space and answers
+ * which of them contain an IP from one inverted index (see {@link InvertedIndex}).
+ * The inverted index holds every distinct IP once as a packed int, with the networks that contain it,
+ * so the registry itself grows with the distinct IP´s and the memberships. The address storage is not
+ * shared: every registered network keeps its own topology and address index, so the heap of the
+ * networks still grows with the sum of their sizes.
+ * The registered networks can still be changed. Every change of the nodes of a network replaces its sorted
+ * address index (see {@link AddressIndex}), so before a query the registry updates only the networks whose
+ * index is not the one it has indexed, by comparing the old and the new index. The two versions share
+ * the chunks that were not changed, so this takes time in proportion to the changed chunks.
+ * All methods of the registry are synchronized.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class NetworkRegistry {
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final List<Entry> slots = new ArrayList<>();
+    private final InvertedIndex index = new InvertedIndex();
+
+    /**
+     * Registers a network under a name, a network that was registered under the name before is replaced.
+     * @param name the name
+     * @param network the network
+     * @return the replaced network or null
+     * @throws IllegalArgumentException if the name or the network is null
+     */
+    public synchronized Network register(final String name, final Network network) {
+        if (name == null || network == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        Network replaced = unregister(name);
+        int slot = slots.indexOf(null);
+        if (slot < 0) {
+            slot = slots.size();
+            slots.add(null);
+        }
+        Entry entry = new Entry(name, network, slot);
+        entries.put(name, entry);
+        slots.set(slot, entry);
+        return replaced;
+    }
+
+    /**
+     * Removes the network of a name from the registry.
+     * @param name the name
+     * @return the removed network or null if no network was registered under the name
+     */
+    public synchronized Network unregister(final String name) {
+        Entry entry = entries.remove(name);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.indexed != null) {
+            for (int i = 0; i < entry.indexed.size(); i++) {
+                index.remove(entry.indexed.packed(i), entry.slot);
+            }
+        }
+        slots.set(entry.slot, null);
+        return entry.network;
+    }
+
+    /**
+     * Returns the network of a name.
+     * @param name the name
+     * @return the network or null if no network was registered under the name
+     */
+    public synchronized Network get(final String name) {
+        Entry entry = entries.get(name);
+        return entry == null ? null : entry.network;
+    }
+
+    /**
+     * Returns the names of all registered networks.
+     * @return the sorted names
+     */
+    public synchronized SortedSet<String> names() {
+        return Collections.unmodifiableSortedSet(new TreeSet<>(entries.keySet()));
+    }
+
+    /**
+     * Returns the names of the networks that contain an IP.
+     * @param ip the IP
+     * @return the sorted names, empty for null
+     */
+    public synchronized SortedSet<String> networksContaining(final IP ip) {
+        SortedSet<String> names = new TreeSet<>();
+        if (ip == null) {
+            return names;
+        }
+        refresh();
+        for (int slot : index.slotsOf(ip.toInt())) {
+            names.add(slots.get(slot).name);
+        }
+        return names;
+    }
+
+    /**
+     * Returns the number of distinct IP´s over all registered networks.
+     * @return the number of IP´s that are in at least one network
+     */
+    public synchronized int distinctAddresses() {
+        refresh();
+        return index.size();
+    }
+
+    /**
+     * Brings the inverted index up to date with every network whose nodes were changed since it was indexed.
+     * The address indices can not be changed, so the same index means the same nodes.
+     */
+    private void refresh() {
+        for (Entry entry : entries.values()) {
+            AddressIndex current = entry.network.addresses();
+            if (current == entry.indexed) {
+                continue;
+            }
+            AddressIndex old = entry.indexed == null ? AddressIndex.EMPTY : entry.indexed;
+            current.difference(old, packed -> index.add(packed, entry.slot),
+                    packed -> index.remove(packed, entry.slot));
+            entry.indexed = current;
+        }
+    }
+
+    /**
+     * A registered network together with the state the inverted index has of it.
+     */
+    private static final class Entry {
+
+        private final String name;
+        private final Network network;
+        private final int slot;
+        private AddressIndex indexed;
+
+        Entry(String name, Network network, int slot) {
+            this.name = name;
+            this.network = network;
+            this.slot = slot;
+        }
+    }
+}
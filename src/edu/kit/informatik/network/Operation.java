@@ -0,0 +1,176 @@
+package edu.kit.informatik.network;
+
+/**
+ * The enum Operation names the operations that are reported to the installed {@link NetworkMetrics}.
+ * Every public method of {@link Network} has an operation, the builds of the lazy indices have their own
+ * operations, so a slow query can be told apart from the index it had to build first.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public enum Operation {
+    /**
+     * A network is created from a root and its children.
+     */
+    CREATE,
+    /**
+     * A network is parsed from the bracket notation.
+     */
+    PARSE,
+    /**
+     * A network is read from a binary file.
+     */
+    LOAD,
+    /**
+     * A binary file is mapped into memory.
+     */
+    MAP,
+    /**
+     * A network is written to a binary file.
+     */
+    SAVE,
+    /**
+     * A journal is started.
+     */
+    START_JOURNAL,
+    /**
+     * A network is recovered from a journal.
+     */
+    RECOVER,
+    /**
+     * A checkpoint of a journal is written.
+     */
+    CHECKPOINT,
+    /**
+     * A journal is closed.
+     */
+    CLOSE_JOURNAL,
+    /**
+     * A frozen snapshot is taken.
+     */
+    SNAPSHOT,
+    /**
+     * A subnet is added.
+     */
+    ADD,
+    /**
+     * Several subnets are added in one transaction.
+     */
+    ADD_ALL,
+    /**
+     * All IP´s are listed.
+     */
+    LIST,
+    /**
+     * The IP´s inside a range are listed.
+     */
+    LIST_RANGE,
+    /**
+     * The IP´s inside a range are counted.
+     */
+    COUNT_RANGE,
+    /**
+     * Two IP´s are connected.
+     */
+    CONNECT,
+    /**
+     * Two IP´s are disconnected.
+     */
+    DISCONNECT,
+    /**
+     * An IP is looked up.
+     */
+    CONTAINS,
+    /**
+     * The fingerprint is read.
+     */
+    FINGERPRINT,
+    /**
+     * Two networks are compared.
+     */
+    EQUALS,
+    /**
+     * The hash code is read.
+     */
+    HASH_CODE,
+    /**
+     * The memory footprint is estimated.
+     */
+    MEMORY_FOOTPRINT,
+    /**
+     * The hight of a tree is computed.
+     */
+    GET_HEIGHT,
+    /**
+     * The hights of all IP´s are listed.
+     */
+    HEIGHTS,
+    /**
+     * The hights of a batch of roots are computed.
+     */
+    HEIGHTS_BATCH,
+    /**
+     * The diameter is computed.
+     */
+    DIAMETER,
+    /**
+     * The centers are computed.
+     */
+    CENTERS,
+    /**
+     * The levels of a tree are computed.
+     */
+    GET_LEVELS,
+    /**
+     * The levels of a batch of roots are computed.
+     */
+    LEVELS_BATCH,
+    /**
+     * A route is computed.
+     */
+    GET_ROUTE,
+    /**
+     * The routes of a batch of pairs are computed.
+     */
+    ROUTES_BATCH,
+    /**
+     * A distance is computed.
+     */
+    DISTANCE,
+    /**
+     * The impact of a disconnect is computed.
+     */
+    IMPACT_OF,
+    /**
+     * The most critical edges are ranked.
+     */
+    CRITICAL_EDGES,
+    /**
+     * A tree is converted to the bracket notation.
+     */
+    TO_STRING,
+    /**
+     * A tree is written as bracket notation to a stream.
+     */
+    WRITE_TO,
+    /**
+     * The route index is build.
+     */
+    ROUTE_INDEX,
+    /**
+     * The hights of all IP´s are build.
+     */
+    ECCENTRICITIES,
+    /**
+     * The subtree index is build.
+     */
+    SUBTREE_INDEX,
+    /**
+     * The sorted address index is build.
+     */
+    ADDRESS_INDEX,
+    /**
+     * An IP is parsed from the point notation.
+     */
+    IP_PARSE
+}
@@ -0,0 +1,167 @@
+package edu.kit.informatik.network;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The class PagedInts is a growable int array that is split into pages, so it can be shared in O(1).
+ * After {@link #share()} both arrays use the same pages and every page is copied by the first write
+ * to it (copy on write). Every array has its own generation, a page belongs to an array if it was
+ * written in the generation of the array.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class PagedInts {
+
+    /**
+     * Number of bits of an index inside a page.
+     */
+    static final int PAGE_BITS = 10;
+    /**
+     * Number of values of a full page.
+     */
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+    /**
+     * Mask for the index inside a page.
+     */
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+    /**
+     * Source of the generations of all paged arrays.
+     */
+    static final AtomicInteger GENERATIONS = new AtomicInteger();
+
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+
+    private int[][] pages;
+    private int[] owners;
+    private int generation;
+    private boolean shared;
+    private int length;
+
+    /**
+     * Creates a new array filled with zeros.
+     * @param length length of the array, a power of two
+     */
+    PagedInts(int length) {
+        this.generation = GENERATIONS.incrementAndGet();
+        this.length = length;
+        int count = pageCount(length);
+        this.pages = new int[count][];
+        this.owners = new int[count];
+        for (int page = 0; page < count; page++) {
+            this.pages[page] = new int[Math.min(length, PAGE_SIZE)];
+            this.owners[page] = this.generation;
+        }
+    }
+
+    private PagedInts(PagedInts other) {
+        this.pages = other.pages;
+        this.owners = other.owners;
+        this.length = other.length;
+        this.generation = GENERATIONS.incrementAndGet();
+        this.shared = true;
+    }
+
+    /**
+     * Returns the number of pages for a length.
+     * @param length length of the array
+     * @return number of pages
+     */
+    static int pageCount(int length) {
+        return (length + PAGE_MASK) >>> PAGE_BITS;
+    }
+
+    /**
+     * Returns a new array with the same values that shares all pages with this array.
+     * @return the shared array
+     */
+    PagedInts share() {
+        this.generation = GENERATIONS.incrementAndGet();
+        this.shared = true;
+        return new PagedInts(this);
+    }
+
+    /**
+     * Returns the length of the array.
+     * @return the length
+     */
+    int length() {
+        return this.length;
+    }
+
+    /**
+     * Returns a value.
+     * @param index index of the value
+     * @return the value
+     */
+    int get(int index) {
+        return this.pages[index >>> PAGE_BITS][index & PAGE_MASK];
+    }
+
+    /**
+     * Changes a value.
+     * @param index index of the value
+     * @param value the new value
+     */
+    void set(int index, int value) {
+        int page = index >>> PAGE_BITS;
+        if (this.owners[page] != this.generation) {
+            own(page);
+        }
+        this.pages[page][index & PAGE_MASK] = value;
+    }
+
+    /**
+     * Returns if a page was not changed since it was shared with the other array.
+     * @param other the other array
+     * @param page index of the page
+     * @return if both arrays still use the same page
+     */
+    boolean samePage(PagedInts other, int page) {
+        return page < this.pages.length && page < other.pages.length && this.pages[page] == other.pages[page];
+    }
+
+    /**
+     * Grows the array, the new values are zero.
+     * @param capacity new length of the array, a power of two
+     */
+    void grow(int capacity) {
+        int count = pageCount(capacity);
+        this.pages = Arrays.copyOf(this.pages, count);
+        this.owners = Arrays.copyOf(this.owners, count);
+        this.shared = false;
+        if (this.length < PAGE_SIZE) {
+            this.pages[0] = Arrays.copyOf(this.pages[0], Math.min(capacity, PAGE_SIZE));
+            this.owners[0] = this.generation;
+        }
+        for (int page = pageCount(this.length); page < count; page++) {
+            this.pages[page] = new int[PAGE_SIZE];
+            this.owners[page] = this.generation;
+        }
+        this.length = capacity;
+    }
+
+    /**
+     * Estimates the heap used by this array in bytes, shared pages included.
+     * @return the estimated footprint
+     */
+    long footprint() {
+        long bytes = OBJECT_HEADER_BYTES + (long) this.pages.length * (REFERENCE_BYTES + Integer.BYTES);
+        for (int[] page : this.pages) {
+            bytes += OBJECT_HEADER_BYTES + (long) page.length * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    private void own(int page) {
+        if (this.shared) {
+            this.pages = this.pages.clone();
+            this.owners = this.owners.clone();
+            this.shared = false;
+        }
+        this.pages[page] = this.pages[page].clone();
+        this.owners[page] = this.generation;
+    }
+}
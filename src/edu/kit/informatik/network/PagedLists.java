@@ -0,0 +1,152 @@
+package edu.kit.informatik.network;
+
+import java.util.Arrays;
+
+/**
+ * The class PagedLists holds an int array for every index, split into pages like {@link PagedInts}.
+ * After {@link #share()} the first write to a page copies the page together with all its lists,
+ * so the lists of a page are owned by exactly one array and can be changed in place.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class PagedLists {
+
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+
+    private int[][][] pages;
+    private int[] owners;
+    private int generation;
+    private boolean shared;
+    private int length;
+
+    /**
+     * Creates a new array without lists.
+     * @param length length of the array, a power of two
+     */
+    PagedLists(int length) {
+        this.generation = PagedInts.GENERATIONS.incrementAndGet();
+        this.length = length;
+        int count = PagedInts.pageCount(length);
+        this.pages = new int[count][][];
+        this.owners = new int[count];
+        for (int page = 0; page < count; page++) {
+            this.pages[page] = new int[Math.min(length, PagedInts.PAGE_SIZE)][];
+            this.owners[page] = this.generation;
+        }
+    }
+
+    private PagedLists(PagedLists other) {
+        this.pages = other.pages;
+        this.owners = other.owners;
+        this.length = other.length;
+        this.generation = PagedInts.GENERATIONS.incrementAndGet();
+        this.shared = true;
+    }
+
+    /**
+     * Returns a new array with the same lists that shares all pages with this array.
+     * @return the shared array
+     */
+    PagedLists share() {
+        this.generation = PagedInts.GENERATIONS.incrementAndGet();
+        this.shared = true;
+        return new PagedLists(this);
+    }
+
+    /**
+     * Returns a list to read it. The list must not be changed.
+     * @param index index of the list
+     * @return the list
+     */
+    int[] get(int index) {
+        return this.pages[index >>> PagedInts.PAGE_BITS][index & PagedInts.PAGE_MASK];
+    }
+
+    /**
+     * Returns a list that is owned by this array and can be changed in place.
+     * @param index index of the list
+     * @return the list
+     */
+    int[] writable(int index) {
+        int page = index >>> PagedInts.PAGE_BITS;
+        if (this.owners[page] != this.generation) {
+            own(page);
+        }
+        return this.pages[page][index & PagedInts.PAGE_MASK];
+    }
+
+    /**
+     * Replaces a list.
+     * @param index index of the list
+     * @param list the new list, owned by this array from now on
+     */
+    void set(int index, int[] list) {
+        int page = index >>> PagedInts.PAGE_BITS;
+        if (this.owners[page] != this.generation) {
+            own(page);
+        }
+        this.pages[page][index & PagedInts.PAGE_MASK] = list;
+    }
+
+    /**
+     * Returns if a page was not changed since it was shared with the other array.
+     * @param other the other array
+     * @param page index of the page
+     * @return if both arrays still use the same page
+     */
+    boolean samePage(PagedLists other, int page) {
+        return page < this.pages.length && page < other.pages.length && this.pages[page] == other.pages[page];
+    }
+
+    /**
+     * Grows the array, the new indices have no list.
+     * @param capacity new length of the array, a power of two
+     */
+    void grow(int capacity) {
+        int count = PagedInts.pageCount(capacity);
+        this.pages = Arrays.copyOf(this.pages, count);
+        this.owners = Arrays.copyOf(this.owners, count);
+        this.shared = false;
+        if (this.length < PagedInts.PAGE_SIZE) {
+            if (this.owners[0] != this.generation) {
+                own(0);
+            }
+            this.pages[0] = Arrays.copyOf(this.pages[0], Math.min(capacity, PagedInts.PAGE_SIZE));
+        }
+        for (int page = PagedInts.pageCount(this.length); page < count; page++) {
+            this.pages[page] = new int[PagedInts.PAGE_SIZE][];
+            this.owners[page] = this.generation;
+        }
+        this.length = capacity;
+    }
+
+    /**
+     * Estimates the heap used by the pages in bytes, shared pages included but not the lists.
+     * @return the estimated footprint
+     */
+    long footprint() {
+        long bytes = OBJECT_HEADER_BYTES + (long) this.pages.length * (REFERENCE_BYTES + Integer.BYTES);
+        for (int[][] page : this.pages) {
+            bytes += OBJECT_HEADER_BYTES + (long) page.length * REFERENCE_BYTES;
+        }
+        return bytes;
+    }
+
+    private void own(int page) {
+        if (this.shared) {
+            this.pages = this.pages.clone();
+            this.owners = this.owners.clone();
+            this.shared = false;
+        }
+        int[][] lists = this.pages[page].clone();
+        for (int i = 0; i < lists.length; i++) {
+            if (lists[i] != null && lists[i].length > 0) {
+                lists[i] = lists[i].clone();
+            }
+        }
+        this.pages[page] = lists;
+        this.owners[page] = this.generation;
+    }
+}
@@ -0,0 +1,259 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class Propagation simulates how a message spreads from a source IP hop by hop through the tree.
+ * Every node forwards the message to all its other neighbours as soon as it has received it completely,
+ * crossing a link takes its latency plus the size of the message divided by its bandwidth.
+ * The simulation is event driven: arrivals are processed in the order of their time from a primitive
+ * priority queue (see {@link EventQueue}).
+ * All links use the default properties unless other properties were set for them. The properties belong to
+ * the pair of IP´s, so they can be used for every network and stay valid when the network is changed.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class Propagation {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = -1;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final LinkProperties defaults;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private double[] latencies = new double[INITIAL_CAPACITY];
+    private double[] bandwidths = new double[INITIAL_CAPACITY];
+    private int count;
+
+    /**
+     * Creates a new simulation.
+     * @param defaults properties of all links without own properties
+     * @throws IllegalArgumentException if the defaults are null
+     */
+    public Propagation(final LinkProperties defaults) {
+        if (defaults == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        this.defaults = defaults;
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    /**
+     * Sets the properties of the link between two IP´s.
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @param properties properties of the link or null to use the defaults again
+     * @throws IllegalArgumentException if an IP is null or both IP´s are the same
+     */
+    public void setLink(final IP ip1, final IP ip2, final LinkProperties properties) {
+        long key = keyOf(ip1, ip2);
+        if ((count + 1) * 2 > keys.length) {
+            rehash();
+        }
+        int slot = slotOf(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            count++;
+        }
+        latencies[slot] = properties == null ? defaults.getLatency() : properties.getLatency();
+        bandwidths[slot] = properties == null ? defaults.getBandwidth() : properties.getBandwidth();
+    }
+
+    /**
+     * Returns the properties of the link between two IP´s.
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @return the properties of the link
+     * @throws IllegalArgumentException if an IP is null or both IP´s are the same
+     */
+    public LinkProperties getLink(final IP ip1, final IP ip2) {
+        int slot = slotOf(keyOf(ip1, ip2));
+        return keys[slot] == EMPTY ? defaults : new LinkProperties(latencies[slot], bandwidths[slot]);
+    }
+
+    /**
+     * Simulates the propagation of a message from a source through its tree.
+     * The simulation works on a snapshot, so the result stays valid when the network is changed.
+     *
+     * @param network the network
+     * @param source IP that sends the message
+     * @param messageSize size of the message in bytes, not negative
+     * @return arrival times, critical path and completion time, nothing is reached from an unknown source
+     * @throws IllegalArgumentException if the network is null or the size of the message is negative
+     */
+    public PropagationResult simulate(final Network network, final IP source, final long messageSize) {
+        if (network == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        checkMessageSize(messageSize);
+        TopologyView view = network.snapshot().view();
+        int sourceId = view.idOf(source);
+        if (sourceId == Topology.NO_NODE) {
+            return new PropagationResult(view, null, null, new int[0], 0);
+        }
+        double[] times = new double[view.bound()];
+        int[] parents = new int[view.bound()];
+        int[] order = new int[view.size()];
+        Arrays.fill(times, Double.NaN);
+        int reached = run(view, sourceId, messageSize, times, parents, order, new EventQueue());
+        return new PropagationResult(view, times, parents, order, reached);
+    }
+
+    /**
+     * Simulates the propagation of a message from each of many sources and returns only the completion times.
+     * The simulations run in parallel on a snapshot (see {@link BatchQuery}), every thread
+     * reuses one set of buffers for all its sources. The links must not be changed during the call.
+     *
+     * @param network the network
+     * @param sources IP´s that send the message, unknown IP´s are skipped
+     * @param messageSize size of the message in bytes, not negative
+     * @return the time until the whole tree has received the message, for every source
+     * @throws IllegalArgumentException if the network or the sources are null or the size of the message
+     *     is negative
+     */
+    public Map<IP, Double> completionTimes(final Network network, final Collection<IP> sources,
+            final long messageSize) {
+        if (network == null || sources == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        checkMessageSize(messageSize);
+        TopologyView view = network.snapshot().view();
+        List<IP> known = new ArrayList<>(sources.size());
+        for (IP source : sources) {
+            if (view.idOf(source) != Topology.NO_NODE) {
+                known.add(source);
+            }
+        }
+        List<Double> times = BatchQuery.run(known, () -> new Buffers(view),
+                (buffers, source) -> completionTime(view, view.idOf(source), messageSize, buffers));
+        Map<IP, Double> completion = new HashMap<>();
+        for (int i = 0; i < known.size(); i++) {
+            completion.put(known.get(i), times.get(i));
+        }
+        return completion;
+    }
+
+    /**
+     * Simulates the propagation from one source and leaves the buffers clean for the next one.
+     * @param view the topology
+     * @param source id of the source
+     * @param messageSize size of the message in bytes
+     * @param buffers buffers of the thread
+     * @return the time until the whole tree has received the message
+     */
+    private double completionTime(TopologyView view, int source, long messageSize, Buffers buffers) {
+        int reached = run(view, source, messageSize, buffers.times, null, buffers.order, buffers.queue);
+        double completion = buffers.times[buffers.order[reached - 1]];
+        for (int i = 0; i < reached; i++) {
+            buffers.times[buffers.order[i]] = Double.NaN;
+        }
+        return completion;
+    }
+
+    /**
+     * Processes the arrival events of one message. A node that has no time yet has not been reached,
+     * in a tree every node is reached exactly once, from its parent.
+     * @param view the topology
+     * @param source id of the source
+     * @param messageSize size of the message in bytes
+     * @param times arrival time of every node, NaN if the node was not reached
+     * @param parents node the message came from or null if not needed
+     * @param order receives the reached nodes in the order of their arrival
+     * @param queue empty queue for the events
+     * @return number of reached nodes
+     */
+    private int run(TopologyView view, int source, long messageSize, double[] times, int[] parents,
+            int[] order, EventQueue queue) {
+        double defaultTime = defaults.transmissionTime(messageSize);
+        int reached = 0;
+        times[source] = 0;
+        if (parents != null) {
+            parents[source] = Topology.NO_NODE;
+        }
+        queue.push(0, source);
+        while (!queue.isEmpty()) {
+            double time = queue.time();
+            int node = queue.pop();
+            order[reached++] = node;
+            for (int i = 0; i < view.degree(node); i++) {
+                int child = view.neighbour(node, i);
+                if (!Double.isNaN(times[child])) {
+                    continue;
+                }
+                double arrival = time + (count == 0 ? defaultTime
+                        : transmissionTime(view.packed(node), view.packed(child), messageSize, defaultTime));
+                times[child] = arrival;
+                if (parents != null) {
+                    parents[child] = node;
+                }
+                queue.push(arrival, child);
+            }
+        }
+        return reached;
+    }
+
+    private static void checkMessageSize(long messageSize) {
+        if (messageSize < 0) {
+            throw new IllegalArgumentException("The size of a message must not be negative");
+        }
+    }
+
+    private double transmissionTime(int packed1, int packed2, long messageSize, double defaultTime) {
+        int slot = slotOf(Edge.key(packed1, packed2));
+        return keys[slot] == EMPTY ? defaultTime : latencies[slot] + messageSize / bandwidths[slot];
+    }
+
+    private static long keyOf(IP ip1, IP ip2) {
+        Edge edge = new Edge(ip1, ip2);
+        return Edge.key(edge.getFirst().toInt(), edge.getSecond().toInt());
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> Integer.SIZE) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        double[] oldLatencies = latencies;
+        double[] oldBandwidths = bandwidths;
+        keys = new long[oldKeys.length * 2];
+        latencies = new double[keys.length];
+        bandwidths = new double[keys.length];
+        Arrays.fill(keys, EMPTY);
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] != EMPTY) {
+                int slot = slotOf(oldKeys[old]);
+                keys[slot] = oldKeys[old];
+                latencies[slot] = oldLatencies[old];
+                bandwidths[slot] = oldBandwidths[old];
+            }
+        }
+    }
+
+    /**
+     * The buffers of the simulations of one thread of a batch.
+     */
+    private static final class Buffers {
+
+        private final double[] times;
+        private final int[] order;
+        private final EventQueue queue = new EventQueue();
+
+        Buffers(TopologyView view) {
+            this.times = new double[view.bound()];
+            this.order = new int[view.size()];
+            Arrays.fill(this.times, Double.NaN);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The class PropagationResult holds the arrival times of a message at every node of a tree
+ * (see {@link Propagation#simulate(Network, IP, long)}).
+ * The critical path is the route to the node that received the message last, it decides the completion time.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class PropagationResult {
+
+    private static final double NOT_REACHED = -1;
+
+    private final TopologyView view;
+    private final double[] times;
+    private final int[] parents;
+    private final int[] order;
+    private final int reached;
+
+    /**
+     * Creates a new result.
+     * @param view the simulated topology
+     * @param times arrival time of every node, NaN if the node was not reached
+     * @param parents node the message came from
+     * @param order the reached nodes in the order of their arrival
+     * @param reached number of reached nodes
+     */
+    PropagationResult(TopologyView view, double[] times, int[] parents, int[] order, int reached) {
+        this.view = view;
+        this.times = times;
+        this.parents = parents;
+        this.order = order;
+        this.reached = reached;
+    }
+
+    /**
+     * Returns the time the message arrived at an IP.
+     * @param ip the IP
+     * @return the arrival time or -1 if the IP was not reached
+     */
+    public double getArrivalTime(final IP ip) {
+        int id = view.idOf(ip);
+        return id == Topology.NO_NODE || reached == 0 || Double.isNaN(times[id]) ? NOT_REACHED : times[id];
+    }
+
+    /**
+     * Returns the time until every node of the tree has received the message.
+     * @return the completion time, 0 if nothing was reached
+     */
+    public double getCompletionTime() {
+        return reached == 0 ? 0 : times[order[reached - 1]];
+    }
+
+    /**
+     * Returns the number of IP´s that received the message, including the source.
+     * @return the number of reached IP´s
+     */
+    public int getReachedCount() {
+        return reached;
+    }
+
+    /**
+     * Returns the route from the source to the IP that received the message last.
+     * @return the critical path, empty if nothing was reached
+     */
+    public List<IP> getCriticalPath() {
+        List<IP> path = new ArrayList<>();
+        if (reached == 0) {
+            return path;
+        }
+        for (int id = order[reached - 1]; id != Topology.NO_NODE; id = parents[id]) {
+            path.add(view.address(id));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Returns all reached IP´s in the order they received the message, starting with the source.
+     * @return the reached IP´s
+     */
+    public List<IP> getArrivalOrder() {
+        List<IP> arrivals = new ArrayList<>(reached);
+        for (int i = 0; i < reached; i++) {
+            arrivals.add(view.address(order[i]));
+        }
+        return arrivals;
+    }
+}
@@ -0,0 +1,295 @@
+package edu.kit.informatik.network;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class Rendering keeps the bracket notation of the tree of a root up to date while edges are connected
+ * and disconnected. The subtree of every node is a contiguous fragment of the notation, its position follows
+ * from the lengths of the fragments of the siblings on the path to the root.
+ * A change therefore walks only the path from the changed edge up to the root and splices the fragment
+ * of the moved subtree in or out. The notation is held as a rope of pieces of older notations and new
+ * fragments, which are joined into a single string the next time it is needed.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class Rendering {
+
+    // more pieces are joined right away, so finding an offset stays cheap
+    private static final int MAX_PIECES = 256;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BLOCKS = 4;
+    private static final int TEN = 10;
+    private static final int HUNDRED = 100;
+    private static final int BLOCK_MASK = 255;
+
+    private final int root;
+    private final int[] parents;
+    private final int[] lengths;
+    private final List<Piece> pieces = new ArrayList<>();
+    private int[] path = new int[INITIAL_CAPACITY];
+
+    /**
+     * Creates the rendering of a tree from its full bracket notation.
+     * @param topology the topology
+     * @param root id of the root
+     * @param notation the bracket notation of the tree
+     */
+    Rendering(TopologyView topology, int root, String notation) {
+        this.root = root;
+        this.parents = new int[topology.bound()];
+        this.lengths = new int[topology.bound()];
+        this.parents[root] = Topology.NO_NODE;
+        index(topology, root);
+        this.pieces.add(new Piece(notation, 0, notation.length()));
+    }
+
+    /**
+     * Returns the bracket notation of the tree, in O(1) if it was not changed since the last call.
+     * @return the bracket notation
+     */
+    String notation() {
+        if (pieces.size() > 1) {
+            join();
+        }
+        Piece piece = pieces.get(0);
+        return piece.from == 0 && piece.to == piece.text.length() ? piece.text
+                : piece.text.substring(piece.from, piece.to);
+    }
+
+    /**
+     * Adds the subtree behind a new edge to the tree. Has to be called after the edge was linked
+     * and only if the parent is part of the tree.
+     * @param topology the changed topology
+     * @param parent id of the node in the tree
+     * @param child id of the node that brought its subtree
+     */
+    void connected(TopologyView topology, int parent, int child) {
+        StringBuilder fragment = new StringBuilder();
+        try {
+            BracketNotationWriter.writeSubtree(topology, child, parent, fragment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        parents[child] = parent;
+        index(topology, child);
+        int start = start(topology, parent);
+        int delta;
+        if (parent != root && topology.degree(parent) == 2) {
+            // a leaf gets its first child and brackets
+            String node = IP.valueOf(topology.packed(parent)).toString();
+            splice(start, lengths[parent], "(" + node + fragment + ")");
+            delta = fragment.length() + 2;
+        } else {
+            splice(childOffset(topology, start, parent, child), 0, fragment.toString());
+            delta = fragment.length();
+        }
+        for (int node = parent; node != Topology.NO_NODE; node = parents[node]) {
+            lengths[node] += delta;
+        }
+    }
+
+    /**
+     * Removes the subtree behind an edge from the tree. Has to be called before the edge is unlinked
+     * and only if the edge is part of the tree.
+     * @param topology the unchanged topology
+     * @param id1 first node of the edge
+     * @param id2 second node of the edge
+     * @return false if the root loses its last edge and so the whole tree
+     */
+    boolean disconnecting(TopologyView topology, int id1, int id2) {
+        int child = parents[id2] == id1 ? id2 : id1;
+        int parent = parents[child];
+        if (parent == root && topology.degree(root) == 1) {
+            return false;
+        }
+        int start = start(topology, parent);
+        int delta;
+        if (parent != root && topology.degree(parent) == 2) {
+            // a node loses its last child and its brackets
+            splice(start, lengths[parent], IP.valueOf(topology.packed(parent)).toString());
+            delta = lengths[parent] - textLength(topology.packed(parent));
+        } else {
+            // the space before the subtree belongs to it
+            splice(childOffset(topology, start, parent, child), 1 + lengths[child], "");
+            delta = 1 + lengths[child];
+        }
+        for (int node = parent; node != Topology.NO_NODE; node = parents[node]) {
+            lengths[node] -= delta;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the parents and the fragment lengths of a subtree whose root already has its parent.
+     * @param topology the topology
+     * @param top root of the subtree
+     */
+    private void index(TopologyView topology, int top) {
+        int[] order = new int[INITIAL_CAPACITY];
+        int count = 1;
+        order[0] = top;
+        for (int head = 0; head < count; head++) {
+            int node = order[head];
+            for (int i = 0; i < topology.degree(node); i++) {
+                int next = topology.neighbour(node, i);
+                if (next != parents[node]) {
+                    if (count == order.length) {
+                        order = Arrays.copyOf(order, count * 2);
+                    }
+                    parents[next] = node;
+                    order[count++] = next;
+                }
+            }
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            int node = order[i];
+            int length = textLength(topology.packed(node));
+            boolean leaf = node != root && topology.degree(node) == 1;
+            if (!leaf) {
+                // the brackets and a space before every child
+                length += 2;
+                for (int k = 0; k < topology.degree(node); k++) {
+                    int next = topology.neighbour(node, k);
+                    if (next != parents[node]) {
+                        length += 1 + lengths[next];
+                    }
+                }
+            }
+            lengths[node] = length;
+        }
+    }
+
+    /**
+     * Returns the offset of the fragment of a node in the notation.
+     * @param topology the topology
+     * @param node the node
+     * @return the offset of its first char
+     */
+    private int start(TopologyView topology, int node) {
+        int depth = 0;
+        for (int current = node; current != root; current = parents[current]) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = current;
+        }
+        int offset = 0;
+        int parent = root;
+        while (depth > 0) {
+            int child = path[--depth];
+            // the offset of the space before the child is followed by the child itself
+            offset = childOffset(topology, offset, parent, child) + 1;
+            parent = child;
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the offset of the space before the fragment of a child.
+     * @param topology the topology
+     * @param start offset of the fragment of the parent
+     * @param parent the parent
+     * @param child the child
+     * @return the offset of the space
+     */
+    private int childOffset(TopologyView topology, int start, int parent, int child) {
+        int offset = start + 1 + textLength(topology.packed(parent));
+        for (int i = 0; i < topology.degree(parent); i++) {
+            int sibling = topology.neighbour(parent, i);
+            if (sibling == child) {
+                break;
+            }
+            if (sibling != parents[parent]) {
+                offset += 1 + lengths[sibling];
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Replaces a range of the notation.
+     * @param offset first char of the range
+     * @param removed length of the range
+     * @param inserted the replacement
+     */
+    private void splice(int offset, int removed, String inserted) {
+        List<Piece> spliced = new ArrayList<>(pieces.size() + 2);
+        int end = offset + removed;
+        int position = 0;
+        for (Piece piece : pieces) {
+            int length = piece.to - piece.from;
+            if (position < offset) {
+                spliced.add(new Piece(piece.text, piece.from, piece.from + Math.min(length, offset - position)));
+            }
+            if (position <= offset && offset <= position + length && !inserted.isEmpty()) {
+                spliced.add(new Piece(inserted, 0, inserted.length()));
+                inserted = "";
+            }
+            if (position + length > end) {
+                spliced.add(new Piece(piece.text, piece.from + Math.max(0, end - position), piece.to));
+            }
+            position += length;
+        }
+        pieces.clear();
+        for (Piece piece : spliced) {
+            if (piece.to > piece.from) {
+                pieces.add(piece);
+            }
+        }
+        if (pieces.isEmpty()) {
+            pieces.add(new Piece("", 0, 0));
+        }
+        if (pieces.size() > MAX_PIECES) {
+            join();
+        }
+    }
+
+    private void join() {
+        int length = 0;
+        for (Piece piece : pieces) {
+            length += piece.to - piece.from;
+        }
+        StringBuilder joined = new StringBuilder(length);
+        for (Piece piece : pieces) {
+            joined.append(piece.text, piece.from, piece.to);
+        }
+        pieces.clear();
+        pieces.add(new Piece(joined.toString(), 0, length));
+    }
+
+    /**
+     * Returns the number of chars of the point notation of an IP.
+     * @param packed the packed IP
+     * @return the length
+     */
+    private static int textLength(int packed) {
+        // the three points
+        int length = BLOCKS - 1;
+        for (int block = 0; block < BLOCKS; block++) {
+            int value = (packed >>> (block * Byte.SIZE)) & BLOCK_MASK;
+            length += value < TEN ? 1 : value < HUNDRED ? 2 : 3;
+        }
+        return length;
+    }
+
+    /**
+     * A range of a string that is part of the notation.
+     */
+    private static final class Piece {
+
+        private final String text;
+        private final int from;
+        private final int to;
+
+        Piece(String text, int from, int to) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
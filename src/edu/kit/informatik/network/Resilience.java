@@ -0,0 +1,337 @@
+package edu.kit.informatik.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The class Resilience estimates with Monte Carlo trials how many hosts stay reachable from a root
+ * when every link fails independently with its failure probability.
+ * The tree is numbered in preorder once, so the hosts behind a link are the interval of its subtree.
+ * A trial only draws the failed links, with geometric skips over the links of similar probability,
+ * and adds the union of their intervals to a difference array. A trial costs time in proportion to
+ * its failures instead of the size of the tree, the survival of every host is summed up once at the end.
+ * All links use the default failure probability unless another one was set for them.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class Resilience {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = -1;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    // links with a probability below 2^-MAX_CLASS share the last class
+    private static final int MAX_CLASS = 40;
+    // trials of a block use the same random generator, so the results do not depend on the number of threads
+    private static final int BLOCK_TRIALS = 256;
+    private static final long SEED_MULTIPLIER = 0xBF58476D1CE4E5B9L;
+
+    private final double defaultFailure;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private double[] failures = new double[INITIAL_CAPACITY];
+    private int count;
+
+    /**
+     * Creates a new analysis.
+     * @param defaultFailure failure probability of all links without own probability
+     * @throws IllegalArgumentException if the probability is not between 0 and 1
+     */
+    public Resilience(final double defaultFailure) {
+        checkProbability(defaultFailure);
+        this.defaultFailure = defaultFailure;
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    /**
+     * Sets the failure probability of the link between two IP´s.
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @param probability the failure probability
+     * @throws IllegalArgumentException if an IP is null, both IP´s are the same
+     *      or the probability is not between 0 and 1
+     */
+    public void setFailure(final IP ip1, final IP ip2, final double probability) {
+        checkProbability(probability);
+        long key = keyOf(ip1, ip2);
+        if ((count + 1) * 2 > keys.length) {
+            rehash();
+        }
+        int slot = slotOf(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            count++;
+        }
+        failures[slot] = probability;
+    }
+
+    /**
+     * Returns the failure probability of the link between two IP´s.
+     * @param ip1 first IP
+     * @param ip2 second IP
+     * @return the failure probability
+     * @throws IllegalArgumentException if an IP is null or both IP´s are the same
+     */
+    public double getFailure(final IP ip1, final IP ip2) {
+        int slot = slotOf(keyOf(ip1, ip2));
+        return keys[slot] == EMPTY ? defaultFailure : failures[slot];
+    }
+
+    /**
+     * Runs the trials for the tree of a root with a fixed seed.
+     *
+     * @param network the network
+     * @param root IP the hosts have to reach
+     * @param trials number of trials
+     * @return distribution of the reachable hosts and survival of every host
+     * @throws IllegalArgumentException if the network or the root is null or the number of trials is not positive
+     */
+    public ResilienceResult analyze(final Network network, final IP root, final int trials) {
+        return analyze(network, root, trials, 0);
+    }
+
+    /**
+     * Runs the trials for the tree of a root in parallel on the common {@link ForkJoinPool}.
+     * The analysis works on a snapshot, so the result stays valid when the network is changed.
+     * The same seed gives the same result, independent of the number of threads.
+     *
+     * @param network the network
+     * @param root IP the hosts have to reach
+     * @param trials number of trials
+     * @param seed seed of the random failures
+     * @return distribution of the reachable hosts and survival of every host, nothing is reachable from
+     *      an unknown root
+     * @throws IllegalArgumentException if the network or the root is null or the number of trials is not positive
+     */
+    public ResilienceResult analyze(final Network network, final IP root, final int trials, final long seed) {
+        if (network == null || root == null) {
+            throw new IllegalArgumentException("Null is not allowed");
+        }
+        if (trials <= 0) {
+            throw new IllegalArgumentException("The number of trials has to be positive");
+        }
+        TopologyView view = network.snapshot().view();
+        int rootId = view.idOf(root);
+        if (rootId == Topology.NO_NODE) {
+            return new ResilienceResult(view, new int[0], new int[0], new int[0], new int[trials], trials);
+        }
+        Tree tree = new Tree(view, rootId);
+        int[] reachable = new int[trials];
+        int blocks = (trials + BLOCK_TRIALS - 1) / BLOCK_TRIALS;
+        int parts = Math.min(blocks, ForkJoinPool.getCommonPoolParallelism());
+        List<Integer> partList = new ArrayList<>(parts);
+        for (int part = 0; part < parts; part++) {
+            partList.add(part);
+        }
+        // one part per worker, so there is only one difference array per worker
+        List<int[]> differences = BatchQuery.run(partList, () -> new int[tree.size + 1], (difference, part) -> {
+            int[] failed = new int[INITIAL_CAPACITY];
+            for (int block = part; block < blocks; block += parts) {
+                SplittableRandom random = new SplittableRandom(seed + block * SEED_MULTIPLIER);
+                int end = Math.min(trials, (block + 1) * BLOCK_TRIALS);
+                for (int trial = block * BLOCK_TRIALS; trial < end; trial++) {
+                    failed = tree.fail(random, failed);
+                    reachable[trial] = tree.cut(failed, difference);
+                }
+            }
+            return difference;
+        });
+        int[] failedTrials = new int[tree.size];
+        int current = 0;
+        for (int position = 0; position < tree.size; position++) {
+            for (int[] difference : differences) {
+                current += difference[position];
+            }
+            failedTrials[position] = current;
+        }
+        Arrays.sort(reachable);
+        return new ResilienceResult(view, tree.order, tree.positions, failedTrials, reachable, trials);
+    }
+
+    private static void checkProbability(double probability) {
+        if (!(probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException("A probability has to be between 0 and 1");
+        }
+    }
+
+    private static long keyOf(IP ip1, IP ip2) {
+        Edge edge = new Edge(ip1, ip2);
+        return Edge.key(edge.getFirst().toInt(), edge.getSecond().toInt());
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> Integer.SIZE) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        double[] oldFailures = failures;
+        keys = new long[oldKeys.length * 2];
+        failures = new double[keys.length];
+        Arrays.fill(keys, EMPTY);
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldKeys[old] != EMPTY) {
+                int slot = slotOf(oldKeys[old]);
+                keys[slot] = oldKeys[old];
+                failures[slot] = oldFailures[old];
+            }
+        }
+    }
+
+    /**
+     * The tree of the root in preorder. The link of a position leads to its parent, its subtree
+     * ends at {@link #ends}. The links are grouped into classes, the probabilities of class c are at most
+     * 2^-c, so at least every second drawn candidate of a class fails.
+     */
+    private final class Tree {
+
+        private final int size;
+        private final int[] order;
+        private final int[] positions;
+        private final int[] ends;
+        private final int[] classStarts = new int[MAX_CLASS + 2];
+        private final int[] links;
+        private final double[] acceptance;
+        private final double[] logSurvival = new double[MAX_CLASS + 1];
+
+        Tree(TopologyView view, int root) {
+            int[] preorder = new int[view.size()];
+            int[] parents = new int[view.size()];
+            int[] stack = new int[view.size()];
+            int[] from = new int[view.size()];
+            int top = 0;
+            int position = 0;
+            stack[top] = root;
+            from[top++] = Topology.NO_NODE;
+            while (top > 0) {
+                int node = stack[--top];
+                int previous = from[top];
+                preorder[position] = node;
+                parents[position] = previous;
+                position++;
+                for (int i = view.degree(node) - 1; i >= 0; i--) {
+                    int next = view.neighbour(node, i);
+                    if (next != previous) {
+                        stack[top] = next;
+                        from[top++] = node;
+                    }
+                }
+            }
+            this.size = position;
+            this.order = Arrays.copyOf(preorder, size);
+            this.ends = new int[size];
+            int[] classes = new int[size];
+            // subtree ends from the back, a position ends where the subtree of its last child ends
+            this.positions = new int[view.bound()];
+            for (int i = 0; i < size; i++) {
+                positions[order[i]] = i;
+                ends[i] = i + 1;
+            }
+            double[] probabilities = new double[size];
+            for (int i = size - 1; i > 0; i--) {
+                int parent = positions[parents[i]];
+                ends[parent] = Math.max(ends[parent], ends[i]);
+                probabilities[i] = count == 0 ? defaultFailure
+                        : failureOf(view.packed(parents[i]), view.packed(order[i]));
+                classes[i] = classOf(probabilities[i]);
+                if (classes[i] >= 0) {
+                    classStarts[classes[i] + 1]++;
+                }
+            }
+            for (int c = 0; c <= MAX_CLASS; c++) {
+                classStarts[c + 1] += classStarts[c];
+                logSurvival[c] = Math.log1p(-Math.scalb(1.0, -c));
+            }
+            this.links = new int[classStarts[MAX_CLASS + 1]];
+            this.acceptance = new double[links.length];
+            int[] next = Arrays.copyOf(classStarts, MAX_CLASS + 1);
+            for (int i = 1; i < size; i++) {
+                if (classes[i] >= 0) {
+                    links[next[classes[i]]] = i;
+                    acceptance[next[classes[i]]++] = Math.scalb(probabilities[i], classes[i]);
+                }
+            }
+        }
+
+        /**
+         * Draws the failed links of a trial.
+         * @param random the random generator
+         * @param failed buffer for the failed positions
+         * @return the buffer, maybe grown, with the number of failures at index 0 and the positions after it
+         */
+        int[] fail(SplittableRandom random, int[] failed) {
+            int failures = 0;
+            for (int c = 0; c <= MAX_CLASS; c++) {
+                int end = classStarts[c + 1];
+                // the candidates are the successes of a geometric process with the bound of the class
+                double candidate = classStarts[c] + skip(random, c);
+                while (candidate < end) {
+                    int link = (int) candidate;
+                    if (random.nextDouble() < acceptance[link]) {
+                        if (failures + 2 > failed.length) {
+                            failed = Arrays.copyOf(failed, failed.length * 2);
+                        }
+                        failed[++failures] = links[link];
+                    }
+                    candidate += 1 + skip(random, c);
+                }
+            }
+            failed[0] = failures;
+            return failed;
+        }
+
+        /**
+         * Adds the hosts behind the failed links of a trial to a difference array.
+         * @param failed number of failures at index 0 and the failed positions after it
+         * @param difference the difference array over the preorder positions
+         * @return the number of reachable hosts without the root
+         */
+        int cut(int[] failed, int[] difference) {
+            Arrays.sort(failed, 1, failed[0] + 1);
+            int lost = 0;
+            int covered = 0;
+            for (int i = 1; i <= failed[0]; i++) {
+                int position = failed[i];
+                // a link inside an already lost subtree changes nothing
+                if (position < covered) {
+                    continue;
+                }
+                covered = ends[position];
+                lost += covered - position;
+                difference[position]++;
+                difference[covered]--;
+            }
+            return size - 1 - lost;
+        }
+
+        private double skip(SplittableRandom random, int c) {
+            return Math.floor(Math.log(1 - random.nextDouble()) / logSurvival[c]);
+        }
+
+        private double failureOf(int packed1, int packed2) {
+            int slot = slotOf(Edge.key(packed1, packed2));
+            return keys[slot] == EMPTY ? defaultFailure : failures[slot];
+        }
+
+        /**
+         * Returns the class of a probability.
+         * @param probability the probability
+         * @return the class or -1 if the link never fails
+         */
+        private int classOf(double probability) {
+            if (probability == 0) {
+                return -1;
+            }
+            int exponent = Math.getExponent(probability);
+            int c = probability == Math.scalb(1.0, exponent) ? -exponent : -exponent - 1;
+            return Math.min(MAX_CLASS, c);
+        }
+    }
+}
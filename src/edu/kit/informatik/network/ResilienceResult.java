@@ -0,0 +1,129 @@
+package edu.kit.informatik.network;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The class ResilienceResult holds the outcome of the Monte Carlo trials of a {@link Resilience} analysis:
+ * the number of hosts that stayed reachable from the root in every trial and how often every host survived.
+ * The root itself is not counted as a host.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public final class ResilienceResult {
+
+    private static final double HUNDRED_PERCENT = 100;
+
+    private final TopologyView view;
+    private final int[] order;
+    private final int[] positions;
+    private final int[] failedTrials;
+    private final int[] reachable;
+    private final int trials;
+
+    /**
+     * Creates a new result.
+     * @param view the analysed topology
+     * @param order the nodes of the tree in preorder, starting with the root
+     * @param positions preorder position of every node id of the tree
+     * @param failedTrials number of trials in which the node of a preorder position was not reachable
+     * @param reachable reachable hosts of every trial, sorted
+     * @param trials number of trials
+     */
+    ResilienceResult(TopologyView view, int[] order, int[] positions, int[] failedTrials, int[] reachable,
+            int trials) {
+        this.view = view;
+        this.order = order;
+        this.positions = positions;
+        this.failedTrials = failedTrials;
+        this.reachable = reachable;
+        this.trials = trials;
+    }
+
+    /**
+     * Returns the number of trials.
+     * @return the number of trials
+     */
+    public int getTrials() {
+        return trials;
+    }
+
+    /**
+     * Returns the number of hosts in the tree of the root.
+     * @return the number of hosts without the root, 0 if the root is unknown
+     */
+    public int getHosts() {
+        return Math.max(0, order.length - 1);
+    }
+
+    /**
+     * Returns the average number of reachable hosts.
+     * @return the mean over all trials
+     */
+    public double getMeanReachable() {
+        long sum = 0;
+        for (int hosts : reachable) {
+            sum += hosts;
+        }
+        return (double) sum / trials;
+    }
+
+    /**
+     * Returns the number of reachable hosts that the given percentage of all trials do not exceed.
+     * @param percentile the percentage, from 0 to 100
+     * @return the number of reachable hosts
+     * @throws IllegalArgumentException if the percentage is not between 0 and 100
+     */
+    public int getReachablePercentile(final double percentile) {
+        if (!(percentile >= 0 && percentile <= HUNDRED_PERCENT)) {
+            throw new IllegalArgumentException("A percentile has to be between 0 and 100");
+        }
+        int rank = Math.max(1, (int) Math.ceil(percentile / HUNDRED_PERCENT * trials));
+        return reachable[rank - 1];
+    }
+
+    /**
+     * Returns the distribution of the reachable hosts.
+     * @return the number of trials for every number of reachable hosts that occurred, sorted by the hosts
+     */
+    public Map<Integer, Integer> getDistribution() {
+        Map<Integer, Integer> distribution = new TreeMap<>();
+        for (int hosts : reachable) {
+            distribution.merge(hosts, 1, Integer::sum);
+        }
+        return distribution;
+    }
+
+    /**
+     * Returns the probability that a host stays reachable from the root.
+     * @param ip the host
+     * @return the share of the trials it was reachable in, 1 for the root and 0 for IP´s outside the tree
+     */
+    public double getSurvivalProbability(final IP ip) {
+        int id = view.idOf(ip);
+        if (id == Topology.NO_NODE || id >= positions.length) {
+            return 0;
+        }
+        int position = positions[id];
+        //ids outside the tree have no position of their own
+        return position < order.length && order[position] == id ? survival(position) : 0;
+    }
+
+    /**
+     * Returns the probability that every host of the tree stays reachable from the root.
+     * @return the share of the trials every IP of the tree was reachable in, including the root
+     */
+    public Map<IP, Double> getSurvivalProbabilities() {
+        Map<IP, Double> survival = new HashMap<>();
+        for (int position = 0; position < order.length; position++) {
+            survival.put(view.address(order[position]), survival(position));
+        }
+        return survival;
+    }
+
+    private double survival(int position) {
+        return 1 - (double) failedTrials[position] / trials;
+    }
+}
@@ -0,0 +1,34 @@
+package edu.kit.informatik.network;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The class RootCache keeps the results of queries for the most recently used roots.
+ * It has to be cleared after every change of the network.
+ *
+ * @param <V> type of the cached results
+ * @author ucfoh
+ * @version 1.0
+ */
+final class RootCache<V> extends LinkedHashMap<Integer, V> {
+
+    private static final long serialVersionUID = 2203495386128405213L;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int capacity;
+
+    /**
+     * Creates a new empty cache.
+     * @param capacity number of roots that are kept at most
+     */
+    RootCache(int capacity) {
+        super(capacity, LOAD_FACTOR, true);
+        this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+        return size() > capacity;
+    }
+}
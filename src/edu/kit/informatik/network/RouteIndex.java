@@ -0,0 +1,119 @@
+package edu.kit.informatik.network;
+
+/**
+ * The class RouteIndex roots every tree of a topology and stores the parent and the depth of each node.
+ * Additionally every node has a jump pointer to an ancestor (skew binary jump pointers), so the
+ * lowest common ancestor of two nodes is found in O(log n) with only linear memory.
+ * The index is a snapshot, it has to be build again after the topology was changed.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class RouteIndex {
+
+    private final int[] parent;
+    private final int[] jump;
+    private final int[] depth;
+
+    /**
+     * Builds the index for all trees of a topology.
+     * @param topology topology to index
+     */
+    RouteIndex(TopologyView topology) {
+        int bound = topology.bound();
+        this.parent = new int[bound];
+        this.jump = new int[bound];
+        this.depth = new int[bound];
+        boolean[] visited = new boolean[bound];
+        int[] queue = new int[bound];
+        for (int root = 0; root < bound; root++) {
+            if (!topology.isNode(root) || visited[root]) {
+                continue;
+            }
+            parent[root] = root;
+            jump[root] = root;
+            visited[root] = true;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            while (head < tail) {
+                int node = queue[head++];
+                for (int i = 0; i < topology.degree(node); i++) {
+                    int child = topology.neighbour(node, i);
+                    if (visited[child]) {
+                        continue;
+                    }
+                    visited[child] = true;
+                    parent[child] = node;
+                    depth[child] = depth[node] + 1;
+                    int up = jump[node];
+                    jump[child] = depth[node] - depth[up] == depth[up] - depth[jump[up]] ? jump[up] : node;
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the parent of a node, the root of a tree is its own parent.
+     * @param id node id
+     * @return id of the parent
+     */
+    int parent(int id) {
+        return parent[id];
+    }
+
+    /**
+     * Returns the distance of a node to the root of its tree.
+     * @param id node id
+     * @return the depth
+     */
+    int depth(int id) {
+        return depth[id];
+    }
+
+    /**
+     * Returns the ancestor of a node on the given depth.
+     * @param id node id
+     * @param targetDepth depth of the ancestor, not bigger than the depth of the node
+     * @return id of the ancestor
+     */
+    int ancestor(int id, int targetDepth) {
+        int node = id;
+        while (depth[node] > targetDepth) {
+            node = depth[jump[node]] >= targetDepth ? jump[node] : parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * Returns the lowest common ancestor of two nodes of the same tree.
+     * @param id1 first node
+     * @param id2 second node
+     * @return id of the lowest common ancestor
+     */
+    int lowestCommonAncestor(int id1, int id2) {
+        int node1 = ancestor(id1, depth[id2]);
+        int node2 = ancestor(id2, depth[id1]);
+        while (node1 != node2) {
+            if (jump[node1] != jump[node2]) {
+                node1 = jump[node1];
+                node2 = jump[node2];
+            } else {
+                node1 = parent[node1];
+                node2 = parent[node2];
+            }
+        }
+        return node1;
+    }
+
+    /**
+     * Returns the number of edges between two nodes of the same tree.
+     * @param id1 first node
+     * @param id2 second node
+     * @return the distance
+     */
+    int distance(int id1, int id2) {
+        return depth[id1] + depth[id2] - 2 * depth[lowestCommonAncestor(id1, id2)];
+    }
+}
@@ -0,0 +1,215 @@
+package edu.kit.informatik.network;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * The class SubtreeIndex roots every tree of a topology and stores the size of the subtree of each node
+ * together with the root of its tree, so the number of nodes on both sides of an edge is known in O(1).
+ * The index is build in O(n) and follows the changes of single edges: linking two trees reroots the smaller
+ * one under the other, cutting an edge makes its lower node the root of a new tree.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class SubtreeIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int[] parent;
+    private final int[] size;
+    private final int[] root;
+
+    /**
+     * Builds the index for all trees of a topology.
+     * @param topology topology to index
+     */
+    SubtreeIndex(TopologyView topology) {
+        int bound = topology.bound();
+        this.parent = new int[bound];
+        this.size = new int[bound];
+        this.root = new int[bound];
+        Arrays.fill(root, Topology.NO_NODE);
+        int[] queue = new int[bound];
+        int tail = 0;
+        for (int start = 0; start < bound; start++) {
+            if (!topology.isNode(start) || root[start] != Topology.NO_NODE) {
+                continue;
+            }
+            int head = tail;
+            int first = tail;
+            queue[tail++] = start;
+            parent[start] = Topology.NO_NODE;
+            root[start] = start;
+            while (head < tail) {
+                int node = queue[head++];
+                size[node] = 1;
+                for (int i = 0; i < topology.degree(node); i++) {
+                    int child = topology.neighbour(node, i);
+                    if (child != parent[node]) {
+                        parent[child] = node;
+                        root[child] = start;
+                        queue[tail++] = child;
+                    }
+                }
+            }
+            // children are behind their parents in the queue
+            for (int i = tail - 1; i > first; i--) {
+                size[parent[queue[i]]] += size[queue[i]];
+            }
+        }
+    }
+
+    /**
+     * Returns the lower node of an edge, the node that is cut off from the root of its tree without it.
+     * @param id1 first node
+     * @param id2 second node
+     * @return the lower node or {@link Topology#NO_NODE} if there is no edge between the nodes
+     */
+    int lower(int id1, int id2) {
+        if (parent[id2] == id1) {
+            return id2;
+        }
+        return parent[id1] == id2 ? id1 : Topology.NO_NODE;
+    }
+
+    /**
+     * Returns the parent of a node.
+     * @param id node id
+     * @return id of the parent or {@link Topology#NO_NODE} for the root of a tree
+     */
+    int parent(int id) {
+        return parent[id];
+    }
+
+    /**
+     * Returns the number of nodes in the subtree of a node.
+     * @param id node id
+     * @return the subtree size
+     */
+    int size(int id) {
+        return size[id];
+    }
+
+    /**
+     * Returns the number of nodes in the tree of a node.
+     * @param id node id
+     * @return the tree size
+     */
+    int treeSize(int id) {
+        return size[root[id]];
+    }
+
+    /**
+     * Follows a new edge between two trees, the topology has to be linked already.
+     * The smaller tree is rerooted at its end of the edge and hung under the other end,
+     * so it costs the size of the smaller tree and the depth of the other end.
+     * @param topology the linked topology
+     * @param id1 first node
+     * @param id2 second node
+     */
+    void link(TopologyView topology, int id1, int id2) {
+        int lower = treeSize(id1) < treeSize(id2) ? id1 : id2;
+        int upper = lower == id1 ? id2 : id1;
+        reroot(lower);
+        parent[lower] = upper;
+        for (int node = upper; node != Topology.NO_NODE; node = parent[node]) {
+            size[node] += size[lower];
+        }
+        relabel(topology, lower, root[upper]);
+    }
+
+    /**
+     * Follows a removed edge, the topology has to be unlinked already.
+     * The lower node becomes the root of a new tree, so it costs the size of its subtree
+     * and the depth of the upper node.
+     * @param topology the unlinked topology
+     * @param id1 first node
+     * @param id2 second node
+     */
+    void cut(TopologyView topology, int id1, int id2) {
+        int lower = lower(id1, id2);
+        for (int node = parent[lower]; node != Topology.NO_NODE; node = parent[node]) {
+            size[node] -= size[lower];
+        }
+        parent[lower] = Topology.NO_NODE;
+        relabel(topology, lower, lower);
+    }
+
+    /**
+     * Returns the lower nodes of the edges that cut off the most nodes, an edge cuts off the nodes of
+     * the smaller side. Edges that cut off the same number of nodes are ordered by the IP of the lower node.
+     * @param topology the topology
+     * @param count maximal number of edges
+     * @return the lower nodes, starting with the most critical edge
+     */
+    int[] critical(TopologyView topology, int count) {
+        // a key holds the cut off nodes in the upper half and the inverted IP in the lower half
+        PriorityQueue<Long> best = new PriorityQueue<>();
+        for (int id = 0; id < topology.bound() && count > 0; id++) {
+            if (!topology.isNode(id) || parent[id] == Topology.NO_NODE) {
+                continue;
+            }
+            long key = (long) Math.min(size[id], treeSize(id) - size[id]) << Integer.SIZE
+                    | ~Integer.toUnsignedLong(topology.packed(id)) & 0xFFFFFFFFL;
+            if (best.size() < count) {
+                best.add(key);
+            } else if (best.peek() < key) {
+                best.poll();
+                best.add(key);
+            }
+        }
+        int[] lower = new int[best.size()];
+        for (int i = lower.length - 1; i >= 0; i--) {
+            lower[i] = topology.idOf(~best.poll().intValue());
+        }
+        return lower;
+    }
+
+    /**
+     * Makes a node the root of its tree, the parents on its way to the old root are turned around.
+     * @param id the new root
+     */
+    private void reroot(int id) {
+        int total = treeSize(id);
+        int previous = Topology.NO_NODE;
+        int previousSize = 0;
+        int node = id;
+        while (node != Topology.NO_NODE) {
+            int next = parent[node];
+            int oldSize = size[node];
+            parent[node] = previous;
+            // everything except the old subtree of the node below, that now holds the root
+            size[node] = total - previousSize;
+            previousSize = oldSize;
+            previous = node;
+            node = next;
+        }
+    }
+
+    /**
+     * Sets the root of all nodes in the subtree of a node. (based on DFS algorithm with an explicit stack)
+     * @param topology the topology
+     * @param id root of the subtree
+     * @param label the new root
+     */
+    private void relabel(TopologyView topology, int id, int label) {
+        int[] stack = new int[INITIAL_CAPACITY];
+        int depth = 0;
+        stack[depth++] = id;
+        while (depth > 0) {
+            int node = stack[--depth];
+            root[node] = label;
+            for (int i = 0; i < topology.degree(node); i++) {
+                int child = topology.neighbour(node, i);
+                if (child == parent[node]) {
+                    continue;
+                }
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = child;
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package edu.kit.informatik.network;
+
+/**
+ * The enum SyncPolicy decides when the journal of a network (see {@link Network#startJournal(java.nio.file.Path,
+ * SyncPolicy, int)}) forces its changes to the storage device. Changes are collected in a buffer and written
+ * in batches, a change that was not forced yet can be lost by a crash of the operating system.
+ * A checkpoint and closing the journal always force everything.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+public enum SyncPolicy {
+    /**
+     * Every change is written and forced before the changing method returns.
+     */
+    ALWAYS,
+    /**
+     * Changes are written and forced together whenever the buffer is full.
+     */
+    BATCH,
+    /**
+     * Changes are written whenever the buffer is full, the operating system decides when they are forced.
+     */
+    NEVER
+}
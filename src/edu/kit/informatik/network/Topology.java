@@ -0,0 +1,475 @@
+package edu.kit.informatik.network;
+
+import java.util.Arrays;
+
+/**
+ * The class Topology is the storage engine behind a network.
+ * Every IP is interned to a dense int id and the neighbours of a node are sorted by the order of the IP´s.
+ * Most nodes are leaves, so up to two neighbours are kept inline in two slots of a paged int array,
+ * only nodes with more neighbours get a growable int array of their own.
+ * The IP´s themselves are only stored in their packed form (see {@link IP#toInt()}).
+ * Ids of removed nodes are reused by later insertions.
+ * All arrays are paged (see {@link PagedInts}), so a snapshot shares them and costs O(1),
+ * later changes copy only the pages they touch.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+final class Topology implements TopologyView {
+
+    /**
+     * Marks an id that is not assigned to a node.
+     */
+    static final int NO_NODE = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INLINE_DEGREE = 2;
+    private static final int INITIAL_DEGREE = 2 * INLINE_DEGREE;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final long MIX_MULTIPLIER1 = 0xFF51AFD7ED558CCDL;
+    private static final long MIX_MULTIPLIER2 = 0xC4CEB9FE1A85EC53L;
+    private static final int MIX_SHIFT = 33;
+    private static final int OBJECT_HEADER_BYTES = 16;
+
+    private PagedInts addresses;
+    private PagedInts inline;
+    private PagedLists neighbours;
+    private PagedInts degrees;
+    private PagedInts freeIds;
+    private int freeCount;
+    private int bound;
+    private int size;
+    private PagedInts table;
+    private int mask;
+    private long fingerprint;
+
+    /**
+     * Creates a new empty topology.
+     */
+    Topology() {
+        this.addresses = new PagedInts(INITIAL_CAPACITY);
+        this.inline = new PagedInts(INITIAL_CAPACITY * INLINE_DEGREE);
+        this.neighbours = new PagedLists(INITIAL_CAPACITY);
+        this.degrees = new PagedInts(INITIAL_CAPACITY);
+        this.freeIds = new PagedInts(INITIAL_CAPACITY);
+        this.table = new PagedInts(INITIAL_CAPACITY * 2);
+        this.mask = this.table.length() - 1;
+    }
+
+    /**
+     * Creates a snapshot of the given topology that shares all pages with it.
+     * @param other topology to share
+     */
+    private Topology(Topology other) {
+        this.addresses = other.addresses.share();
+        this.inline = other.inline.share();
+        this.neighbours = other.neighbours.share();
+        this.degrees = other.degrees.share();
+        this.freeIds = other.freeIds.share();
+        this.freeCount = other.freeCount;
+        this.bound = other.bound;
+        this.size = other.size;
+        this.table = other.table.share();
+        this.mask = other.mask;
+        this.fingerprint = other.fingerprint;
+    }
+
+    /**
+     * Returns a snapshot of this topology in O(1). Both topology´s can be changed independently.
+     * @return the snapshot
+     */
+    Topology snapshot() {
+        return new Topology(this);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public int bound() {
+        return this.bound;
+    }
+
+    @Override
+    public boolean isNode(int id) {
+        return id >= 0 && id < this.bound && this.degrees.get(id) != NO_NODE;
+    }
+
+    @Override
+    public int idOf(int packed) {
+        for (int slot = slotOf(packed); this.table.get(slot) != 0; slot = (slot + 1) & this.mask) {
+            int id = this.table.get(slot) - 1;
+            if (this.addresses.get(id) == packed) {
+                return id;
+            }
+        }
+        return NO_NODE;
+    }
+
+    @Override
+    public int packed(int id) {
+        return this.addresses.get(id);
+    }
+
+    @Override
+    public int degree(int id) {
+        return this.degrees.get(id);
+    }
+
+    @Override
+    public int neighbour(int id, int index) {
+        if (this.degrees.get(id) <= INLINE_DEGREE) {
+            return this.inline.get(id * INLINE_DEGREE + index);
+        }
+        return this.neighbours.get(id)[index];
+    }
+
+    /**
+     * Adds a new node without neighbours. The IP must not be part of the topology.
+     * @param ip IP of the new node
+     * @return the id of the new node
+     */
+    int add(IP ip) {
+        return add(ip.toInt());
+    }
+
+    /**
+     * Adds a new node without neighbours. The packed IP must not be part of the topology.
+     * @param packed packed IP of the new node
+     * @return the id of the new node
+     */
+    int add(int packed) {
+        int id;
+        if (this.freeCount > 0) {
+            id = this.freeIds.get(--this.freeCount);
+        } else {
+            if (this.bound == this.addresses.length()) {
+                grow();
+            }
+            id = this.bound++;
+        }
+        this.addresses.set(id, packed);
+        this.degrees.set(id, 0);
+        this.size++;
+        if (this.size * 2 > this.table.length()) {
+            rehash(this.table.length() * 2);
+        } else {
+            insertSlot(id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of the packed IP and adds it as new node if it is not part of the topology.
+     * @param packed packed IP to look up
+     * @return the id of the node
+     */
+    int intern(int packed) {
+        int id = idOf(packed);
+        return id == NO_NODE ? add(packed) : id;
+    }
+
+    /**
+     * Removes a node without neighbours.
+     * @param id node id
+     */
+    void remove(int id) {
+        deleteSlot(id);
+        this.addresses.set(id, 0);
+        this.degrees.set(id, NO_NODE);
+        this.freeIds.set(this.freeCount++, id);
+        this.size--;
+    }
+
+    /**
+     * Returns if there is an edge between two nodes.
+     * @param id1 first node
+     * @param id2 second node
+     * @return if the edge exists
+     */
+    boolean hasEdge(int id1, int id2) {
+        return search(id1, id2) >= 0;
+    }
+
+    /**
+     * Adds an undirected edge between two nodes. The edge must not exist already.
+     * @param id1 first node
+     * @param id2 second node
+     */
+    void link(int id1, int id2) {
+        insertNeighbour(id1, id2);
+        insertNeighbour(id2, id1);
+        this.fingerprint += edgeHash(id1, id2);
+    }
+
+    /**
+     * Removes an existing undirected edge between two nodes.
+     * @param id1 first node
+     * @param id2 second node
+     */
+    void unlink(int id1, int id2) {
+        removeNeighbour(id1, id2);
+        removeNeighbour(id2, id1);
+        this.fingerprint -= edgeHash(id1, id2);
+    }
+
+    /**
+     * Adds an undirected edge between two nodes without keeping the neighbour lists sorted.
+     * Used for bulk loading, {@link #sortNeighbours()} has to be called before the topology is queried.
+     * @param id1 first node
+     * @param id2 second node
+     */
+    void append(int id1, int id2) {
+        appendNeighbour(id1, id2);
+        appendNeighbour(id2, id1);
+        this.fingerprint += edgeHash(id1, id2);
+    }
+
+    /**
+     * Returns a fingerprint of the edges. It is the sum of a hash of every edge, so it does not depend
+     * on the order of the edges or the ids and is kept up to date by every change.
+     * @return the fingerprint
+     */
+    @Override
+    public long fingerprint() {
+        return this.fingerprint;
+    }
+
+    @Override
+    public int pageCount() {
+        return PagedInts.pageCount(this.addresses.length());
+    }
+
+    /**
+     * Returns if a page of this topology was not changed since it was shared with the other topology.
+     * All nodes with an id on such a page have the same IP and the same neighbours in both topology´s.
+     * @param other the other topology
+     * @param page index of the page
+     * @return if the page is shared
+     */
+    @Override
+    public boolean samePage(TopologyView other, int page) {
+        if (!(other instanceof Topology)) {
+            return false;
+        }
+        Topology topology = (Topology) other;
+        if (!this.addresses.samePage(topology.addresses, page) || !this.degrees.samePage(topology.degrees, page)
+                || !this.neighbours.samePage(topology.neighbours, page)) {
+            return false;
+        }
+        // the inline slots of a page of nodes fill two pages or a part of the only page
+        int pages = PagedInts.pageCount(this.inline.length());
+        for (int slots = page * INLINE_DEGREE; slots < Math.min((page + 1) * INLINE_DEGREE, pages); slots++) {
+            if (!this.inline.samePage(topology.inline, slots)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restores the order of all neighbour lists after {@link #append(int, int)}.
+     */
+    void sortNeighbours() {
+        long[] keys = new long[0];
+        for (int id = 0; id < this.bound; id++) {
+            int degree = this.degrees.get(id);
+            if (degree == INLINE_DEGREE) {
+                int base = id * INLINE_DEGREE;
+                if (compare(this.inline.get(base), this.inline.get(base + 1)) > 0) {
+                    int first = this.inline.get(base);
+                    this.inline.set(base, this.inline.get(base + 1));
+                    this.inline.set(base + 1, first);
+                }
+                continue;
+            }
+            if (degree < INLINE_DEGREE || isSorted(this.neighbours.get(id), degree)) {
+                continue;
+            }
+            int[] list = this.neighbours.writable(id);
+            if (keys.length < degree) {
+                keys = new long[Math.max(degree, keys.length * 2)];
+            }
+            // the flipped sign bit lets the signed sort follow the unsigned order of the IP´s
+            for (int i = 0; i < degree; i++) {
+                keys[i] = ((long) (this.addresses.get(list[i]) ^ Integer.MIN_VALUE) << Integer.SIZE) | list[i];
+            }
+            Arrays.sort(keys, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                list[i] = (int) keys[i];
+            }
+        }
+    }
+
+    @Override
+    public long footprint() {
+        long bytes = this.addresses.footprint() + this.inline.footprint() + this.neighbours.footprint()
+                + this.degrees.footprint() + this.freeIds.footprint() + this.table.footprint();
+        for (int id = 0; id < this.bound; id++) {
+            if (isNode(id) && this.degrees.get(id) > INLINE_DEGREE) {
+                bytes += arrayBytes(this.neighbours.get(id).length, Integer.BYTES);
+            }
+        }
+        return bytes;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return OBJECT_HEADER_BYTES + (long) length * elementBytes;
+    }
+
+    /**
+     * Returns the hash of an edge that is summed up to the fingerprint.
+     * @param packed1 packed IP of the first node
+     * @param packed2 packed IP of the second node
+     * @return the hash of the edge
+     */
+    static long edgeHashOf(int packed1, int packed2) {
+        long key = Edge.key(packed1, packed2);
+        key = (key ^ (key >>> MIX_SHIFT)) * MIX_MULTIPLIER1;
+        key = (key ^ (key >>> MIX_SHIFT)) * MIX_MULTIPLIER2;
+        return key ^ (key >>> MIX_SHIFT);
+    }
+
+    private long edgeHash(int id1, int id2) {
+        return edgeHashOf(this.addresses.get(id1), this.addresses.get(id2));
+    }
+
+    private int compare(int id1, int id2) {
+        return Integer.compareUnsigned(this.addresses.get(id1), this.addresses.get(id2));
+    }
+
+    private int search(int id, int key) {
+        int low = 0;
+        int high = this.degrees.get(id) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(neighbour(id, middle), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertNeighbour(int id, int neighbour) {
+        insertNeighbour(id, -(search(id, neighbour) + 1), neighbour);
+    }
+
+    private void appendNeighbour(int id, int neighbour) {
+        insertNeighbour(id, this.degrees.get(id), neighbour);
+    }
+
+    private void insertNeighbour(int id, int position, int neighbour) {
+        int degree = this.degrees.get(id);
+        int base = id * INLINE_DEGREE;
+        if (degree < INLINE_DEGREE) {
+            for (int i = degree; i > position; i--) {
+                this.inline.set(base + i, this.inline.get(base + i - 1));
+            }
+            this.inline.set(base + position, neighbour);
+        } else {
+            int[] list;
+            if (degree == INLINE_DEGREE) {
+                // the node outgrows its inline slots
+                list = new int[INITIAL_DEGREE];
+                for (int i = 0; i < INLINE_DEGREE; i++) {
+                    list[i] = this.inline.get(base + i);
+                }
+                this.neighbours.set(id, list);
+            } else {
+                list = this.neighbours.writable(id);
+                if (degree == list.length) {
+                    list = Arrays.copyOf(list, degree * 2);
+                    this.neighbours.set(id, list);
+                }
+            }
+            System.arraycopy(list, position, list, position + 1, degree - position);
+            list[position] = neighbour;
+        }
+        this.degrees.set(id, degree + 1);
+    }
+
+    private boolean isSorted(int[] list, int degree) {
+        for (int i = 1; i < degree; i++) {
+            if (compare(list[i - 1], list[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removeNeighbour(int id, int neighbour) {
+        int position = search(id, neighbour);
+        int degree = this.degrees.get(id) - 1;
+        int base = id * INLINE_DEGREE;
+        if (degree < INLINE_DEGREE) {
+            for (int i = position; i < degree; i++) {
+                this.inline.set(base + i, this.inline.get(base + i + 1));
+            }
+        } else {
+            int[] list = this.neighbours.writable(id);
+            System.arraycopy(list, position + 1, list, position, degree - position);
+            if (degree == INLINE_DEGREE) {
+                for (int i = 0; i < INLINE_DEGREE; i++) {
+                    this.inline.set(base + i, list[i]);
+                }
+                this.neighbours.set(id, null);
+            }
+        }
+        this.degrees.set(id, degree);
+    }
+
+    private void grow() {
+        int capacity = this.addresses.length() * 2;
+        this.addresses.grow(capacity);
+        this.inline.grow(capacity * INLINE_DEGREE);
+        this.neighbours.grow(capacity);
+        this.degrees.grow(capacity);
+        this.freeIds.grow(capacity);
+    }
+
+    private int slotOf(int packed) {
+        return (packed * HASH_MULTIPLIER) >>> Integer.numberOfLeadingZeros(this.mask) & this.mask;
+    }
+
+    private void insertSlot(int id) {
+        int slot = slotOf(this.addresses.get(id));
+        while (this.table.get(slot) != 0) {
+            slot = (slot + 1) & this.mask;
+        }
+        this.table.set(slot, id + 1);
+    }
+
+    private void deleteSlot(int id) {
+        int slot = slotOf(this.addresses.get(id));
+        while (this.table.get(slot) != id + 1) {
+            slot = (slot + 1) & this.mask;
+        }
+        // backward shift deletion keeps every probe sequence intact
+        int gap = slot;
+        for (slot = (slot + 1) & this.mask; this.table.get(slot) != 0; slot = (slot + 1) & this.mask) {
+            int home = slotOf(this.addresses.get(this.table.get(slot) - 1));
+            if (((slot - home) & this.mask) >= ((slot - gap) & this.mask)) {
+                this.table.set(gap, this.table.get(slot));
+                gap = slot;
+            }
+        }
+        this.table.set(gap, 0);
+    }
+
+    private void rehash(int length) {
+        this.table = new PagedInts(length);
+        this.mask = length - 1;
+        for (int id = 0; id < this.bound; id++) {
+            if (isNode(id)) {
+                insertSlot(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package edu.kit.informatik.network;
+
+/**
+ * The interface TopologyView is the read only part of a topology that all queries work on.
+ * Nodes have dense int ids below {@link #bound()}, the neighbours of a node are sorted by their IP´s.
+ *
+ * @author ucfoh
+ * @version 1.0
+ */
+interface TopologyView {
+
+    /**
+     * Returns the number of nodes.
+     * @return number of nodes
+     */
+    int size();
+
+    /**
+     * Returns the upper bound (exclusive) of all ids that are or were in use.
+     * @return the id bound
+     */
+    int bound();
+
+    /**
+     * Returns if the id belongs to a node.
+     * @param id node id
+     * @return if the id is in use
+     */
+    boolean isNode(int id);
+
+    /**
+     * Returns the id of the given IP.
+     * @param ip IP to look up
+     * @return the id or {@link Topology#NO_NODE} if the IP is not part of the topology
+     */
+    default int idOf(IP ip) {
+        return ip == null ? Topology.NO_NODE : idOf(ip.toInt());
+    }
+
+    /**
+     * Returns the id of the given packed IP.
+     * @param packed packed IP to look up
+     * @return the id or {@link Topology#NO_NODE} if the IP is not part of the topology
+     */
+    int idOf(int packed);
+
+    /**
+     * Returns the IP of a node.
+     * @param id node id
+     * @return the IP
+     */
+    default IP address(int id) {
+        return IP.valueOf(packed(id));
+    }
+
+    /**
+     * Returns the packed IP of a node.
+     * @param id node id
+     * @return the packed IP
+     */
+    int packed(int id);
+
+    /**
+     * Returns the number of neighbours of a node.
+     * @param id node id
+     * @return the degree
+     */
+    int degree(int id);
+
+    /**
+     * Returns a neighbour of a node. Neighbours are ordered by their IP.
+     * @param id node id
+     * @param index position in the neighbour list
+     * @return the id of the neighbour
+     */
+    int neighbour(int id, int index);
+
+    /**
+     * Returns a fingerprint of the edges, see {@link Topology#fingerprint()}.
+     * @return the fingerprint
+     */
+    long fingerprint();
+
+    /**
+     * Estimates the heap used by the topology in bytes.
+     * @return the estimated footprint
+     */
+    long footprint();
+
+    /**
+     * Returns the number of pages of ids, see {@link PagedInts}.
+     * @return number of pages
+     */
+    default int pageCount() {
+        return PagedInts.pageCount(bound());
+    }
+
+    /**
+     * Returns if a page of ids was not changed since it was shared with the other topology.
+     * @param other the other topology
+     * @param page index of the page
+     * @return if the page is shared
+     */
+    default boolean samePage(TopologyView other, int page) {
+        return false;
+    }
+}